@@ -44,6 +44,9 @@ create table app
 alter table app
     add version int default 1 null comment '版本号';
 
+alter table app
+    add deployDigest varchar(64) null comment '部署内容摘要';
+
 -- 对话历史表
 create table chat_history
 (
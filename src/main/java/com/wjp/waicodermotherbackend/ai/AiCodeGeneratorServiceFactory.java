@@ -4,6 +4,7 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.wjp.waicodermotherbackend.ai.guardrail.PromptSafetyInputGuardrail;
 import com.wjp.waicodermotherbackend.ai.guardrail.RetryOutputGuardrail;
+import com.wjp.waicodermotherbackend.ai.memory.BatchWindowChatMemory;
 import com.wjp.waicodermotherbackend.ai.tools.*;
 import com.wjp.waicodermotherbackend.exception.BusinessException;
 import com.wjp.waicodermotherbackend.exception.ErrorCode;
@@ -12,7 +13,6 @@ import com.wjp.waicodermotherbackend.service.ChatHistoryService;
 import com.wjp.waicodermotherbackend.utils.SpringContextUtil;
 import dev.langchain4j.community.store.memory.chat.redis.RedisChatMemoryStore;
 import dev.langchain4j.data.message.ToolExecutionResultMessage;
-import dev.langchain4j.memory.chat.MessageWindowChatMemory;
 import dev.langchain4j.model.chat.ChatModel;
 import dev.langchain4j.model.chat.StreamingChatModel;
 import dev.langchain4j.service.AiServices;
@@ -73,13 +73,8 @@ public class AiCodeGeneratorServiceFactory {
     private AiCodeGeneratorService createAiCodeGeneratorService(long appId, CodeGenTypeEnum codeGenType) {
         log.info("为 appId: {} 创建新的 AI服务实例", appId);
         // 根据 appId 构建独立的对话记忆
-        MessageWindowChatMemory chatMemory = MessageWindowChatMemory
-                .builder()
-                .id(appId)
-                // 会话存储的位置: Redis
-                .chatMemoryStore(redisChatMemoryStore)
-                .maxMessages(100)
-                .build();
+        // 会话存储的位置: Redis，窗口在进程内缓存，批量写入 Redis
+        BatchWindowChatMemory chatMemory = new BatchWindowChatMemory(appId, 100, redisChatMemoryStore);
 
         // 从数据库加载历史对话到记忆中
         chatHistoryService.loadChatHistoryToMemory(appId, chatMemory, 100);
@@ -0,0 +1,130 @@
+package com.wjp.waicodermotherbackend.ai.memory;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.memory.ChatMemory;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 支持批量提交的窗口对话记忆
+ * 窗口淘汰规则与 {@link dev.langchain4j.memory.chat.MessageWindowChatMemory} 一致，区别在于:
+ * - 窗口在进程内维护一份副本，{@link #messages()} 不再每次读取存储（Redis）
+ * - {@link #add(Iterable)} 把一批消息一次性写入存储，一轮工具调用（AI 消息 + 全部工具结果）只写一次 Redis
+ *
+ * 进程内副本在首次访问时从存储加载，之后每次修改都会整体写回存储（write-through）。
+ */
+public class BatchWindowChatMemory implements ChatMemory {
+
+    private final Object id;
+
+    private final int maxMessages;
+
+    private final ChatMemoryStore store;
+
+    /**
+     * 进程内的窗口副本，null 表示尚未从存储加载
+     */
+    private List<ChatMessage> window;
+
+    public BatchWindowChatMemory(Object id, int maxMessages, ChatMemoryStore store) {
+        if (maxMessages <= 0) {
+            throw new IllegalArgumentException("maxMessages 必须大于 0");
+        }
+        this.id = id;
+        this.maxMessages = maxMessages;
+        this.store = store;
+    }
+
+    @Override
+    public Object id() {
+        return id;
+    }
+
+    @Override
+    public synchronized void add(ChatMessage message) {
+        if (append(loadWindow(), message)) {
+            commit();
+        }
+    }
+
+    /**
+     * 批量添加消息，只写一次存储
+     */
+    @Override
+    public synchronized void add(Iterable<ChatMessage> messages) {
+        List<ChatMessage> current = loadWindow();
+        boolean changed = false;
+        for (ChatMessage message : messages) {
+            changed |= append(current, message);
+        }
+        if (changed) {
+            commit();
+        }
+    }
+
+    @Override
+    public synchronized List<ChatMessage> messages() {
+        return new ArrayList<>(loadWindow());
+    }
+
+    @Override
+    public synchronized void clear() {
+        window = new ArrayList<>();
+        store.deleteMessages(id);
+    }
+
+    private List<ChatMessage> loadWindow() {
+        if (window == null) {
+            window = new ArrayList<>(store.getMessages(id));
+            ensureCapacity(window, maxMessages);
+        }
+        return window;
+    }
+
+    private void commit() {
+        store.updateMessages(id, new ArrayList<>(window));
+    }
+
+    /**
+     * 追加一条消息到窗口
+     * @return 窗口是否发生变化
+     */
+    private boolean append(List<ChatMessage> messages, ChatMessage message) {
+        if (message instanceof SystemMessage) {
+            // 系统消息只保留一条，相同则忽略，不同则替换
+            for (int i = 0; i < messages.size(); i++) {
+                if (messages.get(i) instanceof SystemMessage) {
+                    if (messages.get(i).equals(message)) {
+                        return false;
+                    }
+                    messages.remove(i);
+                    break;
+                }
+            }
+        }
+        messages.add(message);
+        ensureCapacity(messages, maxMessages);
+        return true;
+    }
+
+    /**
+     * 超出窗口时淘汰最早的消息（保留系统消息），
+     * 被淘汰的 AI 消息如果带有工具调用，紧随其后的工具结果一并淘汰
+     */
+    private static void ensureCapacity(List<ChatMessage> messages, int maxMessages) {
+        while (messages.size() > maxMessages) {
+            int evictIndex = messages.get(0) instanceof SystemMessage ? 1 : 0;
+            ChatMessage evicted = messages.remove(evictIndex);
+            if (evicted instanceof AiMessage aiMessage && aiMessage.hasToolExecutionRequests()) {
+                while (messages.size() > evictIndex && messages.get(evictIndex) instanceof ToolExecutionResultMessage) {
+                    messages.remove(evictIndex);
+                }
+            }
+        }
+    }
+}
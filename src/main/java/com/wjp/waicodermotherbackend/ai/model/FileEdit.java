@@ -0,0 +1,24 @@
+package com.wjp.waicodermotherbackend.ai.model;
+
+import dev.langchain4j.model.output.structured.Description;
+import lombok.Data;
+
+/**
+ * 文件批量修改中的一处替换
+ */
+@Data
+@Description("一处替换")
+public class FileEdit {
+
+    /**
+     * 要替换的旧内容
+     */
+    @Description("要替换的旧内容，必须在文件中只出现一次")
+    private String oldContent;
+
+    /**
+     * 替换后的新内容
+     */
+    @Description("替换后的新内容")
+    private String newContent;
+}
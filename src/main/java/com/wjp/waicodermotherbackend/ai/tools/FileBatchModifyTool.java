@@ -0,0 +1,146 @@
+package com.wjp.waicodermotherbackend.ai.tools;
+
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONObject;
+import com.wjp.waicodermotherbackend.ai.model.FileEdit;
+import com.wjp.waicodermotherbackend.constant.AppConstant;
+import com.wjp.waicodermotherbackend.core.preview.FileChangeNotifier;
+import com.wjp.waicodermotherbackend.core.vfs.ProjectFileSystem;
+import com.wjp.waicodermotherbackend.utils.TextEditUtils;
+import com.wjp.waicodermotherbackend.utils.TextEditUtils.EditResult;
+import com.wjp.waicodermotherbackend.utils.TextEditUtils.EditStatus;
+import dev.langchain4j.agent.tool.P;
+import dev.langchain4j.agent.tool.Tool;
+import dev.langchain4j.agent.tool.ToolMemoryId;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * 文件批量修改工具
+ * 一次调用完成同一文件的多处替换：读取一次、扫描一次、写入一次，并返回每处替换的结果
+ */
+@Slf4j
+@Component
+public class FileBatchModifyTool extends BaseTool {
+
+    /**
+     * 文件变更通知（推送给预览页面）
+     */
+    @Resource
+    private FileChangeNotifier fileChangeNotifier;
+
+    /**
+     * 项目文件缓存（读写穿透）
+     */
+    @Resource
+    private ProjectFileSystem projectFileSystem;
+
+    @Tool("批量修改同一个文件的多处内容，每处用新内容替换文件中唯一出现的旧内容，比多次调用修改文件工具更高效")
+    public String batchModifyFile(
+            @P("文件的相对路径")
+            String relativeFilePath,
+            @P("要执行的替换列表，按顺序执行，互不重叠")
+            List<FileEdit> edits,
+            @ToolMemoryId Long appId
+    ) {
+        try {
+            if (edits == null || edits.isEmpty()) {
+                return "警告：替换列表为空，文件未修改 - " + relativeFilePath;
+            }
+            Path path = Paths.get(relativeFilePath);
+            String projectDirName = "vue_project_" + appId;
+            Path projectRoot = Paths.get(AppConstant.CODE_OUTPUT_ROOT_DIR, projectDirName);
+            if (!path.isAbsolute()) {
+                path = projectRoot.resolve(relativeFilePath);
+            }
+            String originalContent = projectFileSystem.readString(appId, projectRoot, path);
+            if (originalContent == null) {
+                return "错误：文件不存在或不是文件 - " + relativeFilePath;
+            }
+            EditResult result = TextEditUtils.applyEdits(originalContent,
+                    edits.stream().map(FileEdit::getOldContent).toList(),
+                    edits.stream().map(edit -> edit.getNewContent() == null ? "" : edit.getNewContent()).toList());
+            String report = buildReport(result.statuses());
+            if (result.appliedCount() == 0) {
+                return "警告：没有可以执行的替换，文件未修改 - " + relativeFilePath + "\n" + report;
+            }
+            if (originalContent.equals(result.content())) {
+                return "信息：替换后文件内容未发生变化 - " + relativeFilePath + "\n" + report;
+            }
+            projectFileSystem.writeString(appId, projectRoot, path, result.content());
+            log.info("成功批量修改文件: {}, 替换 {}/{} 处", path.toAbsolutePath(), result.appliedCount(), edits.size());
+            // 推送文件变更，前端可按文件热更新
+            fileChangeNotifier.publish(appId, FileChangeNotifier.TYPE_MODIFY,
+                    FileChangeNotifier.toRelativePath(projectRoot, path), result.content().getBytes(StandardCharsets.UTF_8));
+            return String.format("文件修改成功: %s（成功 %d/%d 处）%n%s",
+                    relativeFilePath, result.appliedCount(), edits.size(), report);
+        } catch (IOException e) {
+            String errorMessage = "批量修改文件失败: " + relativeFilePath + ", 错误: " + e.getMessage();
+            log.error(errorMessage, e);
+            return errorMessage;
+        }
+    }
+
+    /**
+     * 每处替换的结果说明
+     */
+    private static String buildReport(List<EditStatus> statuses) {
+        StringBuilder report = new StringBuilder();
+        for (int i = 0; i < statuses.size(); i++) {
+            String description = switch (statuses.get(i)) {
+                case APPLIED -> "已替换";
+                case EMPTY -> "旧内容为空，未替换";
+                case NOT_FOUND -> "文件中未找到旧内容，未替换";
+                case AMBIGUOUS -> "旧内容在文件中出现多次，请提供更多上下文，未替换";
+                case OVERLAPPED -> "与前面的替换位置重叠，未替换";
+            };
+            report.append("第 ").append(i + 1).append(" 处: ").append(description).append("\n");
+        }
+        return report.toString();
+    }
+
+    @Override
+    public String getToolName() {
+        return "batchModifyFile";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "批量修改文件";
+    }
+
+    @Override
+    public String generateToolExecutedResult(JSONObject arguments) {
+        String relativeFilePath = arguments.getStr("relativeFilePath");
+        JSONArray edits = arguments.getJSONArray("edits");
+        StringBuilder result = new StringBuilder();
+        result.append(String.format("[工具调用] %s %s%n", getDisplayName(), relativeFilePath));
+        if (edits == null) {
+            return result.toString();
+        }
+        for (int i = 0; i < edits.size(); i++) {
+            JSONObject edit = edits.getJSONObject(i);
+            // 显示对比内容
+            result.append(String.format("""
+
+                    第 %d 处替换前:
+                    ```
+                    %s
+                    ```
+
+                    替换后:
+                    ```
+                    %s
+                    ```
+                    """, i + 1, edit.getStr("oldContent"), edit.getStr("newContent")));
+        }
+        return result.toString();
+    }
+}
@@ -2,9 +2,12 @@ package com.wjp.waicodermotherbackend.ai.tools;
 
 import cn.hutool.json.JSONObject;
 import com.wjp.waicodermotherbackend.constant.AppConstant;
+import com.wjp.waicodermotherbackend.core.preview.FileChangeNotifier;
+import com.wjp.waicodermotherbackend.core.vfs.ProjectFileSystem;
 import dev.langchain4j.agent.tool.P;
 import dev.langchain4j.agent.tool.Tool;
 import dev.langchain4j.agent.tool.ToolMemoryId;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -21,6 +24,18 @@ import java.nio.file.Paths;
 @Component
 public class FileDeleteTool extends BaseTool {
 
+    /**
+     * 文件变更通知（推送给预览页面）
+     */
+    @Resource
+    private FileChangeNotifier fileChangeNotifier;
+
+    /**
+     * 项目文件缓存（读写穿透）
+     */
+    @Resource
+    private ProjectFileSystem projectFileSystem;
+
     @Tool("删除指定路径的文件")
     public String deleteFile(
             @P("文件的相对路径") // 标记参数描述，帮助 AI 理解参数含义
@@ -30,13 +45,13 @@ public class FileDeleteTool extends BaseTool {
         try {
             // 将 字符串 转换为 Path对象(可以获取到 文件的绝对路径、文件名)
             Path path = Paths.get(relativeFilePath);
+            // 根据 应用ID 创建项目名
+            String projectDirName = "vue_project_" + appId;
+            // 将多个路径片段 合并为一个完整路径
+            // 获取到项目根目录的 Path对象
+            Path projectRoot = Paths.get(AppConstant.CODE_OUTPUT_ROOT_DIR, projectDirName);
             // 如果不是绝对路径，就进入到 if
             if(!path.isAbsolute()) {
-                // 根据 应用ID 创建项目名
-                String projectDirName = "vue_project_" + appId;
-                // 将多个路径片段 合并为一个完整路径
-                // 获取到项目根目录的 Path对象
-                Path projectRoot = Paths.get(AppConstant.CODE_OUTPUT_ROOT_DIR, projectDirName);
                 // 会先检查 relativeFilePath 是否是相对路径，如果是的的话，
                 // projectRoot(绝对路径) 才会和 relativeFilePath 进行拼接，生成新的Path对象
                 // 否则，直接返回 relativeFilePath
@@ -57,8 +72,10 @@ public class FileDeleteTool extends BaseTool {
                 return "错误，不允许删除重要文件 - " + fileName;
             }
 
-            Files.delete(path);
+            projectFileSystem.delete(appId, projectRoot, path);
             log.info("成功删除文件: {}", path.toAbsolutePath());
+            // 推送文件变更，前端可按文件热更新
+            fileChangeNotifier.publishDelete(appId, FileChangeNotifier.toRelativePath(projectRoot, path));
             return "文件删除成功: " + relativeFilePath;
         } catch(IOException e) {
             String errorMessage = "删除文件失败: " + relativeFilePath + ",错误: " + e.getMessage();
@@ -1,12 +1,15 @@
 package com.wjp.waicodermotherbackend.ai.tools;
 
-import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.json.JSONObject;
 import com.wjp.waicodermotherbackend.constant.AppConstant;
+import com.wjp.waicodermotherbackend.core.vfs.ProjectFileSystem;
+import com.wjp.waicodermotherbackend.utils.ProjectFileWalker;
+import com.wjp.waicodermotherbackend.utils.ProjectFileWalker.ProjectFile;
 import dev.langchain4j.agent.tool.P;
 import dev.langchain4j.agent.tool.Tool;
 import dev.langchain4j.agent.tool.ToolMemoryId;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -39,6 +42,18 @@ public class FileDirReadTool extends BaseTool{
             ".log", ".tmp", ".cache", ".lock"
     );
 
+    /**
+     * 目录遍历（忽略的目录不进入）
+     */
+    private static final ProjectFileWalker DIR_WALKER = ProjectFileWalker.create()
+            .filterNames(name -> !shouldIgnore(name));
+
+    /**
+     * 项目文件缓存（读写穿透）
+     */
+    @Resource
+    private ProjectFileSystem projectFileSystem;
+
     @Tool("读取目录结构，获取指定目录下的所有文件和子目录信息")
     public String readDir(
             @P("目录的相对路径，为空则读取整个项目结构")
@@ -47,9 +62,9 @@ public class FileDirReadTool extends BaseTool{
     ) {
         try {
             Path path = Paths.get(relativeDirPath == null ? "" : relativeDirPath);
+            String projectDirName = "vue_project_" + appId;
+            Path projectRoot = Paths.get(AppConstant.CODE_OUTPUT_ROOT_DIR, projectDirName);
             if (!path.isAbsolute()) {
-                String projectDirName = "vue_project_" + appId;
-                Path projectRoot = Paths.get(AppConstant.CODE_OUTPUT_ROOT_DIR, projectDirName);
                 path = projectRoot.resolve(relativeDirPath == null ? "" : relativeDirPath);
             }
             File targetDir = path.toFile();
@@ -58,22 +73,14 @@ public class FileDirReadTool extends BaseTool{
             }
             StringBuilder structure = new StringBuilder();
             structure.append("项目目录结构:\n");
-            // 使用 Hutool 递归获取所有文件
-            List<File> allFiles = FileUtil.loopFiles(targetDir, file -> !shouldIgnore(file.getName()));
-            // 按路径深度和名称排序显示
+            // 递归获取所有文件，忽略的目录不进入遍历（项目清单缓存在内存中）
+            List<ProjectFile> allFiles = projectFileSystem.listFiles(appId, projectRoot, targetDir.toPath(), DIR_WALKER);
+            // 按路径深度和名称排序显示（深度在遍历时已算好）
             allFiles.stream()
-                    .sorted((f1, f2) -> {
-                        int depth1 = getRelativeDepth(targetDir, f1);
-                        int depth2 = getRelativeDepth(targetDir, f2);
-                        if (depth1 != depth2) {
-                            return Integer.compare(depth1, depth2);
-                        }
-                        return f1.getPath().compareTo(f2.getPath());
-                    })
+                    .sorted(ProjectFileWalker.DEPTH_FIRST_ORDER)
                     .forEach(file -> {
-                        int depth = getRelativeDepth(targetDir, file);
-                        String indent = "  ".repeat(depth);
-                        structure.append(indent).append(file.getName());
+                        String indent = "  ".repeat(file.getDepth());
+                        structure.append(indent).append(file.getPath().getFileName()).append("\n");
                     });
             return structure.toString();
 
@@ -84,19 +91,10 @@ public class FileDirReadTool extends BaseTool{
         }
     }
 
-    /**
-     * 计算文件相对于根目录的深度
-     */
-    private int getRelativeDepth(File root, File file) {
-        Path rootPath = root.toPath();
-        Path filePath = file.toPath();
-        return rootPath.relativize(filePath).getNameCount() - 1;
-    }
-
     /**
      * 判断是否应该忽略该文件或目录
      */
-    private boolean shouldIgnore(String fileName) {
+    private static boolean shouldIgnore(String fileName) {
         // 检查是否在忽略名称列表中
         if (IGNORED_NAMES.contains(fileName)) {
             return true;
@@ -2,17 +2,19 @@ package com.wjp.waicodermotherbackend.ai.tools;
 
 import cn.hutool.json.JSONObject;
 import com.wjp.waicodermotherbackend.constant.AppConstant;
+import com.wjp.waicodermotherbackend.core.preview.FileChangeNotifier;
+import com.wjp.waicodermotherbackend.core.vfs.ProjectFileSystem;
 import dev.langchain4j.agent.tool.P;
 import dev.langchain4j.agent.tool.Tool;
 import dev.langchain4j.agent.tool.ToolMemoryId;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 
 /**
  * 文件修改工具
@@ -22,6 +24,18 @@ import java.nio.file.StandardOpenOption;
 @Component
 public class FileModifyTool extends BaseTool{
 
+    /**
+     * 文件变更通知（推送给预览页面）
+     */
+    @Resource
+    private FileChangeNotifier fileChangeNotifier;
+
+    /**
+     * 项目文件缓存（读写穿透）
+     */
+    @Resource
+    private ProjectFileSystem projectFileSystem;
+
     @Tool("修改文件内容，用新内容替换指定的旧内容")
     public String modifyFile(
             @P("文件的相对路径")
@@ -34,15 +48,15 @@ public class FileModifyTool extends BaseTool{
     ) {
         try {
             Path path = Paths.get(relativeFilePath);
+            String projectDirName = "vue_project_" + appId;
+            Path projectRoot = Paths.get(AppConstant.CODE_OUTPUT_ROOT_DIR, projectDirName);
             if (!path.isAbsolute()) {
-                String projectDirName = "vue_project_" + appId;
-                Path projectRoot = Paths.get(AppConstant.CODE_OUTPUT_ROOT_DIR, projectDirName);
                 path = projectRoot.resolve(relativeFilePath);
             }
-            if (!Files.exists(path) || !Files.isRegularFile(path)) {
+            String originalContent = projectFileSystem.readString(appId, projectRoot, path);
+            if (originalContent == null) {
                 return "错误：文件不存在或不是文件 - " + relativeFilePath;
             }
-            String originalContent = Files.readString(path);
             if (!originalContent.contains(oldContent)) {
                 return "警告：文件中未找到要替换的内容，文件未修改 - " + relativeFilePath;
             }
@@ -50,8 +64,11 @@ public class FileModifyTool extends BaseTool{
             if (originalContent.equals(modifiedContent)) {
                 return "信息：替换后文件内容未发生变化 - " + relativeFilePath;
             }
-            Files.writeString(path, modifiedContent, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            projectFileSystem.writeString(appId, projectRoot, path, modifiedContent);
             log.info("成功修改文件: {}", path.toAbsolutePath());
+            // 推送文件变更，前端可按文件热更新
+            fileChangeNotifier.publish(appId, FileChangeNotifier.TYPE_MODIFY,
+                    FileChangeNotifier.toRelativePath(projectRoot, path), modifiedContent.getBytes(StandardCharsets.UTF_8));
             return "文件修改成功: " + relativeFilePath;
         } catch (IOException e) {
             String errorMessage = "修改文件失败: " + relativeFilePath + ", 错误: " + e.getMessage();
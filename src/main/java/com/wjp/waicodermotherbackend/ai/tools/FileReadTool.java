@@ -2,14 +2,15 @@ package com.wjp.waicodermotherbackend.ai.tools;
 
 import cn.hutool.json.JSONObject;
 import com.wjp.waicodermotherbackend.constant.AppConstant;
+import com.wjp.waicodermotherbackend.core.vfs.ProjectFileSystem;
 import dev.langchain4j.agent.tool.P;
 import dev.langchain4j.agent.tool.Tool;
 import dev.langchain4j.agent.tool.ToolMemoryId;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -21,6 +22,12 @@ import java.nio.file.Paths;
 @Component
 public class FileReadTool extends BaseTool{
 
+    /**
+     * 项目文件缓存（读写穿透）
+     */
+    @Resource
+    private ProjectFileSystem projectFileSystem;
+
     @Tool("读取指定路径的文件内容")
     public String readFile(
             @P("文件的相对路径")
@@ -29,15 +36,16 @@ public class FileReadTool extends BaseTool{
     ) {
         try {
             Path path = Paths.get(relativeFilePath);
+            String projectDirName = "vue_project_" + appId;
+            Path projectRoot = Paths.get(AppConstant.CODE_OUTPUT_ROOT_DIR, projectDirName);
             if (!path.isAbsolute()) {
-                String projectDirName = "vue_project_" + appId;
-                Path projectRoot = Paths.get(AppConstant.CODE_OUTPUT_ROOT_DIR, projectDirName);
                 path = projectRoot.resolve(relativeFilePath);
             }
-            if (!Files.exists(path) || !Files.isRegularFile(path)) {
+            String content = projectFileSystem.readString(appId, projectRoot, path);
+            if (content == null) {
                 return "错误：文件不存在或不是文件 - " + relativeFilePath;
             }
-            return Files.readString(path);
+            return content;
         } catch (IOException e) {
             String errorMessage = "读取文件失败: " + relativeFilePath + ", 错误: " + e.getMessage();
             log.error(errorMessage, e);
@@ -3,17 +3,19 @@ package com.wjp.waicodermotherbackend.ai.tools;
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.json.JSONObject;
 import com.wjp.waicodermotherbackend.constant.AppConstant;
+import com.wjp.waicodermotherbackend.core.preview.FileChangeNotifier;
+import com.wjp.waicodermotherbackend.core.vfs.ProjectFileSystem;
 import dev.langchain4j.agent.tool.P;
 import dev.langchain4j.agent.tool.Tool;
 import dev.langchain4j.agent.tool.ToolMemoryId;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 
 /**
  * 文件写入工具
@@ -23,6 +25,18 @@ import java.nio.file.StandardOpenOption;
 @Component
 public class FileWriteTool extends BaseTool{
 
+    /**
+     * 文件变更通知（推送给预览页面）
+     */
+    @Resource
+    private FileChangeNotifier fileChangeNotifier;
+
+    /**
+     * 项目文件缓存（读写穿透）
+     */
+    @Resource
+    private ProjectFileSystem projectFileSystem;
+
     @Tool("写入文件到指定路径")
     public String writeFile(
             @P("文件的相对路径")
@@ -33,22 +47,20 @@ public class FileWriteTool extends BaseTool{
     ) {
         try {
             Path path = Paths.get(relativeFilePath);
+            // 相对路径处理，创建基于 appId 的项目目录
+            String projectDirName = "vue_project_" + appId;
+            Path projectRoot = Paths.get(AppConstant.CODE_OUTPUT_ROOT_DIR, projectDirName);
             if (!path.isAbsolute()) {
-                // 相对路径处理，创建基于 appId 的项目目录
-                String projectDirName = "vue_project_" + appId;
-                Path projectRoot = Paths.get(AppConstant.CODE_OUTPUT_ROOT_DIR, projectDirName);
                 path = projectRoot.resolve(relativeFilePath);
             }
-            // 创建父目录（如果不存在）
-            Path parentDir = path.getParent();
-            if (parentDir != null) {
-                Files.createDirectories(parentDir);
+            // 写入文件内容（父目录不存在时一并创建），内容未变化时不写磁盘
+            if (!projectFileSystem.writeString(appId, projectRoot, path, content)) {
+                return "文件写入成功: " + relativeFilePath;
             }
-            // 写入文件内容
-            Files.write(path, content.getBytes(),
-                    StandardOpenOption.CREATE,
-                    StandardOpenOption.TRUNCATE_EXISTING);
             log.info("成功写入文件: {}", path.toAbsolutePath());
+            // 推送文件变更，前端可按文件热更新
+            fileChangeNotifier.publish(appId, FileChangeNotifier.TYPE_WRITE,
+                    FileChangeNotifier.toRelativePath(projectRoot, path), content.getBytes(StandardCharsets.UTF_8));
             // 注意要返回相对路径，不能让 AI 把文件绝对路径返回给用户
             return "文件写入成功: " + relativeFilePath;
         } catch (IOException e) {
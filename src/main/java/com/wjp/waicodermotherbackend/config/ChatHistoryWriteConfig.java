@@ -0,0 +1,47 @@
+package com.wjp.waicodermotherbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.File;
+import java.time.Duration;
+
+/**
+ * 对话历史异步批量写入配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chat-history.write-behind")
+@Data
+public class ChatHistoryWriteConfig {
+
+    /**
+     * 是否开启异步批量写入，关闭时每条消息同步插入
+     */
+    private boolean enabled = false;
+
+    /**
+     * 单个 INSERT 语句最多包含的行数，队列积压达到该值时立即刷盘
+     */
+    private int batchSize = 100;
+
+    /**
+     * 单个 INSERT 语句的消息内容总字节数上限（避免超过 MySQL max_allowed_packet）
+     */
+    private int maxBatchBytes = 4 * 1024 * 1024;
+
+    /**
+     * 定时刷盘间隔
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * 队列容量，队列满时退化为同步插入
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * 写库失败、停机未写完时的本地落盘文件，启动时自动重放
+     */
+    private String spillFile = System.getProperty("user.dir") + File.separator + "tmp" + File.separator + "chat_history_spill.jsonl";
+}
@@ -0,0 +1,43 @@
+package com.wjp.waicodermotherbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.File;
+import java.time.Duration;
+
+/**
+ * 部署内容存储配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "deploy.store")
+@Data
+public class DeployStoreConfig {
+
+    /**
+     * 是否开启内容寻址存储，关闭时每次部署完整复制文件
+     */
+    private boolean enabled = false;
+
+    /**
+     * 存储目录（文件内容和版本清单），需要与部署目录在同一个文件系统上才能使用硬链接
+     */
+    private String storeDir = System.getProperty("user.dir") + File.separator + "tmp" + File.separator + "code_deploy_store";
+
+    /**
+     * 每个应用保留的部署版本数，更早的版本在部署后清理（当前使用的版本始终保留）
+     */
+    private int keepVersions = 20;
+
+    /**
+     * 每个应用保留的版本清单数（不少于 keepVersions），版本目录被清理后仍可按清单重新链接回滚
+     * 超出的清单连同版本一起删除，其引用的内容随后被清理
+     */
+    private int keepManifests = 100;
+
+    /**
+     * 清理无引用文件内容的最小间隔
+     */
+    private Duration gcInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,32 @@
+package com.wjp.waicodermotherbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.File;
+import java.util.zip.Deflater;
+
+/**
+ * 项目下载压缩包配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "project-archive")
+@Data
+public class ProjectArchiveConfig {
+
+    /**
+     * 压缩包缓存目录，每个项目只保留最新内容对应的压缩包
+     */
+    private String cacheDir = System.getProperty("user.dir") + File.separator + "tmp" + File.separator + "code_archive";
+
+    /**
+     * 并行压缩的线程数（默认 CPU 核数）
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 压缩级别（0-9，-1 为默认级别）
+     */
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+}
@@ -0,0 +1,30 @@
+package com.wjp.waicodermotherbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * AI 文件工具的项目文件内存缓存配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "project-file-cache")
+@Data
+public class ProjectFileCacheConfig {
+
+    /**
+     * 是否开启（关闭后工具直接读写磁盘）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 所有项目缓存的文件内容总大小，超出后按最近最少使用淘汰整个项目
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * 超过该大小的文件不缓存内容（只记录修改时间和 hash）
+     */
+    private DataSize maxFileSize = DataSize.ofKilobytes(512);
+}
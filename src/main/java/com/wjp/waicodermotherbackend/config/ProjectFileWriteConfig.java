@@ -0,0 +1,42 @@
+package com.wjp.waicodermotherbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * AI 文件工具写入配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "project-file-write")
+@Data
+public class ProjectFileWriteConfig {
+
+    /**
+     * 刷盘方式
+     */
+    public enum SyncMode {
+        /**
+         * 不主动刷盘，由操作系统决定
+         */
+        NONE,
+        /**
+         * 每次写入后立即刷盘
+         */
+        EACH,
+        /**
+         * 一轮工具调用结束后统一刷盘（组提交）
+         */
+        TURN
+    }
+
+    /**
+     * 是否先写临时文件再原子重命名，预览页面不会读到写了一半的文件
+     */
+    private boolean atomic = true;
+
+    /**
+     * 刷盘方式
+     */
+    private SyncMode syncMode = SyncMode.NONE;
+}
@@ -2,19 +2,26 @@ package com.wjp.waicodermotherbackend.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.wjp.waicodermotherbackend.manager.cache.NearCacheManager;
 import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.Set;
 
+@Slf4j
 @Configuration
 public class RedisCacheManagerConfig {
 
@@ -39,11 +46,38 @@ public class RedisCacheManagerConfig {
 //                .serializeValuesWith(RedisSerializationContext.SerializationPair
 //                        .fromSerializer(new GenericJackson2JsonRedisSerializer(objectMapper)));
         
-        return RedisCacheManager.builder(redisConnectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
                 .cacheDefaults(defaultConfig)
                 // 针对 good_app_page 配置5分钟过期
                 .withCacheConfiguration("good_app_page",
                         defaultConfig.entryTtl(Duration.ofMinutes(5)))
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // good_app_page 在 Redis 前加一层本地缓存，变更时通过 Redis 频道通知各节点清理
+        StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(redisConnectionFactory);
+        return new NearCacheManager(redisCacheManager, Set.of("good_app_page"),
+                // 本地缓存最多 1000 个 key，1 分钟兜底过期（防止漏收失效通知）
+                1000, Duration.ofMinutes(1),
+                cacheName -> {
+                    try {
+                        stringRedisTemplate.convertAndSend(NearCacheManager.INVALIDATION_CHANNEL, cacheName);
+                    } catch (Exception e) {
+                        log.warn("发布缓存失效通知失败: {}", cacheName, e);
+                    }
+                });
+    }
+
+    /**
+     * 监听本地缓存失效通知
+     */
+    @Bean
+    public RedisMessageListenerContainer nearCacheInvalidationListenerContainer(CacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        if (cacheManager instanceof NearCacheManager nearCacheManager) {
+            container.addMessageListener(nearCacheManager, new ChannelTopic(NearCacheManager.INVALIDATION_CHANNEL));
+        }
+        return container;
     }
 }
@@ -0,0 +1,51 @@
+package com.wjp.waicodermotherbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 截图浏览器池配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "screenshot.pool")
+@Data
+public class ScreenshotPoolConfig {
+
+    /**
+     * 浏览器实例数（同时进行的截图数）
+     */
+    private int size = 2;
+
+    /**
+     * 启动时预先创建浏览器实例
+     */
+    private boolean prewarm = false;
+
+    /**
+     * 等待截图的任务队列容量，队列满时拒绝新任务
+     */
+    private int queueCapacity = 50;
+
+    /**
+     * 每个浏览器实例最多截图多少个页面后重建，避免内存泄漏
+     */
+    private int maxPagesPerDriver = 50;
+
+    /**
+     * 调用方等待截图结果的超时时间（包含排队时间）
+     */
+    private Duration timeout = Duration.ofSeconds(60);
+
+    /**
+     * 浏览器窗口宽度
+     */
+    private int windowWidth = 1600;
+
+    /**
+     * 浏览器窗口高度
+     */
+    private int windowHeight = 900;
+}
@@ -0,0 +1,62 @@
+package com.wjp.waicodermotherbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 静态资源访问配置（预览、部署站点）
+ */
+@Configuration
+@ConfigurationProperties(prefix = "static-resource")
+@Data
+public class StaticResourceConfig {
+
+    /**
+     * 缓存的文件元数据（ETag、修改时间、大小）最大条数
+     */
+    private long metadataCacheSize = 10000;
+
+    /**
+     * 缓存的部署版本路径解析结果（包括不存在的路径）最大条数
+     */
+    private long pathCacheSize = 50000;
+
+    /**
+     * 不低于该大小的文件交给容器零拷贝发送（sendfile）
+     */
+    private DataSize sendfileMinSize = DataSize.ofKilobytes(48);
+
+    /**
+     * 部署版本目录（V{n}）下资源的浏览器缓存时间，版本内容不会变化
+     */
+    private Duration immutableMaxAge = Duration.ofDays(365);
+
+    /**
+     * 部署时是否为文本文件生成 .gz 预压缩文件
+     */
+    private boolean precompress = true;
+
+    /**
+     * 小于该大小的文件不预压缩
+     */
+    private DataSize precompressMinSize = DataSize.ofKilobytes(1);
+
+    /**
+     * 是否在内存中缓存部署版本目录下的小文件
+     */
+    private boolean hotCacheEnabled = true;
+
+    /**
+     * 内存缓存的总大小（按文件字节数计算）
+     */
+    private DataSize hotCacheMaxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * 超过该大小的文件不放入内存缓存
+     */
+    private DataSize hotCacheMaxFileSize = DataSize.ofKilobytes(256);
+}
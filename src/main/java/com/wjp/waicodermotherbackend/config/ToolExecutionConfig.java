@@ -0,0 +1,53 @@
+package com.wjp.waicodermotherbackend.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * 工具调用执行配置
+ * 供 AiServiceStreamingResponseHandler（非 Spring 管理）读取，因此额外提供静态访问入口
+ */
+@Configuration
+@ConfigurationProperties(prefix = "tool-execution")
+@Data
+public class ToolExecutionConfig {
+
+    /**
+     * 默认配置（未启动 Spring 时使用）
+     */
+    private static volatile ToolExecutionConfig instance = new ToolExecutionConfig();
+
+    /**
+     * 同一轮的多个工具调用是否并行执行
+     * 操作同一文件的调用仍按原顺序串行执行，没有文件路径参数的调用作为屏障单独执行
+     */
+    private boolean parallel = false;
+
+    /**
+     * 表示文件路径的工具参数名，用于判断两个工具调用是否操作同一文件
+     */
+    private List<String> pathArguments = List.of("relativeFilePath");
+
+    /**
+     * 是否批量提交对话记忆
+     * 开启后一轮的 AI 消息和全部工具结果在工具执行完成后一次性写入记忆，
+     * 配合 BatchWindowChatMemory 只产生一次 Redis 写入
+     */
+    private boolean batchMemoryCommit = false;
+
+    @PostConstruct
+    public void init() {
+        instance = this;
+    }
+
+    /**
+     * 获取当前生效的配置
+     */
+    public static ToolExecutionConfig getInstance() {
+        return instance;
+    }
+}
@@ -0,0 +1,51 @@
+package com.wjp.waicodermotherbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 常驻 Vite 构建进程配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "vue-build.vite-worker")
+@Data
+public class ViteWorkerConfig {
+
+    /**
+     * 是否使用常驻进程构建，关闭时每次执行 npm run build
+     */
+    private boolean enabled = false;
+
+    /**
+     * 常驻进程数
+     */
+    private int size = 2;
+
+    /**
+     * Node 可执行文件
+     */
+    private String nodeCommand = "node";
+
+    /**
+     * 构建脚本路径，为空时使用内置的 vite-worker/vite-build-worker.mjs
+     */
+    private String script;
+
+    /**
+     * 进程启动超时时间
+     */
+    private Duration startTimeout = Duration.ofSeconds(30);
+
+    /**
+     * 单次构建超时时间
+     */
+    private Duration buildTimeout = Duration.ofMinutes(3);
+
+    /**
+     * 每个进程最多构建多少次后重启，避免内存持续增长
+     */
+    private int maxBuildsPerWorker = 100;
+}
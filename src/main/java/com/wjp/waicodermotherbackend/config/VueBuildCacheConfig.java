@@ -0,0 +1,31 @@
+package com.wjp.waicodermotherbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.File;
+
+/**
+ * Vue 项目依赖缓存配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "vue-build.dependency-cache")
+@Data
+public class VueBuildCacheConfig {
+
+    /**
+     * 是否开启依赖缓存，关闭时每个项目单独执行 npm install
+     */
+    private boolean enabled = false;
+
+    /**
+     * 缓存目录，每组依赖（package.json + lockfile 的摘要）对应一个子目录
+     */
+    private String cacheDir = System.getProperty("user.dir") + File.separator + "tmp" + File.separator + "node_modules_cache";
+
+    /**
+     * 最多保留多少组依赖，超过时删除最久未使用的
+     */
+    private int maxEntries = 10;
+}
@@ -0,0 +1,36 @@
+package com.wjp.waicodermotherbackend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Vue 项目构建调度配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "vue-build.scheduler")
+@Data
+public class VueBuildSchedulerConfig {
+
+    /**
+     * 同时进行的构建数（默认 CPU 核数的一半）
+     */
+    private int concurrency = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * 等待构建的队列容量，队列满时拒绝新任务
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * 同步等待构建结果的超时时间（包含排队时间）
+     */
+    private Duration timeout = Duration.ofMinutes(10);
+
+    /**
+     * 记录多少个项目最近一次成功构建的源码摘要，用于跳过源码未变化的构建
+     */
+    private int maxTrackedProjects = 10000;
+}
@@ -12,6 +12,9 @@ import com.wjp.waicodermotherbackend.common.DeleteRequest;
 import com.wjp.waicodermotherbackend.common.ResultUtils;
 import com.wjp.waicodermotherbackend.constant.AppConstant;
 import com.wjp.waicodermotherbackend.constant.UserConstant;
+import com.wjp.waicodermotherbackend.core.builder.BuildLogNotifier;
+import com.wjp.waicodermotherbackend.core.builder.VueBuildScheduler;
+import com.wjp.waicodermotherbackend.core.preview.FileChangeNotifier;
 import com.wjp.waicodermotherbackend.exception.BusinessException;
 import com.wjp.waicodermotherbackend.exception.ErrorCode;
 import com.wjp.waicodermotherbackend.exception.ThrowUtils;
@@ -25,6 +28,8 @@ import com.wjp.waicodermotherbackend.ratelimit.enums.RateLimitType;
 import com.wjp.waicodermotherbackend.service.UserService;
 import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
@@ -33,7 +38,9 @@ import com.wjp.waicodermotherbackend.model.entity.App;
 import com.wjp.waicodermotherbackend.service.AppService;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -50,12 +57,29 @@ import java.util.HashMap;
 @RequestMapping("/app")
 public class AppController {
 
+    /**
+     * 构建日志连接的最长保持时间
+     */
+    private static final Duration BUILD_LOG_MAX_DURATION = Duration.ofMinutes(15);
+
     @Resource
     private AppService appService;
 
     @Resource
     private UserService userService;
 
+    @Resource
+    private FileChangeNotifier fileChangeNotifier;
+
+    @Resource
+    private CacheManager cacheManager;
+
+    @Resource
+    private VueBuildScheduler vueBuildScheduler;
+
+    @Resource
+    private BuildLogNotifier buildLogNotifier;
+
 
 
     /**
@@ -75,7 +99,9 @@ public class AppController {
         User loginUser = userService.getLoginUser(request);
         ThrowUtils.throwIf(loginUser == null, ErrorCode.NOT_LOGIN_ERROR);
         Flux<String> contentFlux = appService.chatToGenCode(appId, message, loginUser);
-        return contentFlux
+        // 内容流结束信号，用于同时结束文件变更流
+        Sinks.Empty<Void> contentDone = Sinks.empty();
+        Flux<ServerSentEvent<String>> dataFlux = contentFlux
                 .map(chunk -> {
                     Map<String, String> wrapper = Map.of("d", chunk);
                     String jsonData = JSONUtil.toJsonStr(wrapper);
@@ -83,6 +109,15 @@ public class AppController {
                             .data(jsonData)
                             .build();
                 })
+                .doFinally(signalType -> contentDone.tryEmitEmpty());
+        // 文件变更事件：文件写入磁盘后立即通知前端，按文件热更新预览
+        Flux<ServerSentEvent<String>> fileChangeFlux = fileChangeNotifier.subscribe(appId)
+                .map(fileChangeMessage -> ServerSentEvent.<String>builder()
+                        .event("file_change")
+                        .data(JSONUtil.toJsonStr(fileChangeMessage))
+                        .build())
+                .takeUntilOther(contentDone.asMono());
+        return Flux.merge(fileChangeFlux, dataFlux)
                 .concatWith(Mono.just(
                         // 发送结束事件
                         ServerSentEvent.<String>builder()
@@ -111,6 +146,24 @@ public class AppController {
         return ResultUtils.success(deployUrl);
     }
 
+    /**
+     * 回滚到指定的部署版本
+     * @param appDeployRollbackRequest 回滚请求
+     * @param request 请求
+     * @return 目标版本的访问URL
+     */
+    @PostMapping("/deploy/rollback")
+    public BaseResponse<String> rollbackDeploy(@RequestBody AppDeployRollbackRequest appDeployRollbackRequest, HttpServletRequest request) {
+        ThrowUtils.throwIf(appDeployRollbackRequest == null, ErrorCode.PARAMS_ERROR);
+        Long appId = appDeployRollbackRequest.getAppId();
+        Integer version = appDeployRollbackRequest.getVersion();
+        ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR, "应用 ID 不能为空");
+        ThrowUtils.throwIf(version == null || version <= 0, ErrorCode.PARAMS_ERROR, "版本号不能为空");
+        User loginUser = userService.getLoginUser(request);
+        String deployUrl = appService.rollbackDeploy(appId, version, loginUser);
+        return ResultUtils.success(deployUrl);
+    }
+
 
     @PostMapping("/add")
     public BaseResponse<Long> addApp(@RequestBody AppAddRequest appAddRequest, HttpServletRequest httpServletRequest) {
@@ -224,7 +277,7 @@ public class AppController {
     @PostMapping("/good/list/page/vo")
     @Cacheable(
             value = "good_app_page",
-            key = "T(com.wjp.waicodermotherbackend.utils.CacheKeyUtils).generateKey(#appQueryRequest)",
+            keyGenerator = "appQueryCacheKeyGenerator",
             condition = "#appQueryRequest.pageNum <= 10"
     )
     public BaseResponse<Page<AppVO>> listGoodAppVOByPage(@RequestBody AppQueryRequest appQueryRequest) {
@@ -285,6 +338,14 @@ public class AppController {
         app.setEditTime(LocalDateTime.now());
         boolean result = appService.updateById(app);
         ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR);
+        // 精选状态变化或精选应用被修改时，清理精选应用列表缓存（各节点本地缓存通过 Redis 频道同步清理）
+        boolean priorityChanged = app.getPriority() != null && !app.getPriority().equals(oldApp.getPriority());
+        if (priorityChanged || AppConstant.GOOD_APP_PRIORITY.equals(oldApp.getPriority())) {
+            Cache goodAppPageCache = cacheManager.getCache("good_app_page");
+            if (goodAppPageCache != null) {
+                goodAppPageCache.clear();
+            }
+        }
         return ResultUtils.success(true);
     }
 
@@ -363,6 +424,59 @@ public class AppController {
         return ResultUtils.success(appService.getCodeSnippets(sourceDirPath));
     }
 
+    /**
+     * 查询应用在构建队列中的位置
+     *
+     * @param appId 应用ID
+     * @param request HTTP请求对象
+     * @return 排队位置（从 1 开始），正在构建返回 0，不在队列中返回 -1
+     */
+    @GetMapping("/build/position/{appId}")
+    public BaseResponse<Integer> getBuildQueuePosition(@PathVariable Long appId, HttpServletRequest request) {
+        String sourceDirPath = getOwnedSourceDirPath(appId, request);
+        return ResultUtils.success(vueBuildScheduler.getQueuePosition(sourceDirPath));
+    }
+
+    /**
+     * 实时构建日志
+     * 先回放最近一次构建的日志，再推送后续输出，构建结束后发送 done 事件；还没有开始构建时等待下一次构建。
+     *
+     * @param appId 应用ID
+     * @param request HTTP请求对象
+     * @return build_log 事件流
+     */
+    @GetMapping(value = "/build/logs/{appId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamBuildLogs(@PathVariable Long appId, HttpServletRequest request) {
+        String sourceDirPath = getOwnedSourceDirPath(appId, request);
+        return buildLogNotifier.subscribe(sourceDirPath)
+                .map(buildLogMessage -> ServerSentEvent.<String>builder()
+                        .event("build_log")
+                        .data(JSONUtil.toJsonStr(buildLogMessage))
+                        .build())
+                // 一直没有构建时不无限占用连接
+                .take(BUILD_LOG_MAX_DURATION)
+                .concatWith(Mono.just(
+                        ServerSentEvent.<String>builder()
+                                .event("done")
+                                .data("")
+                                .build()
+                ));
+    }
+
+    /**
+     * 校验当前用户是应用的创建者，返回应用代码目录
+     */
+    private String getOwnedSourceDirPath(Long appId, HttpServletRequest request) {
+        ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR);
+        User loginUser = userService.getLoginUser(request);
+        App app = appService.getById(appId);
+        ThrowUtils.throwIf(app == null, ErrorCode.NOT_FOUND_ERROR);
+        if (!app.getUserId().equals(loginUser.getId())) {
+            throw new BusinessException(ErrorCode.NO_AUTH_ERROR);
+        }
+        return AppConstant.CODE_OUTPUT_ROOT_DIR + File.separator + app.getCodeGenType() + "_" + appId;
+    }
+
     /**
      * 根据主键获取应用。
      *
@@ -2,16 +2,56 @@ package com.wjp.waicodermotherbackend.controller;
 
 import com.wjp.waicodermotherbackend.common.BaseResponse;
 import com.wjp.waicodermotherbackend.common.ResultUtils;
+import com.wjp.waicodermotherbackend.core.builder.VueBuildScheduler;
+import com.wjp.waicodermotherbackend.manager.screenshot.ScreenshotWorkerPool;
+import com.wjp.waicodermotherbackend.manager.staticfile.StaticFileHotCache;
+import jakarta.annotation.Resource;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/health")
 public class HealthController {
+
+    @Resource
+    private ScreenshotWorkerPool screenshotWorkerPool;
+
+    @Resource
+    private VueBuildScheduler vueBuildScheduler;
+
+    @Resource
+    private StaticFileHotCache staticFileHotCache;
+
     @GetMapping("/")
     public BaseResponse<String> healthCheck() {
         return ResultUtils.success("ok");
     }
+
+    /**
+     * 截图浏览器池指标（排队等待、截图耗时等）
+     */
+    @GetMapping("/screenshot")
+    public BaseResponse<Map<String, Object>> screenshotMetrics() {
+        return ResultUtils.success(screenshotWorkerPool.getMetrics());
+    }
+
+    /**
+     * Vue 构建调度指标（排队数、合并数、复用数等）
+     */
+    @GetMapping("/build")
+    public BaseResponse<Map<String, Object>> buildMetrics() {
+        return ResultUtils.success(vueBuildScheduler.getMetrics());
+    }
+
+    /**
+     * 部署站点热点文件缓存指标（命中率、占用内存等）
+     */
+    @GetMapping("/static")
+    public BaseResponse<Map<String, Object>> staticFileMetrics() {
+        return ResultUtils.success(staticFileHotCache.getMetrics());
+    }
 }
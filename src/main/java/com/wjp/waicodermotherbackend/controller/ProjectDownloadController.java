@@ -35,7 +35,7 @@ public class ProjectDownloadController {
     private ProjectDownloadService projectDownloadService;
 
     @GetMapping("/download/{appId}")
-    public String downloadProject(@PathVariable Long appId, HttpServletRequest request, HttpServletResponse response) {
+    public void downloadProject(@PathVariable Long appId, HttpServletRequest request, HttpServletResponse response) {
         // 1. 基础校验
         ThrowUtils.throwIf(appId == null, ErrorCode.PARAMS_ERROR, "appId不能为空");
 
@@ -60,9 +60,8 @@ public class ProjectDownloadController {
         String downloadFileName = String.valueOf(appId);
 
         // 7、调用下载服务
-        projectDownloadService.downloadProject(sourceDirPath, downloadFileName, response);
-
-        return "ok";
+        // 响应内容由下载服务直接写出（压缩包可能是部分范围），不再返回额外内容
+        projectDownloadService.downloadProject(sourceDirPath, downloadFileName, request, response);
     }
 
 
@@ -1,21 +1,35 @@
 package com.wjp.waicodermotherbackend.controller;
 
+import com.wjp.waicodermotherbackend.config.StaticResourceConfig;
 import com.wjp.waicodermotherbackend.exception.BusinessException;
+import com.wjp.waicodermotherbackend.manager.staticfile.ContentEncoding;
+import com.wjp.waicodermotherbackend.manager.staticfile.StaticFileHotCache;
+import com.wjp.waicodermotherbackend.manager.staticfile.StaticFileHotCache.HotFile;
+import com.wjp.waicodermotherbackend.manager.staticfile.StaticFileMetadataCache;
+import com.wjp.waicodermotherbackend.manager.staticfile.StaticFileMetadataCache.StaticFileMetadata;
+import com.wjp.waicodermotherbackend.manager.staticfile.StaticPathResolver;
+import com.wjp.waicodermotherbackend.manager.staticfile.StaticPathResolver.ResolvedPath;
 import com.wjp.waicodermotherbackend.model.enums.AppCodeGenEnum;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.HandlerMapping;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
 
 import static com.wjp.waicodermotherbackend.constant.AppConstant.CODE_DEPLOY_ROOT_DIR;
 import static com.wjp.waicodermotherbackend.constant.AppConstant.CODE_OUTPUT_ROOT_DIR;
@@ -28,6 +42,9 @@ import static com.wjp.waicodermotherbackend.exception.ErrorCode.SYSTEM_ERROR;
  * 1. 预览应用的静态资源访问
  * 2. 已部署应用的静态资源访问
  * 3. 支持目录重定向和默认文件访问
+ * 4. 支持协商缓存（ETag/Last-Modified）、范围请求和大文件零拷贝发送，部署版本目录下的资源可长期缓存
+ * 5. 客户端支持时发送预压缩文件（.br/.gz）
+ * 6. 部署版本目录下的热点小文件缓存在内存中
  * 
  * 访问格式：
  * - 预览：/api/static/preview/{fileName}/** 
@@ -41,6 +58,26 @@ import static com.wjp.waicodermotherbackend.exception.ErrorCode.SYSTEM_ERROR;
 @RequestMapping("/static")
 public class StaticResourceController {
 
+    /**
+     * Tomcat sendfile 相关的请求属性
+     */
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    @jakarta.annotation.Resource
+    private StaticFileMetadataCache staticFileMetadataCache;
+
+    @jakarta.annotation.Resource
+    private StaticPathResolver staticPathResolver;
+
+    @jakarta.annotation.Resource
+    private StaticFileHotCache staticFileHotCache;
+
+    @jakarta.annotation.Resource
+    private StaticResourceConfig staticResourceConfig;
+
     /**
      * 访问预览应用的静态资源
      * 
@@ -83,11 +120,12 @@ public class StaticResourceController {
      * 核心静态资源处理方法
      * 
      * 该方法负责处理所有静态资源访问的核心逻辑，包括：
-     * 1. 路径解析和构建
+     * 1. 路径解析、规范化和越界检查（部署版本目录的解析结果带缓存）
      * 2. 文件存在性检查
      * 3. 目录重定向处理
-     * 4. 资源类型识别和响应头设置
-     * 5. 错误处理和日志记录
+     * 4. 资源类型识别和响应头设置（ETag、Last-Modified、Cache-Control）
+     * 5. 条件请求（304）、范围请求（206）和大文件零拷贝发送
+     * 6. 错误处理和日志记录
      * 
      * @param appCodeGenEnum 应用代码生成枚举，用于确定资源根目录
      * @param fileNameOrDeployKey 文件名或部署键，用于构建具体的文件路径
@@ -100,21 +138,23 @@ public class StaticResourceController {
         // 从请求属性中获取完整的资源路径
         // 这个路径包含了从 /static 开始到请求结束的完整路径
         String resourcePath = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
-        
-        // 构建文件路径变量
-        String filePath = null;
-        
-        // 根据应用类型处理不同的路径前缀
+
+        // 根据应用类型确定路径前缀
+        String prefix;
         if (appCodeGenEnum.equals(AppCodeGenEnum.CODE_OUTPUT_ROOT_DIR)) {
-            // 预览模式：移除 /static/preview/{fileName} 前缀
-            resourcePath = resourcePath.substring(("/static/preview/" + fileNameOrDeployKey).length());
-        } else if (appCodeGenEnum.equals(AppCodeGenEnum.CODE_DEPLOY_ROOT_DIR)) { 
-            // 部署模式：移除 /static/deploy/{deployKey} 前缀
-            resourcePath = resourcePath.substring(("/static/deploy/" + fileNameOrDeployKey).length());
+            // 预览模式：/static/preview/{fileName}
+            prefix = "/static/preview/" + fileNameOrDeployKey;
+        } else if (appCodeGenEnum.equals(AppCodeGenEnum.CODE_DEPLOY_ROOT_DIR)) {
+            // 部署模式：/static/deploy/{deployKey}
+            prefix = "/static/deploy/" + fileNameOrDeployKey;
         } else {
             // 未知的访问类型，抛出业务异常
             throw new BusinessException(SYSTEM_ERROR, "未知访问类型");
         }
+        if (resourcePath == null || !resourcePath.startsWith(prefix)) {
+            return ResponseEntity.notFound().build();
+        }
+        resourcePath = resourcePath.substring(prefix.length());
 
         try {
             // 处理目录访问的情况
@@ -125,39 +165,73 @@ public class StaticResourceController {
                 headers.add(HttpHeaders.LOCATION, request.getRequestURI() + "/");
                 return new ResponseEntity<>(headers, HttpStatus.MOVED_PERMANENTLY);
             }
-            
-            // 处理根目录访问的情况
-            if (resourcePath.equals("/")) {
-                // 当访问根目录时，默认返回 index.html 文件
-                // 这是Web应用的标准做法
-                resourcePath = "/index.html";
+
+            // 规范化路径：拒绝越出应用目录的路径，以 / 结尾时默认返回目录下的 index.html
+            // 部署版本目录的解析结果会缓存，已知不存在的文件直接返回404，不访问磁盘
+            ResolvedPath resolvedPath = staticPathResolver.resolve(appCodeGenEnum, fileNameOrDeployKey, resourcePath);
+            if (resolvedPath == null || resolvedPath.isMissing()) {
+                return ResponseEntity.notFound().build();
             }
-            
-            // 构建完整的文件系统路径
-            // 格式：{根目录}/{应用标识}/{相对路径}
-            filePath = appCodeGenEnum.getValue() + File.separator + fileNameOrDeployKey + resourcePath;
-            
-            // 创建文件对象并检查存在性
-            File file = new File(filePath);
-            
-            // 检查文件是否存在
-            if (!file.exists()) {
-                // 文件不存在，返回404错误
+            String filePath = resolvedPath.getFile().toString();
+            // 部署版本目录（/V{n}/...）下的内容不会再变化，可以让浏览器长期缓存
+            boolean immutable = resolvedPath.isImmutable();
+
+            // 读取文件元数据（ETag、修改时间、大小），文件不存在返回404
+            StaticFileMetadata metadata = staticFileMetadataCache.get(resolvedPath.getFile(), immutable);
+            if (metadata == null) {
+                resolvedPath.markMissing();
                 return ResponseEntity.notFound().build();
             }
-            
-            // 创建Spring的资源对象
-            // FileSystemResource是Spring提供的文件系统资源实现
-            Resource resource = new FileSystemResource(file);
-            
+
+            // 根据 Accept-Encoding 选择预压缩文件（部署时生成的 .gz 或构建产物自带的 .br）
+            ContentEncoding encoding = ContentEncoding.negotiate(
+                    request.getHeader(HttpHeaders.ACCEPT_ENCODING), metadata.getEncodedLengths().keySet());
+            String etag = metadata.getEtag(encoding);
+
+            HttpHeaders headers = new HttpHeaders();
             // 根据文件扩展名设置正确的Content-Type和字符编码
-            String contentType = getContentTypeWithCharset(filePath);
-            
-            // 返回成功的响应，包含文件内容和正确的Content-Type
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_TYPE, contentType)
-                    .body(resource);
-                    
+            headers.set(HttpHeaders.CONTENT_TYPE, resolvedPath.getContentType());
+            headers.setETag(etag);
+            headers.setLastModified(metadata.getLastModified());
+            headers.setCacheControl(immutable
+                    ? CacheControl.maxAge(staticResourceConfig.getImmutableMaxAge()).cachePublic().immutable()
+                    : CacheControl.noCache());
+            headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (!metadata.getEncodedLengths().isEmpty()) {
+                headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (encoding != null) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, encoding.getValue());
+            }
+
+            // 浏览器缓存仍然有效时直接返回304，不读取文件内容
+            if (new ServletWebRequest(request).checkNotModified(etag, metadata.getLastModified())) {
+                return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+            }
+
+            // 实际发送的文件（原文件或预压缩文件）
+            String sendPath = encoding == null ? filePath : filePath + encoding.getSuffix();
+            long sendLength = encoding == null ? metadata.getLength() : metadata.getEncodedLengths().get(encoding);
+
+            // 部署版本目录下的小文件从内存发送，热点站点不需要访问文件系统
+            if (immutable && staticFileHotCache.isCacheable(sendLength)) {
+                HotFile hotFile = staticFileHotCache.get(Path.of(sendPath), resolvedPath.getContentType(), etag);
+                if (hotFile != null) {
+                    headers.set(HttpHeaders.CONTENT_TYPE, hotFile.getContentType());
+                    headers.setETag(hotFile.getEtag());
+                    return new ResponseEntity<>(new ByteArrayResource(hotFile.getContent()), headers, HttpStatus.OK);
+                }
+            }
+
+            // 大文件交给容器零拷贝发送
+            ResponseEntity<Resource> sendfileResponse = trySendfile(sendPath, sendLength, headers, request);
+            if (sendfileResponse != null) {
+                return sendfileResponse;
+            }
+
+            // 其余情况返回文件资源，带 Range 请求头时由 Spring 按范围返回 206
+            return new ResponseEntity<>(new FileSystemResource(sendPath), headers, HttpStatus.OK);
+
         } catch (Exception e) {
             // 捕获所有异常，记录错误信息并返回500错误
             // 这样可以避免异常信息泄露给客户端，同时便于调试
@@ -166,37 +240,76 @@ public class StaticResourceController {
     }
 
     /**
-     * 根据文件扩展名返回带字符编码的Content-Type
-     * 
-     * 该方法根据文件扩展名智能识别文件类型，并为文本文件添加UTF-8字符编码。
-     * 这样可以确保浏览器能正确解析文件内容，特别是包含中文等特殊字符的文件。
-     * 
-     * @param filePath 文件路径，用于提取文件扩展名
-     * @return 包含字符编码的Content-Type字符串
-     * 
-     * @example 返回值示例：
-     * - .html -> "text/html; charset=UTF-8"
-     * - .css -> "text/css; charset=UTF-8"  
-     * - .js -> "application/javascript; charset=UTF-8"
-     * - .png -> "image/png"
-     * - .jpg -> "image/jpeg"
-     * - 其他 -> "application/octet-stream"
+     * 使用 Tomcat 的 sendfile 发送文件（内核直接把文件写入 socket，不经过 JVM 堆）
+     *
+     * 只处理 GET 请求、不小于阈值的文件，以及不带 Range 或只请求一个范围的情况（If-Range 不一致时忽略 Range，发送完整文件）；
+     * 容器不支持、请求多个范围或范围不合法时返回 null，由 Spring 按普通资源处理（不合法的范围会得到 416）。
+     *
+     * @param filePath 要发送的文件路径
+     * @param length 文件大小
+     * @param headers 已设置好的响应头
+     * @param request HTTP请求对象
+     * @return 不含响应体的响应实体（文件内容由容器发送），不使用 sendfile 时返回 null
+     */
+    private ResponseEntity<Resource> trySendfile(String filePath, long length, HttpHeaders headers, HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())
+                || length < staticResourceConfig.getSendfileMinSize().toBytes()
+                || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            return null;
+        }
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        // If-Range 与当前文件不一致时（客户端持有旧版本）发送完整文件
+        if (rangeHeader != null && isIfRangeMatched(request, headers)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() != 1) {
+                    return null;
+                }
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            status = HttpStatus.PARTIAL_CONTENT;
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        request.setAttribute(SENDFILE_FILENAME_ATTR, new File(filePath).getAbsolutePath());
+        request.setAttribute(SENDFILE_START_ATTR, start);
+        request.setAttribute(SENDFILE_END_ATTR, end + 1);
+        headers.setContentLength(end - start + 1);
+        return new ResponseEntity<>(headers, status);
+    }
+
+    /**
+     * If-Range 是否与当前文件一致（不带 If-Range 时视为一致）
+     *
+     * If-Range 可以是 ETag（按强比较，弱 ETag 不匹配）或 HTTP 日期（与 Last-Modified 精确到秒相等）。
+     *
+     * @param request HTTP请求对象
+     * @param headers 已设置好 ETag 和 Last-Modified 的响应头
+     * @return 一致时返回 true，可以按 Range 返回部分内容
      */
-    private String getContentTypeWithCharset(String filePath) {
-        // HTML文件：设置HTML类型和UTF-8编码
-        if (filePath.endsWith(".html")) return "text/html; charset=UTF-8";
-        
-        // CSS文件：设置CSS类型和UTF-8编码
-        if (filePath.endsWith(".css")) return "text/css; charset=UTF-8";
-        
-        // JavaScript文件：设置JavaScript类型和UTF-8编码
-        if (filePath.endsWith(".js")) return "application/javascript; charset=UTF-8";
-        
-        // 图片文件：使用Spring的MediaType常量
-        if (filePath.endsWith(".png")) return MediaType.IMAGE_PNG.toString();
-        if (filePath.endsWith(".jpg")) return MediaType.IMAGE_JPEG.toString();
-        
-        // 其他文件类型：使用通用的二进制流类型
-        return "application/octet-stream";
+    private boolean isIfRangeMatched(HttpServletRequest request, HttpHeaders headers) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("W/")) {
+            return false;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(headers.getETag());
+        }
+        try {
+            long ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+            long lastModified = headers.getLastModified();
+            return lastModified >= 0 && ifRangeDate / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
     }
 }
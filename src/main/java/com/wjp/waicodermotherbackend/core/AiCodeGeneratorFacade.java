@@ -9,9 +9,10 @@ import com.wjp.waicodermotherbackend.ai.model.message.AIResponseMessage;
 import com.wjp.waicodermotherbackend.ai.model.message.ToolExecutedMessage;
 import com.wjp.waicodermotherbackend.ai.model.message.ToolRequestMessage;
 import com.wjp.waicodermotherbackend.constant.AppConstant;
-import com.wjp.waicodermotherbackend.core.builder.VueProjectBuilder;
-import com.wjp.waicodermotherbackend.core.parser.CodeParserExecutor;
+import com.wjp.waicodermotherbackend.core.builder.VueBuildScheduler;
+import com.wjp.waicodermotherbackend.core.parser.StreamingCodeParser;
 import com.wjp.waicodermotherbackend.core.saver.CodeFileSaverExecutor;
+import com.wjp.waicodermotherbackend.core.saver.StreamingCodeFileSaver;
 import com.wjp.waicodermotherbackend.exception.BusinessException;
 import com.wjp.waicodermotherbackend.exception.ErrorCode;
 import com.wjp.waicodermotherbackend.model.enums.CodeGenTypeEnum;
@@ -24,6 +25,7 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 
 import java.io.File;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * AI 代码生成外观类，组合生成和保存功能
@@ -43,37 +45,40 @@ public class AiCodeGeneratorFacade {
     private AiCodeGeneratorServiceFactory aiCodeGeneratorServiceFactory;
 
     @Resource
-    private VueProjectBuilder vueProjectBuilder;
+    private VueBuildScheduler vueBuildScheduler;
 
 
     /**
      * 统一入口: 根据类型生成代码流并保存代码
+     * 使用流式解析器边接收边写文件，生成过程中即可预览，不再缓存完整的 AI 输出
      * @param codeStream AI返回的结果(流)
      * @param codeGenType 代码生成类型(业务类型 HTML 还是 MULTI_FILE)
      * @return 生成的代码文件
      */
     private Flux<String> processCodeStream(Flux<String> codeStream, CodeGenTypeEnum codeGenType, Long appId) {
-        // 当流式返回生成代码完成后，在保存代码
-        StringBuilder codeBuilder = new StringBuilder();
+        // 每个流独立的解析器和保存器
+        StreamingCodeFileSaver codeFileSaver = new StreamingCodeFileSaver(codeGenType, appId);
+        StreamingCodeParser codeParser = new StreamingCodeParser(codeGenType, codeFileSaver);
         return codeStream
                 .doOnNext(chunk -> {
-                    // 实时收集代码片段
-                    codeBuilder.append(chunk);
+                    // 实时解析代码片段并写入文件
+                    try {
+                        codeParser.feed(chunk);
+                    } catch (Exception e) {
+                        log.error("流式保存代码失败: " + e.getMessage());
+                    }
                 })
                 .doOnComplete(() -> {
-                    // 流式返回完成后保存代码
+                    // 流式返回完成后收尾（未闭合的代码块、HTML 兜底内容）
                     try {
-                        String completeCode = codeBuilder.toString();
-                        // 使用执行器解析代码
-                        // 内部会根据不同的业务类型进行执行对应的执行器
-                        Object parsedResult = CodeParserExecutor.executeParser(completeCode, codeGenType);
-                        // 使用执行器保存代码
-                        File saveDir = CodeFileSaverExecutor.executeSaver(parsedResult, codeGenType, appId);
-                        log.info("保存成功，路径为: " + saveDir.getAbsolutePath());
+                        codeParser.finish();
+                        log.info("保存成功，路径为: " + codeFileSaver.getBaseDir().getAbsolutePath());
                     } catch(Exception e) {
                         log.error("保存失败: " + e.getMessage());
                     }
-                });
+                })
+                // 无论正常结束、异常还是取消，都要关闭文件句柄
+                .doFinally(signalType -> codeFileSaver.closeAll());
     }
 
     // region SSE 流失输出
@@ -145,10 +150,25 @@ public class AiCodeGeneratorFacade {
                     .onCompleteResponse((ChatResponse response) -> {
                         // 获取到项目路径
                         String projectPath = AppConstant.CODE_OUTPUT_ROOT_DIR + "/vue_project_" + appId;
-                        // 执行 Vue 项目构建（同步执行，确保预览时项目已就绪）
-                        vueProjectBuilder.buildProject(projectPath);
-                        // 调用完毕
-                        sink.complete();
+                        // 执行 Vue 项目构建（构建完成后再结束流，确保预览时项目已就绪；排队等待期间不占用线程）
+                        CompletableFuture<Boolean> buildFuture;
+                        try {
+                            buildFuture = vueBuildScheduler.submit(projectPath);
+                        } catch (BusinessException e) {
+                            // 构建队列已满：代码已经生成完成，不能让本次生成失败，提示用户稍后重新构建
+                            log.warn("Vue 项目构建被拒绝: appId={}, {}", appId, e.getMessage());
+                            sink.next(JSONUtil.toJsonStr(new AIResponseMessage("\n\n> 当前构建任务较多，项目暂未构建，请稍后重新预览或部署")));
+                            sink.complete();
+                            return;
+                        }
+                        buildFuture.whenComplete((success, error) -> {
+                            if (error != null) {
+                                log.error("Vue 项目构建异常: appId={}", appId, error);
+                            } else if (!Boolean.TRUE.equals(success)) {
+                                log.error("Vue 项目构建失败: appId={}", appId);
+                            }
+                            sink.complete();
+                        });
                     })
                     .onError((Throwable error) -> {
                         error.printStackTrace();
@@ -0,0 +1,41 @@
+package com.wjp.waicodermotherbackend.core.builder;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 构建日志消息
+ * 通过 SSE 的 build_log 事件推送给前端，实时展示构建进度和失败原因
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuildLogMessage {
+
+    public static final String TYPE_START = "start";
+
+    public static final String TYPE_LOG = "log";
+
+    public static final String TYPE_END = "end";
+
+    /**
+     * 消息类型: start / log / end
+     */
+    private String type;
+
+    /**
+     * 日志内容（命令输出的一行，或构建阶段说明）
+     */
+    private String line;
+
+    /**
+     * 构建是否成功，仅 end 消息有值
+     */
+    private Boolean success;
+
+    /**
+     * 时间戳（毫秒）
+     */
+    private long timestamp;
+}
@@ -0,0 +1,112 @@
+package com.wjp.waicodermotherbackend.core.builder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 构建日志通知器
+ * 每个项目保留最近一次构建的最后 {@link #MAX_LINES} 行日志（环形缓冲），
+ * 订阅时先回放缓冲中的日志，再实时推送后续输出，构建结束后流随之结束。
+ * 还没有开始构建时订阅，会等待下一次构建。
+ */
+@Slf4j
+@Component
+public class BuildLogNotifier {
+
+    /**
+     * 每个项目保留的日志行数
+     */
+    private static final int MAX_LINES = 500;
+
+    /**
+     * 项目目录 -> 最近一次构建的日志
+     * 缓存策略: 访问后 30 分钟过期
+     */
+    private final Cache<String, BuildLogSession> sessions = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .build();
+
+    /**
+     * 订阅项目的构建日志
+     * @param projectPath 项目路径
+     * @return 构建日志流（构建结束时结束）
+     */
+    public Flux<BuildLogMessage> subscribe(String projectPath) {
+        return sessions.get(toProjectKey(projectPath), key -> new BuildLogSession()).sink.asFlux();
+    }
+
+    /**
+     * 开始一次构建，之后的日志写入新的缓冲
+     * @param projectPath 项目路径
+     */
+    public void start(String projectPath) {
+        BuildLogSession session = sessions.asMap().compute(toProjectKey(projectPath), (key, existing) ->
+                // 已有订阅者在等待的会话直接使用，否则新建
+                existing != null && !existing.started ? existing : new BuildLogSession());
+        session.started = true;
+        session.emit(new BuildLogMessage(BuildLogMessage.TYPE_START, "开始构建", null, System.currentTimeMillis()));
+    }
+
+    /**
+     * 追加一行日志
+     * @param projectPath 项目路径
+     * @param line 日志内容
+     */
+    public void log(String projectPath, String line) {
+        BuildLogSession session = sessions.getIfPresent(toProjectKey(projectPath));
+        if (session != null) {
+            session.emit(new BuildLogMessage(BuildLogMessage.TYPE_LOG, line, null, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * 结束构建
+     * @param projectPath 项目路径
+     * @param success 是否成功
+     * @param summary 结果说明
+     */
+    public void finish(String projectPath, boolean success, String summary) {
+        BuildLogSession session = sessions.getIfPresent(toProjectKey(projectPath));
+        if (session == null) {
+            return;
+        }
+        session.emit(new BuildLogMessage(BuildLogMessage.TYPE_END, summary, success, System.currentTimeMillis()));
+        session.complete();
+    }
+
+    private static String toProjectKey(String projectPath) {
+        return Path.of(projectPath).toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * 一次构建的日志
+     */
+    private static class BuildLogSession {
+
+        /**
+         * 回放最近的日志，相当于有界环形缓冲
+         */
+        private final Sinks.Many<BuildLogMessage> sink = Sinks.many().replay().limit(MAX_LINES);
+
+        private volatile boolean started = false;
+
+        /**
+         * stdout/stderr 由不同线程读取，串行化发射
+         */
+        private synchronized void emit(BuildLogMessage message) {
+            sink.tryEmitNext(message);
+        }
+
+        private synchronized void complete() {
+            sink.tryEmitComplete();
+        }
+    }
+}
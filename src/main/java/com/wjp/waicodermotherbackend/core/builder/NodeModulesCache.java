@@ -0,0 +1,234 @@
+package com.wjp.waicodermotherbackend.core.builder;
+
+import cn.hutool.core.io.FileUtil;
+import com.wjp.waicodermotherbackend.config.VueBuildCacheConfig;
+import com.wjp.waicodermotherbackend.utils.ContentDigestUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * node_modules 共享缓存
+ * 以 package.json（和 lockfile）的摘要为键，每组依赖只安装一次，之后的项目通过符号链接直接复用。
+ *
+ * - 未命中时在暂存目录中安装，成功后原子重命名为缓存目录，不会留下安装了一半的缓存
+ * - 同一组依赖的并发构建只安装一次，其余等待安装结果
+ * - 不支持符号链接的系统上退化为复制目录
+ * - 缓存数量超过上限时删除最久未使用的（最近仍在使用的不删除）
+ */
+@Slf4j
+@Component
+public class NodeModulesCache {
+
+    private static final String NODE_MODULES = "node_modules";
+
+    private static final String STAGING_MARKER = ".staging-";
+
+    /**
+     * 依赖文件，按顺序参与摘要计算
+     */
+    private static final List<String> DEPENDENCY_FILES = List.of("package.json", "package-lock.json", "npm-shrinkwrap.json");
+
+    /**
+     * 最近使用过的缓存不会被淘汰，避免删除正在构建的项目引用的依赖
+     */
+    private static final long IN_USE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    @Resource
+    private VueBuildCacheConfig vueBuildCacheConfig;
+
+    private final Map<String, ReentrantLock> installLocks = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    public NodeModulesCache() {
+    }
+
+    /**
+     * 指定配置（测试用）
+     */
+    NodeModulesCache(VueBuildCacheConfig vueBuildCacheConfig) {
+        this.vueBuildCacheConfig = vueBuildCacheConfig;
+    }
+
+    /**
+     * 清理上次异常退出时遗留的暂存目录
+     */
+    @PostConstruct
+    public void cleanupStaging() {
+        File[] children = new File(vueBuildCacheConfig.getCacheDir()).listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.getName().contains(STAGING_MARKER)) {
+                FileUtil.del(child);
+            }
+        }
+    }
+
+    /**
+     * 为项目准备 node_modules
+     * @param projectDir 项目目录（包含 package.json）
+     * @param installer 在指定目录中执行依赖安装，返回是否成功
+     * @return 是否准备成功
+     */
+    public boolean prepare(File projectDir, Predicate<File> installer) {
+        if (!vueBuildCacheConfig.isEnabled()) {
+            return installer.test(projectDir);
+        }
+        String key = dependencyDigest(projectDir.toPath());
+        Path entry = Path.of(vueBuildCacheConfig.getCacheDir(), key);
+        ReentrantLock lock = installLocks.computeIfAbsent(key, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (Files.isDirectory(entry.resolve(NODE_MODULES))) {
+                hitCount.incrementAndGet();
+                log.info("node_modules 缓存命中: {}", key);
+            } else {
+                missCount.incrementAndGet();
+                log.info("node_modules 缓存未命中，开始安装依赖: {}", key);
+                if (!install(projectDir.toPath(), entry, installer)) {
+                    return false;
+                }
+            }
+            // 记录最近使用时间，用于淘汰
+            entry.toFile().setLastModified(System.currentTimeMillis());
+            link(projectDir.toPath().resolve(NODE_MODULES), entry.resolve(NODE_MODULES));
+        } catch (IOException e) {
+            log.error("准备 node_modules 失败: {}", projectDir, e);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+        evict();
+        return true;
+    }
+
+    /**
+     * 命中次数
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * 未命中次数
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 计算依赖摘要
+     */
+    private String dependencyDigest(Path projectDir) {
+        List<Path> files = new ArrayList<>();
+        for (String name : DEPENDENCY_FILES) {
+            Path file = projectDir.resolve(name);
+            if (Files.isRegularFile(file)) {
+                files.add(file);
+            }
+        }
+        return ContentDigestUtils.digestFiles(projectDir, files);
+    }
+
+    /**
+     * 在暂存目录中安装依赖，成功后重命名为缓存目录
+     */
+    private boolean install(Path projectDir, Path entry, Predicate<File> installer) throws IOException {
+        Path staging = entry.resolveSibling(entry.getFileName() + STAGING_MARKER + UUID.randomUUID());
+        Files.createDirectories(staging);
+        try {
+            for (String name : DEPENDENCY_FILES) {
+                Path file = projectDir.resolve(name);
+                if (Files.isRegularFile(file)) {
+                    Files.copy(file, staging.resolve(name));
+                }
+            }
+            if (!installer.test(staging.toFile()) || !Files.isDirectory(staging.resolve(NODE_MODULES))) {
+                log.error("依赖安装失败: {}", projectDir);
+                return false;
+            }
+            if (Files.exists(entry)) {
+                // 残缺的缓存目录（例如被手动删除了 node_modules）
+                FileUtil.del(entry);
+            }
+            Files.move(staging, entry, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } finally {
+            if (Files.exists(staging)) {
+                FileUtil.del(staging);
+            }
+        }
+    }
+
+    /**
+     * 把缓存的 node_modules 链接到项目中
+     */
+    private void link(Path target, Path cached) throws IOException {
+        Path cachedAbsolute = cached.toAbsolutePath();
+        if (Files.isSymbolicLink(target)) {
+            if (Files.readSymbolicLink(target).equals(cachedAbsolute) && Files.exists(target)) {
+                return;
+            }
+            Files.delete(target);
+        } else if (Files.exists(target)) {
+            // 项目中已有独立安装的依赖，替换为共享缓存
+            FileUtil.del(target);
+        }
+        try {
+            Files.createSymbolicLink(target, cachedAbsolute);
+        } catch (UnsupportedOperationException | IOException e) {
+            log.warn("创建符号链接失败，改为复制 node_modules: {}", e.getMessage());
+            FileUtil.copyContent(cached.toFile(), target.toFile(), true);
+        }
+    }
+
+    /**
+     * 淘汰最久未使用的缓存
+     */
+    private void evict() {
+        File[] entries = new File(vueBuildCacheConfig.getCacheDir()).listFiles(file ->
+                file.isDirectory() && !file.getName().contains(STAGING_MARKER));
+        if (entries == null || entries.length <= vueBuildCacheConfig.getMaxEntries()) {
+            return;
+        }
+        List<File> sorted = new ArrayList<>(List.of(entries));
+        sorted.sort(Comparator.comparingLong(File::lastModified).reversed());
+        long inUseSince = System.currentTimeMillis() - IN_USE_MILLIS;
+        for (File entry : sorted.subList(vueBuildCacheConfig.getMaxEntries(), sorted.size())) {
+            if (entry.lastModified() >= inUseSince) {
+                continue;
+            }
+            ReentrantLock lock = installLocks.computeIfAbsent(entry.getName(), k -> new ReentrantLock());
+            if (lock.tryLock()) {
+                try {
+                    FileUtil.del(entry);
+                    log.info("淘汰 node_modules 缓存: {}", entry.getName());
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.wjp.waicodermotherbackend.core.builder;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.resource.ResourceUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.wjp.waicodermotherbackend.config.ViteWorkerConfig;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 常驻 Vite 构建进程池
+ * 每个进程加载一次 Node、Vite 和插件后常驻，之后的构建直接在已预热的进程中执行，省去冷启动时间。
+ * 与进程通过 stdin/stdout 按行交换 JSON（协议见 vite-worker/vite-build-worker.mjs）。
+ *
+ * - 进程按需启动，最多 {@link ViteWorkerConfig#getSize()} 个，同一进程同一时刻只执行一个构建
+ * - 进程退出、启动失败或项目不是纯 vite build 时返回 {@link BuildOutcome#UNAVAILABLE}，由调用方改用 npm run build
+ * - 构建超时的进程直接销毁；每个进程构建一定次数后重启
+ */
+@Slf4j
+@Component
+public class ViteWorkerPool {
+
+    /**
+     * 内置的构建脚本
+     */
+    private static final String BUILTIN_SCRIPT = "vite-worker/vite-build-worker.mjs";
+
+    /**
+     * 构建结果
+     */
+    public enum BuildOutcome {
+        SUCCESS,
+        FAILED,
+        /**
+         * 常驻进程无法处理，需要改用 npm run build
+         */
+        UNAVAILABLE
+    }
+
+    @Resource
+    private ViteWorkerConfig viteWorkerConfig;
+
+    private final BlockingQueue<ViteWorker> idleWorkers = new LinkedBlockingQueue<>();
+
+    private Semaphore permits;
+
+    private final AtomicLong requestIds = new AtomicLong();
+
+    private volatile String scriptPath;
+
+    private volatile boolean running = true;
+
+    public ViteWorkerPool() {
+    }
+
+    /**
+     * 指定配置（测试用）
+     */
+    ViteWorkerPool(ViteWorkerConfig viteWorkerConfig) {
+        this.viteWorkerConfig = viteWorkerConfig;
+    }
+
+    /**
+     * 是否开启常驻进程构建
+     */
+    public boolean isEnabled() {
+        return viteWorkerConfig.isEnabled() && running;
+    }
+
+    /**
+     * 使用常驻进程构建项目
+     * @param projectDir 项目目录
+     * @param logConsumer 构建输出（逐行）
+     * @return 构建结果
+     */
+    public BuildOutcome build(File projectDir, Consumer<String> logConsumer) {
+        if (!isEnabled()) {
+            return BuildOutcome.UNAVAILABLE;
+        }
+        Semaphore semaphore = getPermits();
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BuildOutcome.UNAVAILABLE;
+        }
+        ViteWorker worker = idleWorkers.poll();
+        try {
+            if (worker == null || !worker.process.isAlive()) {
+                if (worker != null) {
+                    worker.destroy();
+                }
+                worker = startWorker();
+            }
+            if (worker == null) {
+                return BuildOutcome.UNAVAILABLE;
+            }
+            return worker.build(projectDir, logConsumer);
+        } finally {
+            if (worker != null) {
+                if (running && worker.reusable()) {
+                    idleWorkers.offer(worker);
+                } else {
+                    worker.destroy();
+                }
+            }
+            semaphore.release();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        ViteWorker worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            worker.destroy();
+        }
+    }
+
+    private Semaphore getPermits() {
+        if (permits == null) {
+            synchronized (this) {
+                if (permits == null) {
+                    permits = new Semaphore(viteWorkerConfig.getSize(), true);
+                }
+            }
+        }
+        return permits;
+    }
+
+    private ViteWorker startWorker() {
+        try {
+            Process process = new ProcessBuilder(viteWorkerConfig.getNodeCommand(), resolveScriptPath()).start();
+            ViteWorker worker = new ViteWorker(process);
+            if (!worker.awaitReady(viteWorkerConfig.getStartTimeout().toMillis())) {
+                log.error("常驻 Vite 进程启动超时");
+                worker.destroy();
+                return null;
+            }
+            log.info("常驻 Vite 进程已启动, pid={}", process.pid());
+            return worker;
+        } catch (Exception e) {
+            log.error("启动常驻 Vite 进程失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 构建脚本路径，内置脚本首次使用时从 classpath 复制到临时目录（Node 需要从文件加载）
+     */
+    private String resolveScriptPath() {
+        if (StrUtil.isNotBlank(viteWorkerConfig.getScript())) {
+            return viteWorkerConfig.getScript();
+        }
+        if (scriptPath == null) {
+            synchronized (this) {
+                if (scriptPath == null) {
+                    File target = new File(System.getProperty("user.dir") + "/tmp/vite-worker/vite-build-worker.mjs");
+                    try (InputStream inputStream = ResourceUtil.getStream(BUILTIN_SCRIPT)) {
+                        FileUtil.writeFromStream(inputStream, target);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("复制 Vite 构建脚本失败", e);
+                    }
+                    scriptPath = target.getAbsolutePath();
+                }
+            }
+        }
+        return scriptPath;
+    }
+
+    /**
+     * 一个常驻 Node 进程
+     */
+    private class ViteWorker {
+
+        /**
+         * 进程输出结束的标记
+         */
+        private static final JSONObject EXIT = new JSONObject();
+
+        private final Process process;
+
+        private final BufferedWriter stdin;
+
+        /**
+         * stdout/stderr 解析后的消息
+         */
+        private final BlockingQueue<JSONObject> messages = new LinkedBlockingQueue<>();
+
+        private int builds = 0;
+
+        private boolean broken = false;
+
+        private ViteWorker(Process process) {
+            this.process = process;
+            this.stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            Thread.ofVirtual().name("vite-worker-stdout-" + process.pid()).start(() -> readStdout(process.getInputStream()));
+            Thread.ofVirtual().name("vite-worker-stderr-" + process.pid()).start(() -> readStderr(process.getErrorStream()));
+        }
+
+        private boolean awaitReady(long timeoutMillis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (true) {
+                JSONObject message = messages.poll(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (message == null || message == EXIT) {
+                    return false;
+                }
+                if ("ready".equals(message.getStr("type"))) {
+                    return true;
+                }
+            }
+        }
+
+        private BuildOutcome build(File projectDir, Consumer<String> logConsumer) {
+            long id = requestIds.incrementAndGet();
+            builds++;
+            try {
+                stdin.write(JSONUtil.toJsonStr(Map.of("id", id, "root", projectDir.getAbsolutePath())));
+                stdin.newLine();
+                stdin.flush();
+            } catch (IOException e) {
+                log.warn("发送构建请求失败: {}", e.getMessage());
+                broken = true;
+                return BuildOutcome.UNAVAILABLE;
+            }
+            long deadline = System.currentTimeMillis() + viteWorkerConfig.getBuildTimeout().toMillis();
+            try {
+                while (true) {
+                    JSONObject message = messages.poll(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                    if (message == null) {
+                        log.error("常驻 Vite 进程构建超时: {}", projectDir);
+                        logConsumer.accept("构建超时");
+                        broken = true;
+                        return BuildOutcome.FAILED;
+                    }
+                    if (message == EXIT) {
+                        log.warn("常驻 Vite 进程已退出, pid={}", process.pid());
+                        broken = true;
+                        return BuildOutcome.UNAVAILABLE;
+                    }
+                    String type = message.getStr("type");
+                    if ("log".equals(type)) {
+                        logConsumer.accept(message.getStr("line"));
+                    } else if ("done".equals(type) && id == message.getLong("id", -1L)) {
+                        if (message.getBool("success", false)) {
+                            return BuildOutcome.SUCCESS;
+                        }
+                        if (message.getBool("unsupported", false)) {
+                            log.info("常驻 Vite 进程不处理该项目: {}", message.getStr("error"));
+                            return BuildOutcome.UNAVAILABLE;
+                        }
+                        logConsumer.accept(StrUtil.nullToEmpty(message.getStr("error")));
+                        return BuildOutcome.FAILED;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                broken = true;
+                return BuildOutcome.FAILED;
+            }
+        }
+
+        private boolean reusable() {
+            return !broken && process.isAlive() && builds < viteWorkerConfig.getMaxBuildsPerWorker();
+        }
+
+        private void destroy() {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+        }
+
+        private void readStdout(InputStream inputStream) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    messages.offer(parseMessage(line));
+                }
+            } catch (IOException e) {
+                log.debug("读取常驻 Vite 进程输出结束: {}", e.getMessage());
+            } finally {
+                messages.offer(EXIT);
+            }
+        }
+
+        private void readStderr(InputStream inputStream) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    messages.offer(logMessage(line));
+                }
+            } catch (IOException e) {
+                log.debug("读取常驻 Vite 进程错误输出结束: {}", e.getMessage());
+            }
+        }
+
+        private JSONObject parseMessage(String line) {
+            if (JSONUtil.isTypeJSONObject(line)) {
+                try {
+                    return JSONUtil.parseObj(line);
+                } catch (Exception e) {
+                    // 不是协议消息，按普通输出处理
+                }
+            }
+            return logMessage(line);
+        }
+
+        private JSONObject logMessage(String line) {
+            JSONObject message = new JSONObject();
+            message.set("type", "log");
+            message.set("line", line);
+            return message;
+        }
+    }
+}
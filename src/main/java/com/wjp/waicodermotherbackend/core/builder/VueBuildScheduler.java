@@ -0,0 +1,361 @@
+package com.wjp.waicodermotherbackend.core.builder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wjp.waicodermotherbackend.config.VueBuildSchedulerConfig;
+import com.wjp.waicodermotherbackend.exception.BusinessException;
+import com.wjp.waicodermotherbackend.exception.ErrorCode;
+import com.wjp.waicodermotherbackend.utils.ContentDigestUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Vue 项目构建调度器
+ * 所有构建请求进入同一个先进先出队列，由固定数量的工作线程执行，限制同时运行的 npm 进程数。
+ *
+ * - 队列满时拒绝新任务（背压），调用方收到 {@link ErrorCode#TOO_MANY_REQUEST}
+ * - 同一项目目录在排队期间的重复请求合并为一次构建；构建开始时才读取源码，所以总是构建最新的内容
+ * - 同一项目目录不会同时运行两个构建，正在构建时的新请求排在其后
+ * - 源码与上次成功构建时相同且 dist 目录存在时，直接复用 dist
+ */
+@Slf4j
+@Component
+public class VueBuildScheduler {
+
+    /**
+     * 计算源码摘要时跳过的目录
+     */
+    private static final Set<String> NON_SOURCE_DIRS = Set.of("node_modules", "dist", ".git");
+
+    @Resource
+    private VueBuildSchedulerConfig vueBuildSchedulerConfig;
+
+    @Resource
+    private VueProjectBuilder vueProjectBuilder;
+
+    @Resource
+    private BuildLogNotifier buildLogNotifier;
+
+    /**
+     * 执行构建，返回是否成功
+     */
+    private Predicate<String> builder;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition jobChanged = lock.newCondition();
+
+    /**
+     * 排队中的任务（按提交顺序）
+     */
+    private final LinkedList<BuildJob> queue = new LinkedList<>();
+
+    /**
+     * 排队中的任务，按项目目录索引，用于合并重复请求
+     */
+    private final Map<String, BuildJob> queuedJobs = new HashMap<>();
+
+    /**
+     * 正在构建的项目目录
+     */
+    private final Set<String> runningProjects = new HashSet<>();
+
+    /**
+     * 项目目录 -> 最近一次成功构建时的源码摘要
+     */
+    private Cache<String, String> builtDigests;
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running = false;
+
+    // 指标
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder reusedCount = new LongAdder();
+    private final LongAdder succeededCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    public VueBuildScheduler() {
+    }
+
+    /**
+     * 指定构建方式（测试用）
+     */
+    VueBuildScheduler(VueBuildSchedulerConfig vueBuildSchedulerConfig, Predicate<String> builder) {
+        this.vueBuildSchedulerConfig = vueBuildSchedulerConfig;
+        this.builder = builder;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (builder == null) {
+            builder = vueProjectBuilder::buildProject;
+        }
+        builtDigests = Caffeine.newBuilder()
+                .maximumSize(vueBuildSchedulerConfig.getMaxTrackedProjects())
+                .build();
+        running = true;
+        for (int i = 0; i < vueBuildSchedulerConfig.getConcurrency(); i++) {
+            // 工作线程大部分时间在等待 npm 进程，使用虚拟线程
+            workers.add(Thread.ofVirtual().name("vue-build-worker-" + i).start(this::runWorker));
+        }
+        log.info("Vue 构建调度器已启动, concurrency={}, queueCapacity={}",
+                vueBuildSchedulerConfig.getConcurrency(), vueBuildSchedulerConfig.getQueueCapacity());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        lock.lock();
+        try {
+            for (BuildJob job : queue) {
+                job.future.completeExceptionally(new BusinessException(ErrorCode.SYSTEM_ERROR, "构建服务已关闭"));
+            }
+            queue.clear();
+            queuedJobs.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 提交构建任务
+     * @param projectPath 项目路径
+     * @return 构建是否成功
+     */
+    public CompletableFuture<Boolean> submit(String projectPath) {
+        String projectKey = toProjectKey(projectPath);
+        submittedCount.increment();
+        lock.lock();
+        try {
+            BuildJob existing = queuedJobs.get(projectKey);
+            if (existing != null) {
+                coalescedCount.increment();
+                return existing.future;
+            }
+            if (queue.size() >= vueBuildSchedulerConfig.getQueueCapacity()) {
+                rejectedCount.increment();
+                throw new BusinessException(ErrorCode.TOO_MANY_REQUEST, "构建任务过多，请稍后重试");
+            }
+            BuildJob job = new BuildJob(projectKey);
+            queue.addLast(job);
+            queuedJobs.put(projectKey, job);
+            jobChanged.signalAll();
+            log.info("Vue 项目进入构建队列: {}, 排队位置 {}", projectKey, queue.size());
+            return job.future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 构建并等待结果
+     * @param projectPath 项目路径
+     * @return 构建是否成功
+     */
+    public boolean build(String projectPath) {
+        CompletableFuture<Boolean> future = submit(projectPath);
+        try {
+            return future.get(vueBuildSchedulerConfig.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("等待 Vue 项目构建被中断: {}", projectPath);
+            return false;
+        } catch (TimeoutException e) {
+            log.error("等待 Vue 项目构建超时: {}", projectPath);
+            return false;
+        } catch (ExecutionException e) {
+            log.error("Vue 项目构建异常: {}", projectPath, e.getCause());
+            return false;
+        }
+    }
+
+    /**
+     * 查询项目在构建队列中的位置
+     * @param projectPath 项目路径
+     * @return 排队位置（从 1 开始），正在构建返回 0，不在队列中返回 -1
+     */
+    public int getQueuePosition(String projectPath) {
+        String projectKey = toProjectKey(projectPath);
+        lock.lock();
+        try {
+            int position = 1;
+            for (BuildJob job : queue) {
+                if (job.projectKey.equals(projectKey)) {
+                    return position;
+                }
+                position++;
+            }
+            return runningProjects.contains(projectKey) ? 0 : -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            metrics.put("concurrency", vueBuildSchedulerConfig.getConcurrency());
+            metrics.put("queueSize", queue.size());
+            metrics.put("running", runningProjects.size());
+        } finally {
+            lock.unlock();
+        }
+        metrics.put("submitted", submittedCount.sum());
+        metrics.put("coalesced", coalescedCount.sum());
+        metrics.put("rejected", rejectedCount.sum());
+        metrics.put("reused", reusedCount.sum());
+        metrics.put("succeeded", succeededCount.sum());
+        metrics.put("failed", failedCount.sum());
+        return metrics;
+    }
+
+    private void runWorker() {
+        while (running) {
+            BuildJob job;
+            try {
+                job = takeJob();
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (job == null) {
+                continue;
+            }
+            Boolean success = null;
+            Exception error = null;
+            try {
+                success = runBuild(job.projectKey);
+                (success ? succeededCount : failedCount).increment();
+            } catch (Exception e) {
+                failedCount.increment();
+                error = e;
+            } finally {
+                lock.lock();
+                try {
+                    runningProjects.remove(job.projectKey);
+                    // 可能有同一项目的任务在等待
+                    jobChanged.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            // 先移出正在构建的集合再通知调用方，调用方被唤醒后查询到的状态已是构建结束
+            if (error != null) {
+                job.future.completeExceptionally(error);
+            } else {
+                job.future.complete(success);
+            }
+        }
+    }
+
+    /**
+     * 取出最早提交、且对应项目当前没有在构建的任务
+     */
+    private BuildJob takeJob() throws InterruptedException {
+        lock.lock();
+        try {
+            Iterator<BuildJob> iterator = queue.iterator();
+            while (iterator.hasNext()) {
+                BuildJob job = iterator.next();
+                if (!runningProjects.contains(job.projectKey)) {
+                    iterator.remove();
+                    queuedJobs.remove(job.projectKey, job);
+                    runningProjects.add(job.projectKey);
+                    return job;
+                }
+            }
+            jobChanged.await(1, TimeUnit.SECONDS);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean runBuild(String projectKey) {
+        String sourceDigest = computeSourceDigest(projectKey);
+        if (sourceDigest != null && sourceDigest.equals(builtDigests.getIfPresent(projectKey))
+                && new File(projectKey, "dist").isDirectory()) {
+            reusedCount.increment();
+            log.info("源码未变化，复用已有的 dist: {}", projectKey);
+            if (buildLogNotifier != null) {
+                buildLogNotifier.start(projectKey);
+                buildLogNotifier.finish(projectKey, true, "源码未变化，复用已有的构建产物");
+            }
+            return true;
+        }
+        boolean success = builder.test(projectKey);
+        if (success && sourceDigest != null) {
+            builtDigests.put(projectKey, sourceDigest);
+        } else {
+            builtDigests.invalidate(projectKey);
+        }
+        return success;
+    }
+
+    private String computeSourceDigest(String projectKey) {
+        if (!new File(projectKey).isDirectory()) {
+            return null;
+        }
+        try {
+            return ContentDigestUtils.digestDirectory(Path.of(projectKey), NON_SOURCE_DIRS);
+        } catch (Exception e) {
+            log.warn("计算源码摘要失败，直接构建: {}", projectKey);
+            return null;
+        }
+    }
+
+    private static String toProjectKey(String projectPath) {
+        return Path.of(projectPath).toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * 构建任务
+     */
+    private static class BuildJob {
+
+        private final String projectKey;
+
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        private BuildJob(String projectKey) {
+            this.projectKey = projectKey;
+        }
+    }
+}
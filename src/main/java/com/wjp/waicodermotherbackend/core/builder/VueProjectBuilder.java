@@ -1,11 +1,17 @@
 package com.wjp.waicodermotherbackend.core.builder;
 
-import cn.hutool.core.util.RuntimeUtil;
-
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 构建Vue项目
@@ -15,71 +21,85 @@ import java.io.File;
 public class VueProjectBuilder {
 
     /**
-     * 异步构建 Vue项目
-     * @param projectPath
+     * 命令失败时写入应用日志的最后几行输出
      */
-    public void buildProjectAsync(String projectPath) {
-        Thread.ofVirtual().name("vue-builder-" + System.currentTimeMillis())
-                .start(() -> {
-                    try {
-                        buildProject(projectPath);
-                    } catch (Exception e) {
-                        log.error("异步构建 Vue 项目时发生异常: {}", e.getMessage(), e);
-                    }
-                });
-    }
+    private static final int FAILURE_TAIL_LINES = 30;
+
+    @Resource
+    private NodeModulesCache nodeModulesCache;
+
+    @Resource
+    private BuildLogNotifier buildLogNotifier;
+
+    @Resource
+    private ViteWorkerPool viteWorkerPool;
 
     /**
-     * 构建Vue项目
+     * 构建Vue项目（直接执行，调用方应通过 {@link VueBuildScheduler} 排队）
      *
      * @param projectPath 项目路径
      * @return 是否构建成功
      */
     public boolean buildProject(String projectPath) {
+        // 构建日志实时推送给订阅者（见 BuildLogNotifier）
+        buildLogNotifier.start(projectPath);
+        String failure = doBuildProject(projectPath);
+        boolean success = failure == null;
+        buildLogNotifier.finish(projectPath, success, success ? "构建成功" : failure);
+        return success;
+    }
+
+    /**
+     * 执行构建
+     * @return 失败原因，成功返回 null
+     */
+    private String doBuildProject(String projectPath) {
         File projectDir = new File(projectPath);
         if(!projectDir.exists() || !projectDir.isDirectory()) {
             log.error("项目目录不存在：{}", projectPath);
-            return false;
+            return "项目目录不存在";
         }
 
         // 检查 package.json 是否存在
         File packageJson = new File(projectDir, "package.json");
         if(!packageJson.exists()) {
             log.error("项目目录下不存在 package.json 文件：{}", projectPath);
-            return false;
+            return "项目目录下不存在 package.json 文件";
         }
         log.info("开始构建Vue项目: {}", projectPath);
 
-        // 执行 npm install
-        if(!executeNpmInstall(projectDir)) {
+        // 准备依赖（相同依赖的项目共享缓存，未命中时执行 npm install）
+        if(!nodeModulesCache.prepare(projectDir, installDir -> executeNpmInstall(installDir, projectPath))) {
             log.error("npm install 执行失败");
-            return false;
+            return "npm install 执行失败";
         }
 
         // 执行 npm run build
         if(!executeNpmBuild(projectDir)) {
             log.error("npm run build 执行失败");
-            return false;
+            return "npm run build 执行失败";
         }
 
         // 验证 dist 目录是否生成
         File distDir = new File(projectDir, "dist");
         if(!distDir.exists() || !distDir.isDirectory()) {
             log.error("构建完成单 dist 目录未生成：{}", projectPath);
-            return false;
+            return "构建完成但 dist 目录未生成";
         }
         log.info("Vue 项目构建成功，dist目录：{}", distDir.getAbsolutePath());
-        return true;
+        return null;
     }
 
 
     /**
      * 执行 npm install 命令
+     * @param installDir 安装目录（依赖缓存未命中时为缓存的暂存目录）
+     * @param projectPath 项目路径，输出记录到该项目的构建日志
      */
-    private boolean executeNpmInstall(File projectDir) {
+    private boolean executeNpmInstall(File installDir, String projectPath) {
         log.info("执行 npm install...");
         String command = String.format("%s install", buildCommand("npm"));
-        return executeCommand(projectDir, command, 300); // 5分钟超时
+        return executeCommand(installDir, command, 300, projectPath); // 5分钟超时
     }
 
 
@@ -87,9 +107,19 @@ public class VueProjectBuilder {
      * 执行 npm run build 命令
      */
     private boolean executeNpmBuild(File projectDir) {
+        if (viteWorkerPool.isEnabled()) {
+            log.info("使用常驻 Vite 进程构建...");
+            buildLogNotifier.log(projectDir.getPath(), "> vite build（常驻进程）");
+            ViteWorkerPool.BuildOutcome outcome = viteWorkerPool.build(projectDir,
+                    line -> buildLogNotifier.log(projectDir.getPath(), line));
+            if (outcome != ViteWorkerPool.BuildOutcome.UNAVAILABLE) {
+                return outcome == ViteWorkerPool.BuildOutcome.SUCCESS;
+            }
+            log.info("常驻 Vite 进程不可用，改为执行 npm run build");
+        }
         log.info("执行 npm run build...");
         String command = String.format("%s run build", buildCommand("npm"));
-        return executeCommand(projectDir, command, 180); // 3分钟超时
+        return executeCommand(projectDir, command, 180, projectDir.getPath()); // 3分钟超时
     }
 
     /**
@@ -114,53 +144,86 @@ public class VueProjectBuilder {
 
     /**
      * 执行命令
+     * 合并 stdout/stderr 并由单独的线程持续读取（避免输出过多时管道写满导致进程阻塞），
+     * 每一行实时写入构建日志；主线程通过 waitFor 等待进程结束或超时。
      *
      * @param workingDir     工作目录
      * @param command        命令字符串
      * @param timeoutSeconds 超时时间（秒）
+     * @param projectPath    项目路径，输出记录到该项目的构建日志
      * @return 是否执行成功
      */
-    private boolean executeCommand(File workingDir, String command, int timeoutSeconds) {
+    private boolean executeCommand(File workingDir, String command, int timeoutSeconds, String projectPath) {
+        buildLogNotifier.log(projectPath, "> " + command);
+        Process process;
         try {
             log.info("在目录 {} 中执行命令: {}", workingDir.getAbsolutePath(), command);
-            Process process = RuntimeUtil.exec(
-                    null,
-                    workingDir,
-                    command.split("\\s+") // 命令分割为数组
-            );
-            // 手动等待进程完成，使用轮询和睡眠来实现超时控制，避免依赖 TimeUnit
-            long deadlineMillis = System.currentTimeMillis() + timeoutSeconds * 1000L;
-            boolean finished = false;
-            while (System.currentTimeMillis() < deadlineMillis) {
-                if (!process.isAlive()) {
-                    finished = true;
-                    break;
-                }
-                try {
-                    Thread.sleep(200);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-            }
-            if (!finished) {
+            process = new ProcessBuilder(command.split("\\s+")) // 命令分割为数组
+                    .directory(workingDir)
+                    .redirectErrorStream(true)
+                    .start();
+        } catch (IOException e) {
+            log.error("执行命令失败: {}, 错误信息: {}", command, e.getMessage());
+            buildLogNotifier.log(projectPath, "启动命令失败: " + e.getMessage());
+            return false;
+        }
+        // 保留最后几行输出，失败时写入应用日志
+        Deque<String> tail = new ArrayDeque<>(FAILURE_TAIL_LINES);
+        Thread drainer = Thread.ofVirtual().name("vue-build-output-" + process.pid())
+                .start(() -> drainOutput(process, projectPath, tail));
+        try {
+            if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
                 log.error("命令执行超时（{}秒），强制终止进程", timeoutSeconds);
-                process.destroyForcibly();
-                return false;
-            }
-            int exitCode = process.exitValue();
-            if (exitCode == 0) {
-                log.info("命令执行成功: {}", command);
-                return true;
-            } else {
-                log.error("命令执行失败，退出码: {}", exitCode);
+                buildLogNotifier.log(projectPath, String.format("命令执行超时（%d秒），已终止", timeoutSeconds));
+                destroyProcessTree(process);
                 return false;
             }
-        } catch (Exception e) {
-            log.error("执行命令失败: {}, 错误信息: {}", command, e.getMessage());
+            // 进程退出后读完剩余的输出
+            drainer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            destroyProcessTree(process);
             return false;
         }
+        int exitCode = process.exitValue();
+        if (exitCode == 0) {
+            log.info("命令执行成功: {}", command);
+            return true;
+        }
+        synchronized (tail) {
+            log.error("命令执行失败，退出码: {}, 最后输出:\n{}", exitCode, String.join("\n", tail));
+        }
+        buildLogNotifier.log(projectPath, "命令执行失败，退出码: " + exitCode);
+        return false;
     }
 
+    /**
+     * 逐行读取进程输出
+     */
+    private void drainOutput(Process process, String projectPath, Deque<String> tail) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                buildLogNotifier.log(projectPath, line);
+                synchronized (tail) {
+                    if (tail.size() == FAILURE_TAIL_LINES) {
+                        tail.removeFirst();
+                    }
+                    tail.addLast(line);
+                }
+            }
+        } catch (IOException e) {
+            // 进程被终止时流会被关闭
+            log.debug("读取命令输出结束: {}", e.getMessage());
+        }
+    }
 
+    /**
+     * 终止进程及其子进程（npm 会再启动 node 子进程）
+     */
+    private void destroyProcessTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
 }
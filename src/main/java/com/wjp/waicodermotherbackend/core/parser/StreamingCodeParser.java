@@ -0,0 +1,350 @@
+package com.wjp.waicodermotherbackend.core.parser;
+
+import com.wjp.waicodermotherbackend.model.enums.CodeGenTypeEnum;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 流式代码解析器
+ * 基于 ``` 代码块围栏的状态机，在 token 到达时逐段识别 html / css / js 代码块，
+ * 并把代码块内容实时交给 {@link CodeBlockSink} 写入目标文件，不需要缓存完整的 AI 输出。
+ *
+ * 解析语义与 {@link HtmlCodeParser} / {@link MultiFileCodeParser} 保持一致:
+ * - 每种语言只取第一个代码块
+ * - 代码块内容去掉首尾空白
+ * - HTML 模式下如果没有代码块，则把全部内容作为 HTML（仅在内容不超过 {@link #MAX_FALLBACK_LENGTH} 时生效）
+ *
+ * 非线程安全，每个流创建一个实例。
+ */
+@Slf4j
+public class StreamingCodeParser {
+
+    /**
+     * 围栏标记
+     */
+    private static final char FENCE_CHAR = '`';
+
+    private static final int FENCE_LENGTH = 3;
+
+    /**
+     * 围栏语言标识的最大长度，超过则视为无法识别的代码块
+     */
+    private static final int MAX_INFO_LENGTH = 32;
+
+    /**
+     * HTML 模式兜底内容的最大长度（字符）
+     */
+    private static final int MAX_FALLBACK_LENGTH = 64 * 1024;
+
+    /**
+     * 解析状态
+     */
+    private enum State {
+        /**
+         * 代码块之外
+         */
+        OUTSIDE,
+        /**
+         * 正在读取围栏后的语言标识
+         */
+        INFO,
+        /**
+         * 代码块内部
+         */
+        BODY
+    }
+
+    private final CodeGenTypeEnum codeGenType;
+
+    private final CodeBlockSink sink;
+
+    private State state = State.OUTSIDE;
+
+    /**
+     * 连续出现、尚未确定含义的反引号数量
+     */
+    private int pendingFenceChars = 0;
+
+    /**
+     * 语言标识缓冲区
+     */
+    private final StringBuilder infoBuilder = new StringBuilder();
+
+    /**
+     * 当前代码块对应的文件名，null 表示当前代码块需要丢弃
+     */
+    private String currentFileName;
+
+    /**
+     * 当前代码块是否已经输出过非空白字符（用于去掉开头空白）
+     */
+    private boolean blockStarted;
+
+    /**
+     * 代码块内暂存的空白字符，遇到非空白字符才输出（用于去掉结尾空白）
+     */
+    private final StringBuilder pendingWhitespace = new StringBuilder();
+
+    /**
+     * 本次 chunk 需要写出的内容
+     */
+    private final StringBuilder outBuffer = new StringBuilder();
+
+    /**
+     * 已经写过的文件，同一种文件只取第一个代码块
+     */
+    private final Set<String> writtenFiles = new HashSet<>();
+
+    /**
+     * HTML 模式的兜底内容（没有代码块时使用）
+     */
+    private final StringBuilder fallbackBuilder = new StringBuilder();
+
+    private boolean fallbackOverflow = false;
+
+    private boolean finished = false;
+
+    public StreamingCodeParser(CodeGenTypeEnum codeGenType, CodeBlockSink sink) {
+        if (codeGenType != CodeGenTypeEnum.HTML && codeGenType != CodeGenTypeEnum.MULTI_FILE) {
+            throw new IllegalArgumentException("不支持的生成类型:" + codeGenType.getValue());
+        }
+        this.codeGenType = codeGenType;
+        this.sink = sink;
+    }
+
+    /**
+     * 输入一段流式内容
+     * @param chunk AI 返回的内容片段
+     */
+    public void feed(String chunk) {
+        if (chunk == null || chunk.isEmpty() || finished) {
+            return;
+        }
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            switch (state) {
+                case OUTSIDE -> handleOutside(c);
+                case INFO -> handleInfo(c);
+                case BODY -> handleBody(c);
+            }
+        }
+        // 每个 chunk 结束时把已确定的内容写出，保证预览能尽快看到
+        flushOut();
+    }
+
+    /**
+     * 流结束
+     */
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (state == State.BODY) {
+            // 代码块未闭合：未确定的反引号按普通内容处理，结尾空白丢弃
+            if (pendingFenceChars > 0) {
+                emitBodyChar(FENCE_CHAR, pendingFenceChars);
+                pendingFenceChars = 0;
+            }
+            closeBlock();
+        } else if (state == State.OUTSIDE) {
+            appendFallback(FENCE_CHAR, pendingFenceChars);
+        }
+        if (codeGenType == CodeGenTypeEnum.HTML && !writtenFiles.contains("index.html")) {
+            writeFallback();
+        }
+        fallbackBuilder.setLength(0);
+    }
+
+    /**
+     * 是否已经写出过指定文件
+     */
+    public boolean hasWritten(String fileName) {
+        return writtenFiles.contains(fileName);
+    }
+
+    private void handleOutside(char c) {
+        if (c == FENCE_CHAR) {
+            pendingFenceChars++;
+            if (pendingFenceChars == FENCE_LENGTH) {
+                pendingFenceChars = 0;
+                infoBuilder.setLength(0);
+                state = State.INFO;
+            }
+            return;
+        }
+        appendFallback(FENCE_CHAR, pendingFenceChars);
+        pendingFenceChars = 0;
+        appendFallback(c, 1);
+    }
+
+    private void handleInfo(char c) {
+        if (c == '\n') {
+            openBlock(infoBuilder.toString().trim().toLowerCase(Locale.ROOT));
+            state = State.BODY;
+            return;
+        }
+        if (infoBuilder.length() < MAX_INFO_LENGTH) {
+            infoBuilder.append(c);
+        } else {
+            // 语言标识过长，整个代码块都丢弃
+            infoBuilder.setLength(0);
+            infoBuilder.append('\0');
+        }
+    }
+
+    private void handleBody(char c) {
+        if (c == FENCE_CHAR) {
+            pendingFenceChars++;
+            if (pendingFenceChars == FENCE_LENGTH) {
+                pendingFenceChars = 0;
+                closeBlock();
+                state = State.OUTSIDE;
+            }
+            return;
+        }
+        if (pendingFenceChars > 0) {
+            emitBodyChar(FENCE_CHAR, pendingFenceChars);
+            pendingFenceChars = 0;
+        }
+        emitBodyChar(c, 1);
+    }
+
+    /**
+     * 输出代码块内的字符，处理首尾空白
+     */
+    private void emitBodyChar(char c, int count) {
+        if (currentFileName == null) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            if (Character.isWhitespace(c)) {
+                if (blockStarted) {
+                    pendingWhitespace.append(c);
+                }
+                continue;
+            }
+            blockStarted = true;
+            if (!pendingWhitespace.isEmpty()) {
+                outBuffer.append(pendingWhitespace);
+                pendingWhitespace.setLength(0);
+            }
+            outBuffer.append(c);
+        }
+    }
+
+    /**
+     * 根据语言标识打开代码块
+     */
+    private void openBlock(String language) {
+        String fileName = resolveFileName(language);
+        if (fileName != null && writtenFiles.contains(fileName)) {
+            // 同一种文件只取第一个代码块
+            fileName = null;
+        }
+        currentFileName = fileName;
+        blockStarted = false;
+        pendingWhitespace.setLength(0);
+        if (fileName != null) {
+            writtenFiles.add(fileName);
+            sink.open(fileName);
+            log.debug("开始流式写入代码块: {} -> {}", language, fileName);
+        }
+    }
+
+    private void closeBlock() {
+        if (currentFileName != null) {
+            flushOut();
+            sink.close(currentFileName);
+        }
+        currentFileName = null;
+        blockStarted = false;
+        pendingWhitespace.setLength(0);
+    }
+
+    private void flushOut() {
+        if (outBuffer.isEmpty() || currentFileName == null) {
+            outBuffer.setLength(0);
+            return;
+        }
+        sink.append(currentFileName, outBuffer);
+        outBuffer.setLength(0);
+    }
+
+    /**
+     * 语言标识 -> 文件名
+     */
+    private String resolveFileName(String language) {
+        if ("html".equals(language)) {
+            return "index.html";
+        }
+        if (codeGenType != CodeGenTypeEnum.MULTI_FILE) {
+            return null;
+        }
+        return switch (language) {
+            case "css" -> "style.css";
+            case "js", "javascript" -> "script.js";
+            default -> null;
+        };
+    }
+
+    private void appendFallback(char c, int count) {
+        if (codeGenType != CodeGenTypeEnum.HTML || fallbackOverflow || !writtenFiles.isEmpty() || count == 0) {
+            return;
+        }
+        if (fallbackBuilder.length() + count > MAX_FALLBACK_LENGTH) {
+            fallbackOverflow = true;
+            fallbackBuilder.setLength(0);
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            fallbackBuilder.append(c);
+        }
+    }
+
+    /**
+     * HTML 模式下没有识别到代码块，把全部内容作为 HTML 写入
+     */
+    private void writeFallback() {
+        if (fallbackOverflow) {
+            log.warn("未识别到 HTML 代码块，且内容超过 {} 字符，跳过兜底保存", MAX_FALLBACK_LENGTH);
+            return;
+        }
+        String content = fallbackBuilder.toString().trim();
+        if (content.isEmpty()) {
+            return;
+        }
+        writtenFiles.add("index.html");
+        sink.open("index.html");
+        sink.append("index.html", content);
+        sink.close("index.html");
+    }
+
+    /**
+     * 代码块输出目标
+     */
+    public interface CodeBlockSink {
+
+        /**
+         * 开始一个新文件（覆盖旧内容）
+         * @param fileName 文件名
+         */
+        void open(String fileName);
+
+        /**
+         * 追加内容
+         * @param fileName 文件名
+         * @param content 内容（仅在本次调用期间有效，不要持有引用）
+         */
+        void append(String fileName, CharSequence content);
+
+        /**
+         * 文件写入完成
+         * @param fileName 文件名
+         */
+        void close(String fileName);
+    }
+}
@@ -0,0 +1,40 @@
+package com.wjp.waicodermotherbackend.core.preview;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 文件变更消息
+ * 通过 SSE 的 file_change 事件推送给前端，用于按文件热更新预览
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileChangeMessage {
+
+    /**
+     * 变更类型: write / modify / delete
+     */
+    private String type;
+
+    /**
+     * 相对于项目根目录的路径（使用 / 分隔）
+     */
+    private String path;
+
+    /**
+     * 文件大小（字节），删除时为 -1
+     */
+    private long size;
+
+    /**
+     * 文件内容 MD5，删除时为 null
+     */
+    private String hash;
+
+    /**
+     * 变更时间戳（毫秒）
+     */
+    private long timestamp;
+}
@@ -0,0 +1,156 @@
+package com.wjp.waicodermotherbackend.core.preview;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 文件变更通知器
+ * 工具调用、代码保存器写入磁盘时发布文件变更，按 appId 推送给正在订阅的 SSE 连接。
+ * 同一路径内容未变化（hash 相同）时不重复推送。
+ */
+@Slf4j
+@Component
+public class FileChangeNotifier {
+
+    public static final String TYPE_WRITE = "write";
+
+    public static final String TYPE_MODIFY = "modify";
+
+    public static final String TYPE_DELETE = "delete";
+
+    /**
+     * appId -> 推送通道
+     */
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    /**
+     * appId -> (路径 -> 最近一次推送的 hash)，用于去重
+     * 缓存策略: 访问后 30 分钟过期
+     */
+    private final Cache<Long, Map<String, String>> lastHashCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .build();
+
+    /**
+     * 订阅指定应用的文件变更
+     * @param appId 应用ID
+     * @return 文件变更流（不会主动结束，由调用方控制结束时机）
+     */
+    public Flux<FileChangeMessage> subscribe(Long appId) {
+        // 订阅时才获取通道，订阅者计数与通道的创建、移除在同一个 compute 中完成，
+        // 不会订阅到已被其他订阅者移除的通道
+        return Flux.defer(() -> {
+            Channel channel = channels.compute(appId, (key, current) -> {
+                Channel acquired = current == null ? new Channel() : current;
+                acquired.subscribers++;
+                return acquired;
+            });
+            return channel.sink.asFlux()
+                    .doFinally(signalType -> channels.compute(appId, (key, current) -> {
+                        if (current != channel) {
+                            return current;
+                        }
+                        // 最后一个订阅者退出后移除通道
+                        return --current.subscribers == 0 ? null : current;
+                    }));
+        });
+    }
+
+    /**
+     * 发布文件写入/修改
+     * @param appId 应用ID
+     * @param type 变更类型
+     * @param relativePath 相对项目根目录的路径
+     * @param content 写入后的完整内容
+     */
+    public void publish(Long appId, String type, String relativePath, byte[] content) {
+        doPublish(appId, type, relativePath, content.length, DigestUtil.md5Hex(content));
+    }
+
+    /**
+     * 发布文件写入/修改（从磁盘读取内容计算 hash）
+     * @param appId 应用ID
+     * @param type 变更类型
+     * @param projectRoot 项目根目录
+     * @param file 变更的文件
+     */
+    public void publish(Long appId, String type, Path projectRoot, Path file) {
+        try {
+            byte[] content = Files.readAllBytes(file);
+            publish(appId, type, toRelativePath(projectRoot, file), content);
+        } catch (IOException e) {
+            log.warn("读取变更文件失败，跳过推送: {}", file, e);
+        }
+    }
+
+    /**
+     * 发布文件删除
+     * @param appId 应用ID
+     * @param relativePath 相对项目根目录的路径
+     */
+    public void publishDelete(Long appId, String relativePath) {
+        doPublish(appId, TYPE_DELETE, relativePath, -1, null);
+    }
+
+    /**
+     * 计算相对路径（统一使用 / 分隔）
+     */
+    public static String toRelativePath(Path projectRoot, Path file) {
+        Path normalizedFile = file.toAbsolutePath().normalize();
+        Path normalizedRoot = projectRoot.toAbsolutePath().normalize();
+        Path relative = normalizedFile.startsWith(normalizedRoot)
+                ? normalizedRoot.relativize(normalizedFile)
+                : normalizedFile.getFileName();
+        return relative.toString().replace('\\', '/');
+    }
+
+    private void doPublish(Long appId, String type, String relativePath, long size, String hash) {
+        if (appId == null || relativePath == null) {
+            return;
+        }
+        String path = relativePath.replace('\\', '/');
+        // 内容未变化则不推送
+        Map<String, String> lastHashes = lastHashCache.get(appId, key -> new ConcurrentHashMap<>());
+        String previous = hash == null ? lastHashes.remove(path) : lastHashes.put(path, hash);
+        if (hash != null && Objects.equals(previous, hash)) {
+            return;
+        }
+        Channel channel = channels.get(appId);
+        if (channel == null) {
+            return;
+        }
+        FileChangeMessage message = new FileChangeMessage(type, path, size, hash, System.currentTimeMillis());
+        // 工具可能在不同线程并发写入，串行化发射
+        synchronized (channel.sink) {
+            channel.sink.tryEmitNext(message);
+        }
+        log.debug("推送文件变更: appId={}, {} {}", appId, type, path);
+    }
+
+    /**
+     * 一个应用的推送通道
+     */
+    private static class Channel {
+
+        private final Sinks.Many<FileChangeMessage> sink = Sinks.many().multicast().directBestEffort();
+
+        /**
+         * 订阅者数量，只在 channels.compute 中修改
+         */
+        private int subscribers = 0;
+    }
+}
@@ -3,19 +3,24 @@ package com.wjp.waicodermotherbackend.core.saver;
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.IdUtil;
 import cn.hutool.core.util.StrUtil;
+import com.wjp.waicodermotherbackend.core.preview.FileChangeNotifier;
 import com.wjp.waicodermotherbackend.exception.BusinessException;
 import com.wjp.waicodermotherbackend.exception.ErrorCode;
 import com.wjp.waicodermotherbackend.exception.ThrowUtils;
 import com.wjp.waicodermotherbackend.model.enums.CodeGenTypeEnum;
+import com.wjp.waicodermotherbackend.utils.SpringContextUtil;
+import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 
 import static com.wjp.waicodermotherbackend.constant.AppConstant.CODE_OUTPUT_ROOT_DIR;
 
 /**
  * 抽象代码文件保存器 - 模板方法模式
  */
+@Slf4j
 public abstract class CodeFileSaverTemplate<T> {
 
     /**
@@ -39,7 +44,10 @@ public abstract class CodeFileSaverTemplate<T> {
         // 3.保存文件（具体实现由子类提供）
         saveFiles(result, baseDirPath);
 
-        // 4.返回目录文件对象
+        // 4.推送文件变更
+        publishFileChanges(baseDirPath, appId);
+
+        // 5.返回目录文件对象
         return new File(baseDirPath);
     }
 
@@ -87,6 +95,28 @@ public abstract class CodeFileSaverTemplate<T> {
     protected abstract void saveFiles(T result, String baseDirPath);
 
 
+    /**
+     * 4.推送文件变更（内容未变化的文件由通知器自动去重）
+     * @param baseDirPath 保存目录
+     * @param appId 应用id
+     */
+    protected void publishFileChanges(String baseDirPath, Long appId) {
+        File[] files = new File(baseDirPath).listFiles(File::isFile);
+        if (files == null || files.length == 0) {
+            return;
+        }
+        try {
+            FileChangeNotifier fileChangeNotifier = SpringContextUtil.getBean(FileChangeNotifier.class);
+            Path baseDir = Path.of(baseDirPath);
+            for (File file : files) {
+                fileChangeNotifier.publish(appId, FileChangeNotifier.TYPE_WRITE, baseDir, file.toPath());
+            }
+        } catch (Exception e) {
+            // 推送失败不影响保存结果
+            log.warn("推送文件变更失败: {}", e.getMessage());
+        }
+    }
+
     /**
      * 保存单个文件
      *
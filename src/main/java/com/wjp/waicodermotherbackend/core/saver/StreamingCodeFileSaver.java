@@ -0,0 +1,124 @@
+package com.wjp.waicodermotherbackend.core.saver;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.util.StrUtil;
+import com.wjp.waicodermotherbackend.core.parser.StreamingCodeParser;
+import com.wjp.waicodermotherbackend.core.preview.FileChangeNotifier;
+import com.wjp.waicodermotherbackend.exception.BusinessException;
+import com.wjp.waicodermotherbackend.exception.ErrorCode;
+import com.wjp.waicodermotherbackend.model.enums.CodeGenTypeEnum;
+import com.wjp.waicodermotherbackend.utils.SpringContextUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.wjp.waicodermotherbackend.constant.AppConstant.CODE_OUTPUT_ROOT_DIR;
+
+/**
+ * 流式代码文件保存器
+ * 配合 {@link StreamingCodeParser} 使用，代码块内容到达时直接追加写入
+ * tmp/code_output/{bizType}_{appId} 下的目标文件，生成过程中即可预览。
+ *
+ * 非线程安全，每个流创建一个实例；流结束（包括异常、取消）时必须调用 {@link #closeAll()}。
+ */
+@Slf4j
+public class StreamingCodeFileSaver implements StreamingCodeParser.CodeBlockSink {
+
+    /**
+     * 保存目录
+     */
+    private final String baseDirPath;
+
+    /**
+     * 应用id
+     */
+    private final Long appId;
+
+    /**
+     * 正在写入的文件
+     */
+    private final Map<String, Writer> openWriters = new HashMap<>();
+
+    public StreamingCodeFileSaver(CodeGenTypeEnum codeGenType, Long appId) {
+        if (appId == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "appId不能为空");
+        }
+        // 与 CodeFileSaverTemplate 的目录规则保持一致
+        String uniqueDirName = StrUtil.format("{}_{}", codeGenType.getValue(), appId);
+        this.baseDirPath = CODE_OUTPUT_ROOT_DIR + File.separator + uniqueDirName;
+        this.appId = appId;
+    }
+
+    /**
+     * 获取保存目录
+     */
+    public File getBaseDir() {
+        return new File(baseDirPath);
+    }
+
+    @Override
+    public void open(String fileName) {
+        closeWriter(fileName);
+        try {
+            FileUtil.mkdir(baseDirPath);
+            Writer writer = Files.newBufferedWriter(new File(baseDirPath, fileName).toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            openWriters.put(fileName, writer);
+        } catch (IOException e) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "创建文件失败: " + fileName);
+        }
+    }
+
+    @Override
+    public void append(String fileName, CharSequence content) {
+        Writer writer = openWriters.get(fileName);
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.append(content);
+            // 每段内容都刷到磁盘，预览可以立即看到
+            writer.flush();
+        } catch (IOException e) {
+            closeWriter(fileName);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "写入文件失败: " + fileName);
+        }
+    }
+
+    @Override
+    public void close(String fileName) {
+        closeWriter(fileName);
+        log.info("流式保存文件完成: {}", baseDirPath + File.separator + fileName);
+        // 文件写完后推送变更
+        try {
+            SpringContextUtil.getBean(FileChangeNotifier.class)
+                    .publish(appId, FileChangeNotifier.TYPE_WRITE, Path.of(baseDirPath), Path.of(baseDirPath, fileName));
+        } catch (Exception e) {
+            log.warn("推送文件变更失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 关闭所有未关闭的文件
+     */
+    public void closeAll() {
+        for (Writer writer : openWriters.values()) {
+            IoUtil.close(writer);
+        }
+        openWriters.clear();
+    }
+
+    private void closeWriter(String fileName) {
+        Writer writer = openWriters.remove(fileName);
+        IoUtil.close(writer);
+    }
+}
@@ -0,0 +1,602 @@
+package com.wjp.waicodermotherbackend.core.vfs;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.wjp.waicodermotherbackend.config.ProjectFileCacheConfig;
+import com.wjp.waicodermotherbackend.config.ProjectFileWriteConfig;
+import com.wjp.waicodermotherbackend.config.ProjectFileWriteConfig.SyncMode;
+import com.wjp.waicodermotherbackend.utils.ProjectFileWalker;
+import com.wjp.waicodermotherbackend.utils.ProjectFileWalker.ProjectFile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AI 文件工具使用的项目虚拟文件系统
+ * 按 appId 在内存中缓存项目文件（内容、修改时间、hash）和目录清单，读写都经过这里，
+ * 同一次生成中反复读取刚写入的文件、反复读取目录结构时不再访问磁盘读取内容。
+ *
+ * - 写入穿透：先写磁盘，再更新缓存的内容和目录清单，缓存不会比磁盘新
+ * - 读取时比较文件的修改时间和大小，被其他程序修改过的文件重新读取
+ * - 目录清单记录各目录的修改时间，目录中增删过文件时重新遍历
+ * - 按缓存的文件内容字节数限制总大小，超出后淘汰最近最少使用的项目
+ * - 不在项目目录下的路径直接读写磁盘，不缓存
+ *
+ * 写入先写同目录下的临时文件再原子重命名，并发读取（如预览页面）只会看到旧文件或新文件。
+ * 刷盘方式见 {@link SyncMode}，TURN 模式下一轮工具调用写入的文件在本轮结束时统一刷盘（{@link #sync(Long)}）。
+ */
+@Slf4j
+@Component
+public class ProjectFileSystem {
+
+    /**
+     * 供 AiServiceStreamingResponseHandler（非 Spring 管理）在一轮工具调用结束时刷盘
+     */
+    private static volatile ProjectFileSystem instance;
+
+    @Resource
+    private ProjectFileCacheConfig projectFileCacheConfig;
+
+    @Resource
+    private ProjectFileWriteConfig projectFileWriteConfig;
+
+    /**
+     * appId -> 项目缓存（按访问顺序排列，最久未使用的在最前）
+     * 只在持有锁时修改，磁盘读写都在锁外进行
+     */
+    private final LinkedHashMap<Long, ProjectSnapshot> projects = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 所有项目缓存的文件内容总字节数
+     */
+    private long totalBytes = 0;
+
+    /**
+     * appId -> 已写入但还未刷盘的文件和目录（TURN 模式）
+     */
+    private final Map<Long, Set<Path>> pendingSyncs = new ConcurrentHashMap<>();
+
+    public ProjectFileSystem() {
+    }
+
+    /**
+     * 指定配置（测试用）
+     */
+    ProjectFileSystem(ProjectFileCacheConfig projectFileCacheConfig, ProjectFileWriteConfig projectFileWriteConfig) {
+        this.projectFileCacheConfig = projectFileCacheConfig;
+        this.projectFileWriteConfig = projectFileWriteConfig;
+    }
+
+    @PostConstruct
+    public void init() {
+        instance = this;
+    }
+
+    /**
+     * 获取 Spring 管理的实例，未启动 Spring 时返回 null
+     */
+    public static ProjectFileSystem getInstance() {
+        return instance;
+    }
+
+    /**
+     * 读取文件内容（UTF-8）
+     * @param appId 应用ID
+     * @param projectRoot 项目根目录
+     * @param file 要读取的文件
+     * @return 文件内容，文件不存在或不是普通文件时返回 null
+     */
+    public String readString(Long appId, Path projectRoot, Path file) throws IOException {
+        BasicFileAttributes attrs = readAttributes(file);
+        if (attrs == null || !attrs.isRegularFile()) {
+            return null;
+        }
+        String key = toKey(projectRoot, file);
+        if (key == null) {
+            return decode(Files.readAllBytes(file));
+        }
+        synchronized (projects) {
+            CachedFile cached = getSnapshot(appId, projectRoot).files.get(key);
+            if (cached != null && cached.content != null && cached.matches(attrs)) {
+                return cached.content;
+            }
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        String content = decode(bytes);
+        // 读取期间文件被修改过的不缓存
+        if (bytes.length == attrs.size()) {
+            putFile(appId, projectRoot, key, new CachedFile(retain(content, bytes.length),
+                    attrs.lastModifiedTime(), bytes.length, DigestUtil.md5Hex(bytes)));
+        }
+        return content;
+    }
+
+    /**
+     * 写入文件（不存在时创建，父目录不存在时一并创建）
+     * 与缓存中的内容相同且磁盘文件未被修改过时跳过写入
+     * @param appId 应用ID
+     * @param projectRoot 项目根目录
+     * @param file 要写入的文件
+     * @param content 文件内容
+     * @return 是否写入了磁盘
+     */
+    public boolean writeString(Long appId, Path projectRoot, Path file, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        String key = toKey(projectRoot, file);
+        if (key == null) {
+            writeBytes(appId, file, bytes);
+            return true;
+        }
+        String hash = DigestUtil.md5Hex(bytes);
+        CachedFile cached;
+        synchronized (projects) {
+            cached = getSnapshot(appId, projectRoot).files.get(key);
+        }
+        if (cached != null && cached.hash.equals(hash)) {
+            BasicFileAttributes attrs = readAttributes(file);
+            if (attrs != null && attrs.isRegularFile() && cached.matches(attrs)) {
+                return false;
+            }
+        }
+        writeBytes(appId, file, bytes);
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        CachedFile written = new CachedFile(retain(content, bytes.length), attrs.lastModifiedTime(), bytes.length, hash);
+        Map<String, FileTime> directoryTimes = readDirectoryTimes(projectRoot, parentDirectories(key));
+        synchronized (projects) {
+            ProjectSnapshot snapshot = getSnapshot(appId, projectRoot);
+            snapshot.putFile(key, written);
+            if (snapshot.listing != null) {
+                if (snapshot.listing.walker.accepts(key)) {
+                    snapshot.listing.files.add(key);
+                }
+                snapshot.listing.directoryTimes.putAll(directoryTimes);
+            }
+            evictIfNeeded();
+        }
+        return true;
+    }
+
+    /**
+     * 删除文件
+     * @param appId 应用ID
+     * @param projectRoot 项目根目录
+     * @param file 要删除的文件
+     */
+    public void delete(Long appId, Path projectRoot, Path file) throws IOException {
+        Files.delete(file);
+        syncDirectoryOf(appId, file);
+        String key = toKey(projectRoot, file);
+        if (key == null) {
+            return;
+        }
+        Map<String, FileTime> directoryTimes = readDirectoryTimes(projectRoot, parentDirectories(key));
+        synchronized (projects) {
+            ProjectSnapshot snapshot = getSnapshot(appId, projectRoot);
+            snapshot.removeFile(key);
+            if (snapshot.listing != null) {
+                snapshot.listing.files.remove(key);
+                snapshot.listing.directoryTimes.putAll(directoryTimes);
+            }
+        }
+    }
+
+    /**
+     * 把应用已写入但还未刷盘的文件和所在目录刷盘（TURN 模式，一轮工具调用结束时调用）
+     * @param appId 应用ID
+     * @return 刷盘的文件和目录数
+     */
+    public int sync(Long appId) {
+        Set<Path> paths = appId == null ? null : pendingSyncs.remove(appId);
+        if (paths == null) {
+            return 0;
+        }
+        int synced = 0;
+        // 先刷文件再刷目录
+        for (Path path : paths) {
+            if (!Files.isDirectory(path) && force(path)) {
+                synced++;
+            }
+        }
+        for (Path path : paths) {
+            if (Files.isDirectory(path) && force(path)) {
+                synced++;
+            }
+        }
+        log.debug("工具写入文件已刷盘: appId={}, count={}", appId, synced);
+        return synced;
+    }
+
+    /**
+     * 列出目录下的文件，结果与 walker.walk(dir) 相同
+     * 缓存的是整个项目的清单，目录中增删过文件（目录修改时间变化）时重新遍历
+     * @param appId 应用ID
+     * @param projectRoot 项目根目录
+     * @param dir 要列出的目录
+     * @param walker 遍历规则（同一项目应使用同一个实例）
+     * @return 文件列表（按路径排序）
+     */
+    public List<ProjectFile> listFiles(Long appId, Path projectRoot, Path dir, ProjectFileWalker walker) throws IOException {
+        String prefix = toDirectoryKey(projectRoot, dir);
+        // 不在项目目录下或者目录本身会被忽略时直接遍历
+        if (prefix == null || (!prefix.isEmpty() && !walker.accepts(prefix))) {
+            return walker.walk(dir);
+        }
+        Listing listing;
+        synchronized (projects) {
+            listing = getSnapshot(appId, projectRoot).listing;
+        }
+        if (listing == null || listing.walker != walker || !isUpToDate(projectRoot, listing)) {
+            listing = loadListing(appId, projectRoot, walker);
+        }
+        List<ProjectFile> files = new ArrayList<>();
+        synchronized (projects) {
+            for (String key : listing.files) {
+                if (prefix.isEmpty() || key.startsWith(prefix + "/")) {
+                    String relativePath = prefix.isEmpty() ? key : key.substring(prefix.length() + 1);
+                    int depth = (int) relativePath.chars().filter(c -> c == '/').count();
+                    files.add(new ProjectFile(dir.resolve(relativePath), relativePath, depth));
+                }
+            }
+        }
+        files.sort(Comparator.comparing(ProjectFile::getPath));
+        return files;
+    }
+
+    /**
+     * 项目是否在缓存中（测试用）
+     */
+    boolean isCached(Long appId) {
+        synchronized (projects) {
+            return projects.containsKey(appId);
+        }
+    }
+
+    /**
+     * 缓存的文件内容总字节数（测试用）
+     */
+    long getTotalBytes() {
+        synchronized (projects) {
+            return totalBytes;
+        }
+    }
+
+    /**
+     * 遍历整个项目并缓存清单
+     */
+    private Listing loadListing(Long appId, Path projectRoot, ProjectFileWalker walker) throws IOException {
+        Listing listing = new Listing(walker);
+        Set<String> directories = new HashSet<>();
+        directories.add("");
+        for (ProjectFile file : walker.walk(projectRoot)) {
+            listing.files.add(file.getRelativePath());
+            directories.addAll(parentDirectories(file.getRelativePath()));
+        }
+        listing.directoryTimes.putAll(readDirectoryTimes(projectRoot, directories));
+        synchronized (projects) {
+            getSnapshot(appId, projectRoot).listing = listing;
+        }
+        return listing;
+    }
+
+    /**
+     * 清单记录的各目录修改时间是否都未变化
+     */
+    private boolean isUpToDate(Path projectRoot, Listing listing) {
+        Map<String, FileTime> directoryTimes;
+        synchronized (projects) {
+            directoryTimes = new HashMap<>(listing.directoryTimes);
+        }
+        for (Map.Entry<String, FileTime> entry : directoryTimes.entrySet()) {
+            BasicFileAttributes attrs = readAttributes(projectRoot.resolve(entry.getKey()));
+            if (attrs == null || !attrs.lastModifiedTime().equals(entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 读取目录的修改时间，不存在的目录跳过
+     * @param directories 目录相对项目根目录的路径（根目录为空字符串）
+     * @return 目录相对路径 -> 修改时间
+     */
+    private static Map<String, FileTime> readDirectoryTimes(Path projectRoot, Collection<String> directories) {
+        Map<String, FileTime> times = new HashMap<>();
+        for (String directory : directories) {
+            BasicFileAttributes attrs = readAttributes(projectRoot.resolve(directory));
+            if (attrs != null) {
+                times.put(directory, attrs.lastModifiedTime());
+            }
+        }
+        return times;
+    }
+
+    /**
+     * 文件所在的各级目录（直到项目根目录）
+     * @param key 文件相对项目根目录的路径
+     */
+    private static List<String> parentDirectories(String key) {
+        List<String> directories = new ArrayList<>();
+        String directory = key;
+        while (!directory.isEmpty()) {
+            int index = directory.lastIndexOf('/');
+            directory = index < 0 ? "" : directory.substring(0, index);
+            directories.add(directory);
+        }
+        return directories;
+    }
+
+    private void putFile(Long appId, Path projectRoot, String key, CachedFile file) {
+        synchronized (projects) {
+            getSnapshot(appId, projectRoot).putFile(key, file);
+            evictIfNeeded();
+        }
+    }
+
+    /**
+     * 获取项目缓存，不存在或项目目录变化时新建（调用方需持有锁）
+     */
+    private ProjectSnapshot getSnapshot(Long appId, Path projectRoot) {
+        Path root = projectRoot.toAbsolutePath().normalize();
+        ProjectSnapshot snapshot = projects.get(appId);
+        if (snapshot == null || !snapshot.root.equals(root)) {
+            if (snapshot != null) {
+                totalBytes -= snapshot.bytes;
+            }
+            snapshot = new ProjectSnapshot(root);
+            projects.put(appId, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 超出总大小时淘汰最近最少使用的项目（调用方需持有锁）
+     */
+    private void evictIfNeeded() {
+        long maxBytes = projectFileCacheConfig.getMaxSize().toBytes();
+        Iterator<Map.Entry<Long, ProjectSnapshot>> iterator = projects.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<Long, ProjectSnapshot> eldest = iterator.next();
+            totalBytes -= eldest.getValue().bytes;
+            iterator.remove();
+            log.debug("项目文件缓存已满，淘汰项目: appId={}", eldest.getKey());
+        }
+    }
+
+    /**
+     * 大文件不缓存内容
+     */
+    private String retain(String content, long length) {
+        return length <= projectFileCacheConfig.getMaxFileSize().toBytes() ? content : null;
+    }
+
+    /**
+     * 文件相对项目根目录的路径，未开启缓存或不在项目目录下时返回 null
+     */
+    private String toKey(Path projectRoot, Path file) {
+        String key = toDirectoryKey(projectRoot, file);
+        return key == null || key.isEmpty() ? null : key;
+    }
+
+    /**
+     * 目录相对项目根目录的路径（根目录为空字符串），未开启缓存或不在项目目录下时返回 null
+     */
+    private String toDirectoryKey(Path projectRoot, Path dir) {
+        if (!projectFileCacheConfig.isEnabled()) {
+            return null;
+        }
+        Path root = projectRoot.toAbsolutePath().normalize();
+        Path normalized = dir.toAbsolutePath().normalize();
+        if (!normalized.startsWith(root)) {
+            return null;
+        }
+        return root.relativize(normalized).toString().replace('\\', '/');
+    }
+
+    /**
+     * 写入磁盘（父目录不存在时一并创建），按配置原子替换和刷盘
+     */
+    private void writeBytes(Long appId, Path file, byte[] bytes) throws IOException {
+        Path parentDir = file.toAbsolutePath().getParent();
+        Files.createDirectories(parentDir);
+        SyncMode syncMode = projectFileWriteConfig.getSyncMode();
+        if (!projectFileWriteConfig.isAtomic()) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(channel, bytes);
+                if (syncMode == SyncMode.EACH) {
+                    channel.force(false);
+                }
+            }
+        } else {
+            // 临时文件以 . 开头、.tmp 结尾，读取目录结构时会被忽略
+            Path temp = parentDir.resolve("." + file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                    writeFully(channel, bytes);
+                    if (syncMode == SyncMode.EACH) {
+                        channel.force(false);
+                    }
+                }
+                try {
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        if (syncMode == SyncMode.TURN && appId != null) {
+            pendingSyncs.computeIfAbsent(appId, key -> ConcurrentHashMap.newKeySet()).add(file.toAbsolutePath());
+        }
+        syncDirectoryOf(appId, file);
+    }
+
+    /**
+     * 文件所在目录的条目发生变化（新建、重命名、删除）后刷盘，TURN 模式下记录到本轮统一刷盘
+     */
+    private void syncDirectoryOf(Long appId, Path file) {
+        Path parentDir = file.toAbsolutePath().getParent();
+        switch (projectFileWriteConfig.getSyncMode()) {
+            case EACH -> force(parentDir);
+            case TURN -> {
+                if (appId != null) {
+                    pendingSyncs.computeIfAbsent(appId, key -> ConcurrentHashMap.newKeySet()).add(parentDir);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * 文件或目录刷盘，已被删除或不支持（如 Windows 下的目录）时跳过
+     * @return 是否刷盘成功
+     */
+    private static boolean force(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.force(true);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            log.debug("刷盘失败: {}, {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 按 UTF-8 解码，与 Files.readString 一样遇到非法字节时抛出异常
+     */
+    private static String decode(byte[] bytes) throws IOException {
+        return StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes)).toString();
+    }
+
+    /**
+     * 读取文件属性，文件不存在时返回 null
+     */
+    private static BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("读取文件属性失败: {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * 缓存的文件
+     * @param content 文件内容，大文件为 null
+     * @param lastModifiedTime 读取或写入时的修改时间
+     * @param size 文件字节数
+     * @param hash 内容 MD5
+     */
+    private record CachedFile(String content, FileTime lastModifiedTime, long size, String hash) {
+
+        /**
+         * 磁盘上的文件是否与缓存时一致
+         */
+        private boolean matches(BasicFileAttributes attrs) {
+            return attrs.size() == size && Objects.equals(attrs.lastModifiedTime(), lastModifiedTime);
+        }
+
+        private long weight() {
+            return content == null ? 0 : size;
+        }
+    }
+
+    /**
+     * 项目目录清单
+     */
+    private static class Listing {
+
+        private final ProjectFileWalker walker;
+
+        /**
+         * 文件相对项目根目录的路径
+         */
+        private final TreeSet<String> files = new TreeSet<>();
+
+        /**
+         * 目录相对路径（根目录为空字符串）-> 修改时间
+         */
+        private final Map<String, FileTime> directoryTimes = new HashMap<>();
+
+        private Listing(ProjectFileWalker walker) {
+            this.walker = walker;
+        }
+    }
+
+    /**
+     * 单个项目的缓存
+     */
+    private class ProjectSnapshot {
+
+        private final Path root;
+
+        private final Map<String, CachedFile> files = new HashMap<>();
+
+        private Listing listing;
+
+        /**
+         * 缓存的文件内容字节数
+         */
+        private long bytes = 0;
+
+        private ProjectSnapshot(Path root) {
+            this.root = root;
+        }
+
+        private void putFile(String key, CachedFile file) {
+            removeFile(key);
+            files.put(key, file);
+            bytes += file.weight();
+            totalBytes += file.weight();
+        }
+
+        private void removeFile(String key) {
+            CachedFile removed = files.remove(key);
+            if (removed != null) {
+                bytes -= removed.weight();
+                totalBytes -= removed.weight();
+            }
+        }
+    }
+}
@@ -5,14 +5,18 @@ import cn.hutool.core.util.StrUtil;
 import com.wjp.waicodermotherbackend.langgraph4j.ai.CodeQualityCheckService;
 import com.wjp.waicodermotherbackend.langgraph4j.model.QualityResult;
 import com.wjp.waicodermotherbackend.langgraph4j.state.WorkflowContext;
+import com.wjp.waicodermotherbackend.utils.ProjectFileWalker;
+import com.wjp.waicodermotherbackend.utils.ProjectFileWalker.ProjectFile;
 import com.wjp.waicodermotherbackend.utils.SpringContextUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.bsc.langgraph4j.action.AsyncNodeAction;
 import org.bsc.langgraph4j.prebuilt.MessagesState;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
 
@@ -64,6 +68,18 @@ public class CodeQualityCheckNode {
             ".html", ".htm", ".css", ".js", ".json", ".vue", ".ts", ".jsx", ".tsx"
     );
 
+    /**
+     * 不检查的目录
+     */
+    private static final Set<String> SKIPPED_DIRS = Set.of("node_modules", "dist", "target", ".git");
+
+    /**
+     * 代码文件遍历：跳过隐藏文件和非代码文件
+     */
+    private static final ProjectFileWalker CODE_FILE_WALKER = ProjectFileWalker.create()
+            .skipDirectories(SKIPPED_DIRS)
+            .filterFiles(name -> !name.startsWith(".") && isCodeFile(name));
+
     /**
      * 读取并拼接代码目录下的所有代码文件
      */
@@ -78,44 +94,28 @@ public class CodeQualityCheckNode {
         }
         StringBuilder codeContent = new StringBuilder();
         codeContent.append("# 项目文件结构和代码内容\n\n");
-        // 使用 Hutool 的 walkFiles 方法遍历所有文件
-        FileUtil.walkFiles(directory, file -> {
-            // 过滤条件：跳过隐藏文件、特定目录下的文件、非代码文件
-            if (shouldSkipFile(file, directory)) {
-                return;
-            }
-            if (isCodeFile(file)) {
-                String relativePath = FileUtil.subPath(directory.getAbsolutePath(), file.getAbsolutePath());
-                codeContent.append("## 文件: ").append(relativePath).append("\n\n");
-                String fileContent = FileUtil.readUtf8String(file);
-                codeContent.append(fileContent).append("\n\n");
-            }
-        });
-        return codeContent.toString();
-    }
-
-    /**
-     * 判断是否应该跳过此文件
-     */
-    private static boolean shouldSkipFile(File file, File rootDir) {
-        String relativePath = FileUtil.subPath(rootDir.getAbsolutePath(), file.getAbsolutePath());
-        // 跳过隐藏文件
-        if (file.getName().startsWith(".")) {
-            return true;
+        // 遍历代码文件：跳过隐藏文件、非代码文件，node_modules 等目录不进入
+        List<ProjectFile> codeFiles;
+        try {
+            codeFiles = CODE_FILE_WALKER.walk(directory.toPath());
+        } catch (IOException e) {
+            log.error("遍历代码目录失败: {}", codeDir, e);
+            return "";
         }
-        // 跳过特定目录下的文件
-        return relativePath.contains("node_modules" + File.separator) ||
-                relativePath.contains("dist" + File.separator) ||
-                relativePath.contains("target" + File.separator) ||
-                relativePath.contains(".git" + File.separator);
+        for (ProjectFile file : codeFiles) {
+            codeContent.append("## 文件: ").append(file.getRelativePath()).append("\n\n");
+            String fileContent = FileUtil.readUtf8String(file.getPath().toFile());
+            codeContent.append(fileContent).append("\n\n");
+        }
+        return codeContent.toString();
     }
 
     /**
      * 判断是否是需要检查的代码文件
      */
-    private static boolean isCodeFile(File file) {
-        String fileName = file.getName().toLowerCase();
-        return CODE_EXTENSIONS.stream().anyMatch(fileName::endsWith);
+    private static boolean isCodeFile(String fileName) {
+        String lowerName = fileName.toLowerCase();
+        return CODE_EXTENSIONS.stream().anyMatch(lowerName::endsWith);
     }
 
 
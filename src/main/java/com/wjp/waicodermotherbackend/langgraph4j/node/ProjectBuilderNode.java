@@ -1,6 +1,6 @@
 package com.wjp.waicodermotherbackend.langgraph4j.node;
 
-import com.wjp.waicodermotherbackend.core.builder.VueProjectBuilder;
+import com.wjp.waicodermotherbackend.core.builder.VueBuildScheduler;
 import com.wjp.waicodermotherbackend.exception.BusinessException;
 import com.wjp.waicodermotherbackend.exception.ErrorCode;
 import com.wjp.waicodermotherbackend.langgraph4j.state.WorkflowContext;
@@ -31,9 +31,9 @@ public class ProjectBuilderNode {
             String buildResultDir;
             // 一定是 Vue 项目类型：使用 VueProjectBuilder 进行构建
             try {
-                VueProjectBuilder vueBuilder = SpringContextUtil.getBean(VueProjectBuilder.class);
-                // 执行 Vue 项目构建（npm install + npm run build）
-                boolean buildSuccess = vueBuilder.buildProject(generatedCodeDir);
+                VueBuildScheduler vueBuildScheduler = SpringContextUtil.getBean(VueBuildScheduler.class);
+                // 执行 Vue 项目构建（npm install + npm run build，由构建调度器排队执行）
+                boolean buildSuccess = vueBuildScheduler.build(generatedCodeDir);
                 if (buildSuccess) {
                     // 构建成功，返回 dist 目录路径
                     buildResultDir = generatedCodeDir + File.separator + "dist";
@@ -0,0 +1,291 @@
+package com.wjp.waicodermotherbackend.manager;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.mybatisflex.core.keygen.KeyGeneratorFactory;
+import com.mybatisflex.core.keygen.KeyGenerators;
+import com.wjp.waicodermotherbackend.config.ChatHistoryWriteConfig;
+import com.wjp.waicodermotherbackend.mapper.ChatHistoryMapper;
+import com.wjp.waicodermotherbackend.model.entity.ChatHistory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 对话历史异步批量写入器（write-behind）
+ * 消息先进入内存队列，由后台线程按数量或定时合并成多行 INSERT 写入数据库，生成流程不再等待 MySQL。
+ *
+ * - 写库失败的批次追加到本地落盘文件（fsync），启动时自动重放
+ * - 停机时把队列中剩余的消息写完，写不进数据库的同样落盘
+ * - 读取对话历史前调用 {@link #flush()}，保证能读到刚提交的消息
+ */
+@Slf4j
+@Component
+public class ChatHistoryBatchWriter {
+
+    @Resource
+    private ChatHistoryWriteConfig chatHistoryWriteConfig;
+
+    @Resource
+    private ChatHistoryMapper chatHistoryMapper;
+
+    private BlockingQueue<ChatHistory> queue;
+
+    private Thread flusherThread;
+
+    private volatile boolean running = false;
+
+    /**
+     * 落盘文件锁
+     */
+    private final Object spillLock = new Object();
+
+    public ChatHistoryBatchWriter() {
+    }
+
+    /**
+     * 指定配置和 Mapper（测试用）
+     */
+    ChatHistoryBatchWriter(ChatHistoryWriteConfig chatHistoryWriteConfig, ChatHistoryMapper chatHistoryMapper) {
+        this.chatHistoryWriteConfig = chatHistoryWriteConfig;
+        this.chatHistoryMapper = chatHistoryMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!chatHistoryWriteConfig.isEnabled()) {
+            return;
+        }
+        queue = new LinkedBlockingQueue<>(chatHistoryWriteConfig.getQueueCapacity());
+        running = true;
+        flusherThread = Thread.ofVirtual().name("chat-history-writer").start(this::runFlusher);
+        log.info("对话历史异步批量写入已开启, batchSize={}, flushInterval={}",
+                chatHistoryWriteConfig.getBatchSize(), chatHistoryWriteConfig.getFlushInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusherThread);
+        try {
+            flusherThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 写完剩余的消息，失败的会落盘
+        flush();
+    }
+
+    /**
+     * 提交一条对话历史
+     * @param chatHistory 对话历史
+     * @return 是否已进入队列，false 表示未开启或队列已满，需要调用方同步写入
+     */
+    public boolean submit(ChatHistory chatHistory) {
+        if (!running) {
+            return false;
+        }
+        // 入队时确定 id 和时间，保证落盘重放时不重复、排序与提交顺序一致
+        LocalDateTime now = LocalDateTime.now();
+        if (chatHistory.getId() == null) {
+            chatHistory.setId((Long) KeyGeneratorFactory.getKeyGenerator(KeyGenerators.snowFlakeId).generate(chatHistory, "id"));
+        }
+        if (chatHistory.getCreateTime() == null) {
+            chatHistory.setCreateTime(now);
+        }
+        if (chatHistory.getUpdateTime() == null) {
+            chatHistory.setUpdateTime(chatHistory.getCreateTime());
+        }
+        if (chatHistory.getIsDelete() == null) {
+            chatHistory.setIsDelete(0);
+        }
+        if (!queue.offer(chatHistory)) {
+            log.warn("对话历史写入队列已满，退化为同步写入");
+            return false;
+        }
+        if (queue.size() >= chatHistoryWriteConfig.getBatchSize()) {
+            LockSupport.unpark(flusherThread);
+        }
+        return true;
+    }
+
+    /**
+     * 立即把队列中的消息全部写入数据库（失败则落盘）
+     */
+    public synchronized void flush() {
+        if (queue == null || queue.isEmpty()) {
+            return;
+        }
+        List<ChatHistory> pending = new ArrayList<>(queue.size());
+        queue.drainTo(pending);
+        writeBatches(pending);
+    }
+
+    private void runFlusher() {
+        replaySpillFile();
+        long intervalNanos = chatHistoryWriteConfig.getFlushInterval().toNanos();
+        while (running) {
+            if (queue.size() < chatHistoryWriteConfig.getBatchSize()) {
+                LockSupport.parkNanos(intervalNanos);
+            }
+            try {
+                flush();
+            } catch (Exception e) {
+                log.error("对话历史批量写入异常", e);
+            }
+        }
+    }
+
+    /**
+     * 按行数和字节数切分成多个 INSERT
+     */
+    private void writeBatches(List<ChatHistory> rows) {
+        int batchSize = chatHistoryWriteConfig.getBatchSize();
+        long maxBatchBytes = chatHistoryWriteConfig.getMaxBatchBytes();
+        List<ChatHistory> batch = new ArrayList<>(Math.min(rows.size(), batchSize));
+        long batchBytes = 0;
+        for (ChatHistory row : rows) {
+            // 按 UTF-8 最坏情况估算
+            long rowBytes = (long) row.getMessage().length() * 3;
+            if (!batch.isEmpty() && (batch.size() >= batchSize || batchBytes + rowBytes > maxBatchBytes)) {
+                writeBatch(batch);
+                batch = new ArrayList<>(batchSize);
+                batchBytes = 0;
+            }
+            batch.add(row);
+            batchBytes += rowBytes;
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<ChatHistory> batch) {
+        try {
+            chatHistoryMapper.insertBatch(batch);
+            log.debug("批量写入对话历史 {} 条", batch.size());
+        } catch (DuplicateKeyException e) {
+            // 重放的批次可能已经部分写入过，逐条写入并跳过重复的
+            List<ChatHistory> failed = new ArrayList<>();
+            for (ChatHistory row : batch) {
+                try {
+                    chatHistoryMapper.insert(row);
+                } catch (DuplicateKeyException ignored) {
+                    log.debug("对话历史已存在，跳过: {}", row.getId());
+                } catch (Exception ex) {
+                    failed.add(row);
+                }
+            }
+            if (!failed.isEmpty()) {
+                spill(failed);
+            }
+        } catch (Exception e) {
+            log.error("批量写入对话历史失败，落盘 {} 条: {}", batch.size(), e.getMessage());
+            spill(batch);
+        }
+    }
+
+    /**
+     * 追加写入落盘文件（每行一条 JSON）并 fsync
+     */
+    private void spill(List<ChatHistory> rows) {
+        StringBuilder builder = new StringBuilder();
+        for (ChatHistory row : rows) {
+            JSONObject json = new JSONObject();
+            json.set("id", row.getId());
+            json.set("message", row.getMessage());
+            json.set("messageType", row.getMessageType());
+            json.set("appId", row.getAppId());
+            json.set("parentId", row.getParentId());
+            json.set("userId", row.getUserId());
+            json.set("createTime", row.getCreateTime().toString());
+            builder.append(json).append('\n');
+        }
+        synchronized (spillLock) {
+            Path spillPath = Path.of(chatHistoryWriteConfig.getSpillFile());
+            FileUtil.mkParentDirs(spillPath.toFile());
+            try (FileChannel channel = FileChannel.open(spillPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            } catch (IOException e) {
+                log.error("对话历史落盘失败，丢失 {} 条", rows.size(), e);
+            }
+        }
+    }
+
+    /**
+     * 重放上次未写入数据库的对话历史
+     */
+    private void replaySpillFile() {
+        Path spillPath = Path.of(chatHistoryWriteConfig.getSpillFile());
+        Path replayPath = Path.of(chatHistoryWriteConfig.getSpillFile() + ".replay");
+        try {
+            synchronized (spillLock) {
+                // 上次重放中断时 replay 文件还在，先处理它
+                if (!Files.exists(replayPath)) {
+                    if (!Files.exists(spillPath)) {
+                        return;
+                    }
+                    Files.move(spillPath, replayPath, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            List<ChatHistory> rows = new ArrayList<>();
+            for (String line : Files.readAllLines(replayPath, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JSONObject json = JSONUtil.parseObj(line);
+                    LocalDateTime createTime = LocalDateTime.parse(json.getStr("createTime"));
+                    rows.add(ChatHistory.builder()
+                            .id(json.getLong("id"))
+                            .message(json.getStr("message"))
+                            .messageType(json.getStr("messageType"))
+                            .appId(json.getLong("appId"))
+                            .parentId(json.getLong("parentId"))
+                            .userId(json.getLong("userId"))
+                            .createTime(createTime)
+                            .updateTime(createTime)
+                            .isDelete(0)
+                            .build());
+                } catch (Exception e) {
+                    // 停机时写了一半的行
+                    log.warn("跳过无法解析的落盘记录: {}", line);
+                }
+            }
+            log.info("重放落盘的对话历史 {} 条", rows.size());
+            // 写入失败的会重新落盘到 spillFile
+            writeBatches(rows);
+            Files.delete(replayPath);
+        } catch (IOException e) {
+            log.error("重放对话历史落盘文件失败: {}", replayPath, e);
+        }
+    }
+}
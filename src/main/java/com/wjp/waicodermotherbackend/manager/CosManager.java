@@ -1,6 +1,7 @@
 package com.wjp.waicodermotherbackend.manager;
 
 import com.qcloud.cos.COSClient;
+import com.qcloud.cos.model.ObjectMetadata;
 import com.qcloud.cos.model.PutObjectRequest;
 import com.qcloud.cos.model.PutObjectResult;
 import com.wjp.waicodermotherbackend.config.CosClientConfig;
@@ -9,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
+import java.io.InputStream;
 
 /**
  * COS对象存储管理器
@@ -55,4 +57,30 @@ public class CosManager {
         }
     }
 
+    /**
+     * 从内存上传到 COS 并返回访问 URL（不经过本地文件）
+     *
+     * @param key           COS对象键（完整路径）
+     * @param inputStream   内容
+     * @param contentLength 内容长度
+     * @param contentType   内容类型
+     * @return 文件的访问URL，失败返回null
+     */
+    public String uploadStream(String key, InputStream inputStream, long contentLength, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        // 指定长度后 SDK 直接流式上传，不需要先把内容缓存到内存里计算长度
+        metadata.setContentLength(contentLength);
+        metadata.setContentType(contentType);
+        PutObjectRequest putObjectRequest = new PutObjectRequest(cosClientConfig.getBucket(), key, inputStream, metadata);
+        PutObjectResult result = cosClient.putObject(putObjectRequest);
+        if(result != null) {
+            String url = String.format("%s%s", cosClientConfig.getHost(), key);
+            log.info("内容上传到 COS 成功: {} 字节 -> {}", contentLength, url);
+            return url;
+        } else {
+            log.error("内容上传到 COS 失败: {}", key);
+            return null;
+        }
+    }
+
 }
@@ -0,0 +1,161 @@
+package com.wjp.waicodermotherbackend.manager.archive;
+
+import cn.hutool.core.io.FileUtil;
+import com.wjp.waicodermotherbackend.config.ProjectArchiveConfig;
+import com.wjp.waicodermotherbackend.exception.BusinessException;
+import com.wjp.waicodermotherbackend.exception.ErrorCode;
+import com.wjp.waicodermotherbackend.utils.ContentDigestUtils;
+import com.wjp.waicodermotherbackend.utils.ParallelZipUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 项目压缩包缓存
+ * 以项目文件内容摘要为键缓存 zip 文件，项目内容不变时重复下载直接使用已有的压缩包。
+ *
+ * - 压缩包用 {@link ParallelZipUtils} 在多个线程上并行压缩生成，先写临时文件再重命名
+ * - 同一项目同时只生成一个压缩包，并发下载等待生成完成后共用
+ * - 项目内容变化生成新压缩包后，删除该项目旧的压缩包
+ */
+@Slf4j
+@Component
+public class ProjectArchiveManager {
+
+    private static final int LOCK_STRIPES = 64;
+
+    @Resource
+    private ProjectArchiveConfig projectArchiveConfig;
+
+    private ExecutorService executor;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public ProjectArchiveManager() {
+    }
+
+    /**
+     * 指定配置（测试用）
+     */
+    ProjectArchiveManager(ProjectArchiveConfig projectArchiveConfig) {
+        this.projectArchiveConfig = projectArchiveConfig;
+        init();
+    }
+
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        // 压缩是 CPU 密集型任务，使用固定数量的平台线程
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, projectArchiveConfig.getParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "project-archive-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 获取项目压缩包，内容变化或不存在时重新生成
+     * @param projectDir 项目目录
+     * @param files 要打包的文件（按压缩包中的顺序）
+     * @return 压缩包（已打开，使用后需要关闭）
+     */
+    public ProjectArchive getArchive(Path projectDir, List<Path> files) {
+        String digest = ContentDigestUtils.digestFiles(projectDir, files);
+        Path archiveDir = Path.of(projectArchiveConfig.getCacheDir(), projectDir.getFileName().toString());
+        Path archive = archiveDir.resolve(digest + ".zip");
+        ReentrantLock lock = locks[Math.floorMod(archiveDir.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            // 在锁内打开：其他请求为新内容生成压缩包时会删除旧压缩包，已打开的文件不受影响
+            if (Files.isRegularFile(archive)) {
+                return new ProjectArchive(archive.toFile(), digest, FileChannel.open(archive, StandardOpenOption.READ));
+            }
+            long start = System.currentTimeMillis();
+            Files.createDirectories(archiveDir);
+            Path temp = archiveDir.resolve(digest + ".zip.tmp");
+            try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                ParallelZipUtils.zip(projectDir, files, outputStream, executor, projectArchiveConfig.getCompressionLevel());
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteStaleArchives(archiveDir, archive);
+            log.info("生成项目压缩包: {}, 文件 {} 个, 大小 {} 字节, 耗时 {} ms",
+                    projectDir, files.size(), Files.size(archive), System.currentTimeMillis() - start);
+            return new ProjectArchive(archive.toFile(), digest, FileChannel.open(archive, StandardOpenOption.READ));
+        } catch (IOException e) {
+            log.error("生成项目压缩包失败: {}", projectDir, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "项目打包异常");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 删除项目旧内容的压缩包（调用方需持有锁；正在下载的压缩包在锁内已打开，删除不影响读取）
+     */
+    private void deleteStaleArchives(Path archiveDir, Path current) {
+        File[] archives = archiveDir.toFile().listFiles();
+        if (archives == null) {
+            return;
+        }
+        for (File archive : archives) {
+            if (!archive.toPath().equals(current)) {
+                FileUtil.del(archive);
+            }
+        }
+    }
+
+    /**
+     * 项目压缩包
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ProjectArchive implements Closeable {
+
+        private final File file;
+
+        /**
+         * 项目内容摘要，也用作 ETag
+         */
+        private final String digest;
+
+        /**
+         * 已打开的压缩包文件，即使之后被删除也可以完整读取
+         */
+        private final FileChannel channel;
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
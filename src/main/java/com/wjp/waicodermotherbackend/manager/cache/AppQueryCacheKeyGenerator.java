@@ -0,0 +1,139 @@
+package com.wjp.waicodermotherbackend.manager.cache;
+
+import com.wjp.waicodermotherbackend.model.dto.app.AppQueryRequest;
+import com.wjp.waicodermotherbackend.utils.CacheKeyUtils;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * 应用查询请求的缓存 key 生成器
+ * 直接对 {@link AppQueryRequest} 的字段值计算 128 位哈希（两路 64 位），不经过 JSON 序列化，
+ * 除最终的 32 位十六进制字符串外不产生中间对象。
+ *
+ * 每个字段按 “是否为 null + 长度 + 内容” 写入哈希，保证 null 与空串、字段边界不会混淆。
+ * 哈希算法固定、与进程无关，多个节点生成的 key 一致，可以共享 Redis 缓存。
+ */
+@Component("appQueryCacheKeyGenerator")
+public class AppQueryCacheKeyGenerator implements KeyGenerator {
+
+    private static final long SEED_1 = 0x9E3779B97F4A7C15L;
+
+    private static final long SEED_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private static final long MULTIPLIER_1 = 0x100000001B3L;
+
+    private static final long MULTIPLIER_2 = 0xFF51AFD7ED558CCDL;
+
+    private static final long NULL_MARKER = 0x6A09E667F3BCC909L;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        if (params.length == 1 && params[0] instanceof AppQueryRequest appQueryRequest) {
+            return generateKey(appQueryRequest);
+        }
+        return CacheKeyUtils.generateKey(params);
+    }
+
+    /**
+     * 生成应用查询请求的缓存 key
+     * @param request 查询请求
+     * @return 32 位十六进制字符串
+     */
+    public static String generateKey(AppQueryRequest request) {
+        Hasher hasher = new Hasher();
+        hasher.putLong(request.getId());
+        hasher.putString(request.getAppName());
+        hasher.putString(request.getCover());
+        hasher.putString(request.getInitPrompt());
+        hasher.putString(request.getCodeGenType());
+        hasher.putString(request.getDeployKey());
+        hasher.putInteger(request.getPriority());
+        hasher.putLong(request.getUserId());
+        hasher.putInt(request.getPageNum());
+        hasher.putInt(request.getPageSize());
+        hasher.putString(request.getSortField());
+        hasher.putString(request.getSortOrder());
+        return hasher.toHex();
+    }
+
+    /**
+     * 两路 64 位哈希状态（栈上对象，逃逸分析后不分配）
+     */
+    private static final class Hasher {
+
+        private long h1 = SEED_1;
+
+        private long h2 = SEED_2;
+
+        void putLong(Long value) {
+            if (value == null) {
+                mix(NULL_MARKER);
+                return;
+            }
+            mix(1);
+            mix(value);
+        }
+
+        void putInteger(Integer value) {
+            if (value == null) {
+                mix(NULL_MARKER);
+                return;
+            }
+            putInt(value);
+        }
+
+        void putInt(int value) {
+            mix(1);
+            mix(value);
+        }
+
+        void putString(String value) {
+            if (value == null) {
+                mix(NULL_MARKER);
+                return;
+            }
+            int length = value.length();
+            mix(((long) length << 1) | 1);
+            for (int i = 0; i < length; i++) {
+                mix(value.charAt(i));
+            }
+        }
+
+        private void mix(long value) {
+            h1 = (h1 ^ value) * MULTIPLIER_1;
+            h2 = Long.rotateLeft(h2 + value * MULTIPLIER_2, 31) * SEED_1;
+        }
+
+        String toHex() {
+            long a = fmix64(h1 ^ h2);
+            long b = fmix64(h2 + a);
+            char[] chars = new char[32];
+            writeHex(chars, 0, a);
+            writeHex(chars, 16, b);
+            return new String(chars);
+        }
+
+        private static void writeHex(char[] chars, int offset, long value) {
+            for (int i = 15; i >= 0; i--) {
+                chars[offset + i] = HEX_DIGITS[(int) (value & 0xF)];
+                value >>>= 4;
+            }
+        }
+
+        /**
+         * MurmurHash3 的 64 位终结混合
+         */
+        private static long fmix64(long k) {
+            k ^= k >>> 33;
+            k *= 0xFF51AFD7ED558CCDL;
+            k ^= k >>> 33;
+            k *= 0xC4CEB9FE1A85EC53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
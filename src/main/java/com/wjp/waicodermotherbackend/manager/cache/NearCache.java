@@ -0,0 +1,139 @@
+package com.wjp.waicodermotherbackend.manager.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 二级缓存: 本地 Caffeine（一级） + Redis（二级）
+ * 读取先查本地，未命中再查 Redis 并回填本地；写入、删除同时作用于两级，
+ * 删除/清空时通过 invalidationPublisher 通知其他节点清理本地缓存。
+ *
+ * 不缓存 null 值（与 Redis 缓存配置保持一致）。
+ */
+@Slf4j
+public class NearCache implements Cache {
+
+    private final Cache remoteCache;
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache;
+
+    /**
+     * 发布失效通知（参数为缓存名称）
+     */
+    private final Consumer<String> invalidationPublisher;
+
+    /**
+     * 本地缓存代数，每次失效加一；从 Redis 读到的值只有在读取期间没有失效才回填本地，
+     * 避免失效通知先于回填到达导致旧值留在本地
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public NearCache(Cache remoteCache, long localMaximumSize, Duration localTtl, Consumer<String> invalidationPublisher) {
+        this.remoteCache = remoteCache;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return remoteCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = localCache.getIfPresent(key);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        long currentGeneration = generation.get();
+        ValueWrapper wrapper = remoteCache.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            putLocal(key, wrapper.get(), currentGeneration);
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("缓存值类型不匹配: " + type.getName());
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        long currentGeneration = generation.get();
+        T value = remoteCache.get(key, valueLoader);
+        if (value != null) {
+            putLocal(key, value, currentGeneration);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        long currentGeneration = generation.get();
+        remoteCache.put(key, value);
+        if (value != null) {
+            putLocal(key, value, currentGeneration);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        invalidateLocal();
+        invalidationPublisher.accept(getName());
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        invalidateLocal();
+        invalidationPublisher.accept(getName());
+    }
+
+    /**
+     * 仅清理本地缓存（收到其他节点的失效通知时调用）
+     */
+    public void invalidateLocal() {
+        generation.incrementAndGet();
+        localCache.invalidateAll();
+        log.debug("清理本地缓存: {}", getName());
+    }
+
+    private void putLocal(Object key, Object value, long expectedGeneration) {
+        if (generation.get() != expectedGeneration) {
+            return;
+        }
+        localCache.put(key, value);
+        // 写入期间发生了失效，撤销本次写入
+        if (generation.get() != expectedGeneration) {
+            localCache.invalidate(key);
+        }
+    }
+}
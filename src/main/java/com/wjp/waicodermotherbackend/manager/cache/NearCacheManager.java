@@ -0,0 +1,73 @@
+package com.wjp.waicodermotherbackend.manager.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 二级缓存管理器
+ * 指定名称的缓存在 Redis 缓存前加一层本地 Caffeine 缓存（{@link NearCache}），其他缓存直接使用 Redis。
+ * 同时作为 Redis 频道的监听器，收到失效通知后清理本节点的本地缓存。
+ */
+public class NearCacheManager implements CacheManager, MessageListener {
+
+    /**
+     * 失效通知频道
+     */
+    public static final String INVALIDATION_CHANNEL = "near_cache:invalidate";
+
+    private final CacheManager remoteCacheManager;
+
+    private final Set<String> nearCacheNames;
+
+    private final long localMaximumSize;
+
+    private final Duration localTtl;
+
+    private final Consumer<String> invalidationPublisher;
+
+    private final Map<String, NearCache> nearCaches = new ConcurrentHashMap<>();
+
+    public NearCacheManager(CacheManager remoteCacheManager, Set<String> nearCacheNames,
+                            long localMaximumSize, Duration localTtl, Consumer<String> invalidationPublisher) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.nearCacheNames = nearCacheNames;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!nearCacheNames.contains(name)) {
+            return remoteCacheManager.getCache(name);
+        }
+        return nearCaches.computeIfAbsent(name, key -> {
+            Cache remoteCache = remoteCacheManager.getCache(key);
+            return new NearCache(remoteCache, localMaximumSize, localTtl, invalidationPublisher);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String cacheName = new String(message.getBody(), StandardCharsets.UTF_8);
+        NearCache nearCache = nearCaches.get(cacheName);
+        if (nearCache != null) {
+            nearCache.invalidateLocal();
+        }
+    }
+}
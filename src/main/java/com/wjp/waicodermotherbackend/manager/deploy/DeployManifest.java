@@ -0,0 +1,66 @@
+package com.wjp.waicodermotherbackend.manager.deploy;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 部署版本清单
+ * 记录一个版本包含的文件及其内容摘要，文件内容保存在内容寻址存储中
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeployManifest {
+
+    /**
+     * 部署标识
+     */
+    private String deployKey;
+
+    /**
+     * 版本号
+     */
+    private Integer version;
+
+    /**
+     * 整个版本的内容摘要（与 ContentDigestUtils.digestDirectory 一致）
+     */
+    private String digest;
+
+    /**
+     * 创建时间戳（毫秒）
+     */
+    private Long createTime;
+
+    /**
+     * 文件列表
+     */
+    private List<Entry> files;
+
+    /**
+     * 清单中的一个文件
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+
+        /**
+         * 相对版本根目录的路径（使用 / 分隔）
+         */
+        private String path;
+
+        /**
+         * 文件内容 SHA-256
+         */
+        private String hash;
+
+        /**
+         * 文件大小（字节）
+         */
+        private Long size;
+    }
+}
@@ -0,0 +1,366 @@
+package com.wjp.waicodermotherbackend.manager.deploy;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.json.JSONUtil;
+import com.wjp.waicodermotherbackend.config.DeployStoreConfig;
+import com.wjp.waicodermotherbackend.constant.AppConstant;
+import com.wjp.waicodermotherbackend.exception.BusinessException;
+import com.wjp.waicodermotherbackend.exception.ErrorCode;
+import com.wjp.waicodermotherbackend.utils.ContentDigestUtils;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 部署内容存储（内容寻址）
+ * 文件内容按 SHA-256 保存一份（blobs/ab/abcdef...），每个部署版本是一份清单（manifests/{deployKey}/V{n}.json）
+ * 加上部署目录中指向这些内容的硬链接。部署目录结构不变，仍然是 {部署根目录}/{deployKey}/V{n}。
+ *
+ * - 部署时只复制新内容，未变化的文件直接硬链接，耗时和占用空间与变化的文件数成正比
+ * - 回滚时版本目录还在则直接使用，已被清理则按清单重新链接
+ * - 清理: 每个应用只保留最近若干个版本目录和更多的版本清单；没有任何清单引用的内容定期删除
+ * - 不支持硬链接（例如跨文件系统）时退化为复制
+ *
+ * 部署目录中的文件与存储中的内容是同一份数据，不能原地修改。
+ */
+@Slf4j
+@Component
+public class DeploymentStore {
+
+    private static final Pattern VERSION_PATTERN = Pattern.compile("V(\\d+)(\\.json)?");
+
+    @Resource
+    private DeployStoreConfig deployStoreConfig;
+
+    /**
+     * 部署根目录
+     */
+    private final String deployRoot;
+
+    /**
+     * 部署、回滚持有读锁，清理无引用内容时持有写锁，避免删除正在被链接的内容
+     */
+    private final ReadWriteLock gcLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong lastGcTime = new AtomicLong(System.currentTimeMillis());
+
+    public DeploymentStore() {
+        this.deployRoot = AppConstant.CODE_DEPLOY_ROOT_DIR;
+    }
+
+    /**
+     * 指定配置和部署根目录（测试用）
+     */
+    DeploymentStore(DeployStoreConfig deployStoreConfig, String deployRoot) {
+        this.deployStoreConfig = deployStoreConfig;
+        this.deployRoot = deployRoot;
+    }
+
+    /**
+     * 是否开启内容寻址存储
+     */
+    public boolean isEnabled() {
+        return deployStoreConfig.isEnabled();
+    }
+
+    /**
+     * 部署一个新版本
+     * @param deployKey 部署标识
+     * @param version 版本号
+     * @param sourceDir 要部署的目录
+     * @return 版本清单
+     */
+    public DeployManifest deploy(String deployKey, int version, File sourceDir) {
+        Path source = sourceDir.toPath();
+        gcLock.readLock().lock();
+        try {
+            List<Path> files;
+            try (Stream<Path> stream = Files.walk(source)) {
+                files = stream.filter(Files::isRegularFile).sorted().toList();
+            }
+            List<DeployManifest.Entry> entries = new ArrayList<>(files.size());
+            int added = 0;
+            for (Path file : files) {
+                String hash = ContentDigestUtils.digestFile(file);
+                if (storeBlob(file, hash)) {
+                    added++;
+                }
+                String relativePath = source.relativize(file).toString().replace('\\', '/');
+                entries.add(new DeployManifest.Entry(relativePath, hash, Files.size(file)));
+            }
+            Path versionDir = materialize(deployKey, version, entries);
+            String digest = ContentDigestUtils.digestDirectory(versionDir);
+            DeployManifest manifest = new DeployManifest(deployKey, version, digest, System.currentTimeMillis(), entries);
+            writeManifest(manifest);
+            log.info("部署版本 {}/V{} 完成: 共 {} 个文件，新增内容 {} 个", deployKey, version, entries.size(), added);
+            return manifest;
+        } catch (IOException e) {
+            log.error("部署失败: {}/V{}", deployKey, version, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "部署失败: " + e.getMessage());
+        } finally {
+            gcLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 确保指定版本可以访问（用于回滚）
+     * @param deployKey 部署标识
+     * @param version 版本号
+     * @return 版本清单，版本不存在时返回 null
+     */
+    public DeployManifest restore(String deployKey, int version) {
+        DeployManifest manifest = readManifest(deployKey, version);
+        if (manifest == null) {
+            return null;
+        }
+        Path versionDir = getVersionDir(deployKey, version);
+        if (Files.isDirectory(versionDir)) {
+            return manifest;
+        }
+        gcLock.readLock().lock();
+        try {
+            for (DeployManifest.Entry entry : manifest.getFiles()) {
+                if (!Files.isRegularFile(getBlobPath(entry.getHash()))) {
+                    log.error("版本 {}/V{} 的内容已丢失: {}", deployKey, version, entry.getPath());
+                    return null;
+                }
+            }
+            materialize(deployKey, version, manifest.getFiles());
+            log.info("已按清单恢复版本 {}/V{}", deployKey, version);
+            return manifest;
+        } catch (IOException e) {
+            log.error("恢复版本失败: {}/V{}", deployKey, version, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "恢复版本失败: " + e.getMessage());
+        } finally {
+            gcLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 已有的最大版本号（包括版本目录和清单），没有时返回 0
+     * @param deployKey 部署标识
+     */
+    public int getLatestVersion(String deployKey) {
+        NavigableSet<Integer> versions = listVersions(deployKey);
+        return versions.isEmpty() ? 0 : versions.last();
+    }
+
+    /**
+     * 清理旧版本（当前使用的版本始终保留）
+     * 最近 keepVersions 个版本保留版本目录；更早的版本只删除版本目录，清单保留到 keepManifests 个，
+     * 回滚到这些版本时按清单重新链接；再早的版本连同清单一起删除
+     * @param deployKey 部署标识
+     * @param activeVersion 当前使用的版本
+     */
+    public void prune(String deployKey, int activeVersion) {
+        int keepVersions = deployStoreConfig.getKeepVersions();
+        int keepManifests = Math.max(keepVersions, deployStoreConfig.getKeepManifests());
+        List<Integer> versions = new ArrayList<>(listVersions(deployKey).descendingSet());
+        for (int i = keepVersions; i < versions.size(); i++) {
+            int version = versions.get(i);
+            if (version == activeVersion) {
+                continue;
+            }
+            Path versionDir = getVersionDir(deployKey, version);
+            if (Files.exists(versionDir)) {
+                FileUtil.del(versionDir);
+                log.info("清理旧部署版本目录: {}/V{}", deployKey, version);
+            }
+            if (i >= keepManifests && Files.exists(getManifestPath(deployKey, version))) {
+                FileUtil.del(getManifestPath(deployKey, version));
+                log.info("清理旧部署版本清单: {}/V{}", deployKey, version);
+            }
+        }
+    }
+
+    /**
+     * 距离上次清理超过间隔时，异步清理无引用的内容
+     */
+    public void collectGarbageAsync() {
+        long now = System.currentTimeMillis();
+        long last = lastGcTime.get();
+        if (now - last < deployStoreConfig.getGcInterval().toMillis() || !lastGcTime.compareAndSet(last, now)) {
+            return;
+        }
+        Thread.ofVirtual().name("deploy-store-gc").start(() -> {
+            try {
+                collectGarbage();
+            } catch (Exception e) {
+                log.error("清理部署存储失败", e);
+            }
+        });
+    }
+
+    /**
+     * 删除没有被任何清单引用的内容
+     * @return 删除的内容数
+     */
+    public int collectGarbage() {
+        gcLock.writeLock().lock();
+        try {
+            Set<String> referenced = new HashSet<>();
+            Path manifestsDir = Path.of(deployStoreConfig.getStoreDir(), "manifests");
+            if (Files.isDirectory(manifestsDir)) {
+                try (Stream<Path> stream = Files.walk(manifestsDir)) {
+                    for (Path path : stream.filter(path -> path.getFileName().toString().endsWith(".json")).toList()) {
+                        DeployManifest manifest = JSONUtil.toBean(Files.readString(path), DeployManifest.class);
+                        manifest.getFiles().forEach(entry -> referenced.add(entry.getHash()));
+                    }
+                }
+            }
+            int removed = 0;
+            Path blobsDir = Path.of(deployStoreConfig.getStoreDir(), "blobs");
+            if (Files.isDirectory(blobsDir)) {
+                try (Stream<Path> stream = Files.walk(blobsDir)) {
+                    for (Path blob : stream.filter(Files::isRegularFile).toList()) {
+                        if (!referenced.contains(blob.getFileName().toString())) {
+                            Files.deleteIfExists(blob);
+                            removed++;
+                        }
+                    }
+                }
+            }
+            log.info("部署存储清理完成: 引用内容 {} 个，删除无引用内容 {} 个", referenced.size(), removed);
+            return removed;
+        } catch (IOException e) {
+            log.error("清理部署存储失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "清理部署存储失败");
+        } finally {
+            gcLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 保存文件内容，已存在时跳过
+     * @return 是否新增了内容
+     */
+    private boolean storeBlob(Path file, String hash) throws IOException {
+        Path blob = getBlobPath(hash);
+        if (Files.isRegularFile(blob)) {
+            return false;
+        }
+        Files.createDirectories(blob.getParent());
+        // 先写临时文件再原子重命名，并发部署相同内容时不会读到写了一半的文件
+        Path temp = blob.resolveSibling(hash + ".tmp-" + UUID.randomUUID());
+        Files.copy(file, temp);
+        try {
+            Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 在临时目录中链接出版本目录，完成后原子重命名，不会对外提供不完整的版本
+     */
+    private Path materialize(String deployKey, int version, List<DeployManifest.Entry> entries) throws IOException {
+        Path versionDir = getVersionDir(deployKey, version);
+        Path staging = versionDir.resolveSibling(versionDir.getFileName() + ".tmp-" + UUID.randomUUID());
+        try {
+            Files.createDirectories(staging);
+            for (DeployManifest.Entry entry : entries) {
+                Path target = staging.resolve(entry.getPath()).normalize();
+                if (!target.startsWith(staging)) {
+                    throw new IOException("非法路径: " + entry.getPath());
+                }
+                Files.createDirectories(target.getParent());
+                link(getBlobPath(entry.getHash()), target);
+            }
+            if (Files.exists(versionDir)) {
+                FileUtil.del(versionDir);
+            }
+            Files.move(staging, versionDir, StandardCopyOption.ATOMIC_MOVE);
+            return versionDir;
+        } finally {
+            if (Files.exists(staging)) {
+                FileUtil.del(staging);
+            }
+        }
+    }
+
+    private void link(Path blob, Path target) throws IOException {
+        try {
+            Files.createLink(target, blob);
+        } catch (UnsupportedOperationException | IOException e) {
+            // 跨文件系统等情况不支持硬链接
+            Files.copy(blob, target);
+        }
+    }
+
+    private void writeManifest(DeployManifest manifest) throws IOException {
+        Path path = getManifestPath(manifest.getDeployKey(), manifest.getVersion());
+        Files.createDirectories(path.getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp-" + UUID.randomUUID());
+        Files.writeString(temp, JSONUtil.toJsonStr(manifest), StandardCharsets.UTF_8);
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private DeployManifest readManifest(String deployKey, int version) {
+        Path path = getManifestPath(deployKey, version);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            return JSONUtil.toBean(Files.readString(path, StandardCharsets.UTF_8), DeployManifest.class);
+        } catch (IOException e) {
+            log.error("读取版本清单失败: {}", path, e);
+            return null;
+        }
+    }
+
+    private NavigableSet<Integer> listVersions(String deployKey) {
+        NavigableSet<Integer> versions = new TreeSet<>();
+        collectVersions(new File(deployRoot, deployKey), versions);
+        collectVersions(getManifestPath(deployKey, 0).getParent().toFile(), versions);
+        return versions;
+    }
+
+    private void collectVersions(File dir, Set<Integer> versions) {
+        String[] names = dir.list();
+        if (names == null) {
+            return;
+        }
+        for (String name : names) {
+            Matcher matcher = VERSION_PATTERN.matcher(name);
+            if (matcher.matches()) {
+                versions.add(Integer.parseInt(matcher.group(1)));
+            }
+        }
+    }
+
+    private Path getVersionDir(String deployKey, int version) {
+        return Path.of(deployRoot, deployKey, "V" + version);
+    }
+
+    private Path getManifestPath(String deployKey, int version) {
+        return Path.of(deployStoreConfig.getStoreDir(), "manifests", deployKey, "V" + version + ".json");
+    }
+
+    private Path getBlobPath(String hash) {
+        return Path.of(deployStoreConfig.getStoreDir(), "blobs", hash.substring(0, 2), hash);
+    }
+}
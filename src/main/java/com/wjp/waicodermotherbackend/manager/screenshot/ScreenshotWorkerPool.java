@@ -0,0 +1,302 @@
+package com.wjp.waicodermotherbackend.manager.screenshot;
+
+import com.wjp.waicodermotherbackend.config.ScreenshotPoolConfig;
+import com.wjp.waicodermotherbackend.exception.BusinessException;
+import com.wjp.waicodermotherbackend.exception.ErrorCode;
+import com.wjp.waicodermotherbackend.utils.WebScreenshotUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * 截图浏览器池
+ * 固定数量的工作线程，每个线程独占一个 headless Chrome 实例，从有界队列中获取截图任务。
+ *
+ * - 队列满时拒绝新任务（背压），调用方收到 {@link ErrorCode#TOO_MANY_REQUEST}
+ * - 同一 URL 的任务在排队期间只截图一次，重复提交共享结果
+ * - 每次截图前检查浏览器是否可用，截图失败或达到页面数上限时重建浏览器
+ * - 记录排队等待时间、截图耗时等指标
+ */
+@Slf4j
+@Component
+public class ScreenshotWorkerPool {
+
+    @Resource
+    private ScreenshotPoolConfig screenshotPoolConfig;
+
+    /**
+     * 创建浏览器实例
+     */
+    private Supplier<WebDriver> driverFactory;
+
+    /**
+     * 使用浏览器截图，返回图片字节
+     */
+    private BiFunction<WebDriver, String, byte[]> capturer;
+
+    private BlockingQueue<ScreenshotJob> queue;
+
+    /**
+     * 排队中（尚未开始截图）的任务，用于按 URL 去重
+     */
+    private final Map<String, ScreenshotJob> pendingJobs = new ConcurrentHashMap<>();
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running = false;
+
+    // 指标
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder deduplicatedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder succeededCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder driverCreatedCount = new LongAdder();
+    private final LongAdder driverRecycledCount = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAccumulator maxQueueWaitNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder captureNanos = new LongAdder();
+    private final LongAccumulator maxCaptureNanos = new LongAccumulator(Long::max, 0);
+
+    public ScreenshotWorkerPool() {
+    }
+
+    /**
+     * 指定浏览器创建和截图方式（测试用）
+     */
+    ScreenshotWorkerPool(ScreenshotPoolConfig screenshotPoolConfig, Supplier<WebDriver> driverFactory,
+                         BiFunction<WebDriver, String, byte[]> capturer) {
+        this.screenshotPoolConfig = screenshotPoolConfig;
+        this.driverFactory = driverFactory;
+        this.capturer = capturer;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (driverFactory == null) {
+            driverFactory = () -> WebScreenshotUtils.initChromeDriver(
+                    screenshotPoolConfig.getWindowWidth(), screenshotPoolConfig.getWindowHeight());
+        }
+        if (capturer == null) {
+            capturer = WebScreenshotUtils::captureScreenshot;
+        }
+        queue = new ArrayBlockingQueue<>(screenshotPoolConfig.getQueueCapacity());
+        running = true;
+        for (int i = 0; i < screenshotPoolConfig.getSize(); i++) {
+            Thread worker = Thread.ofPlatform()
+                    .name("screenshot-worker-" + i)
+                    .daemon(true)
+                    .start(this::runWorker);
+            workers.add(worker);
+        }
+        log.info("截图浏览器池已启动, size={}, queueCapacity={}", screenshotPoolConfig.getSize(), screenshotPoolConfig.getQueueCapacity());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        ScreenshotJob job;
+        while ((job = queue.poll()) != null) {
+            job.future.completeExceptionally(new BusinessException(ErrorCode.SYSTEM_ERROR, "截图服务已关闭"));
+        }
+    }
+
+    /**
+     * 提交截图任务
+     * @param webUrl 网页地址
+     * @return 截图结果（PNG 字节）
+     */
+    public CompletableFuture<byte[]> submit(String webUrl) {
+        submittedCount.increment();
+        ScreenshotJob job = pendingJobs.compute(webUrl, (url, existing) -> {
+            if (existing != null) {
+                deduplicatedCount.increment();
+                return existing;
+            }
+            ScreenshotJob newJob = new ScreenshotJob(url);
+            return queue.offer(newJob) ? newJob : null;
+        });
+        if (job == null) {
+            rejectedCount.increment();
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUEST, "截图任务过多，请稍后重试");
+        }
+        return job.future;
+    }
+
+    /**
+     * 截图并等待结果
+     * @param webUrl 网页地址
+     * @return 截图结果（PNG 字节）
+     */
+    public byte[] capture(String webUrl) {
+        CompletableFuture<byte[]> future = submit(webUrl);
+        try {
+            return future.get(screenshotPoolConfig.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "网页截图被中断");
+        } catch (TimeoutException e) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "网页截图超时");
+        } catch (ExecutionException e) {
+            log.error("网页截图失败: {}", webUrl, e.getCause());
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "网页截图失败");
+        }
+    }
+
+    /**
+     * 获取指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        long succeeded = succeededCount.sum();
+        long finished = succeeded + failedCount.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("poolSize", screenshotPoolConfig.getSize());
+        metrics.put("queueSize", queue == null ? 0 : queue.size());
+        metrics.put("submitted", submittedCount.sum());
+        metrics.put("deduplicated", deduplicatedCount.sum());
+        metrics.put("rejected", rejectedCount.sum());
+        metrics.put("succeeded", succeeded);
+        metrics.put("failed", failedCount.sum());
+        metrics.put("driverCreated", driverCreatedCount.sum());
+        metrics.put("driverRecycled", driverRecycledCount.sum());
+        metrics.put("avgQueueWaitMs", finished == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(queueWaitNanos.sum() / finished));
+        metrics.put("maxQueueWaitMs", TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos.get()));
+        metrics.put("avgCaptureMs", succeeded == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(captureNanos.sum() / succeeded));
+        metrics.put("maxCaptureMs", TimeUnit.NANOSECONDS.toMillis(maxCaptureNanos.get()));
+        return metrics;
+    }
+
+    private void runWorker() {
+        WebDriver driver = null;
+        int pages = 0;
+        if (screenshotPoolConfig.isPrewarm()) {
+            driver = createDriver();
+        }
+        try {
+            while (running) {
+                ScreenshotJob job;
+                try {
+                    job = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (job == null) {
+                    continue;
+                }
+                // 开始截图后不再合并新的提交，避免新部署的内容拿到旧截图
+                pendingJobs.remove(job.url, job);
+                long startTime = System.nanoTime();
+                long waitNanos = startTime - job.enqueueTime;
+                queueWaitNanos.add(waitNanos);
+                maxQueueWaitNanos.accumulate(waitNanos);
+                try {
+                    if (driver == null || !isHealthy(driver)) {
+                        quitDriver(driver);
+                        driver = createDriver();
+                        pages = 0;
+                    }
+                    if (driver == null) {
+                        throw new BusinessException(ErrorCode.SYSTEM_ERROR, "创建截图浏览器失败");
+                    }
+                    byte[] screenshot = capturer.apply(driver, job.url);
+                    pages++;
+                    long elapsed = System.nanoTime() - startTime;
+                    captureNanos.add(elapsed);
+                    maxCaptureNanos.accumulate(elapsed);
+                    succeededCount.increment();
+                    log.info("网页截图完成: {}, 排队 {} ms, 截图 {} ms", job.url,
+                            TimeUnit.NANOSECONDS.toMillis(waitNanos), TimeUnit.NANOSECONDS.toMillis(elapsed));
+                    job.future.complete(screenshot);
+                } catch (Exception e) {
+                    failedCount.increment();
+                    job.future.completeExceptionally(e);
+                    // 截图失败时浏览器状态未知，直接重建
+                    quitDriver(driver);
+                    driver = null;
+                }
+                if (driver != null && pages >= screenshotPoolConfig.getMaxPagesPerDriver()) {
+                    quitDriver(driver);
+                    driver = null;
+                    driverRecycledCount.increment();
+                }
+            }
+        } finally {
+            quitDriver(driver);
+        }
+    }
+
+    private WebDriver createDriver() {
+        try {
+            WebDriver driver = driverFactory.get();
+            driverCreatedCount.increment();
+            return driver;
+        } catch (Exception e) {
+            log.error("创建截图浏览器失败", e);
+            return null;
+        }
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            log.warn("截图浏览器不可用，重建: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void quitDriver(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            log.warn("关闭截图浏览器失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 截图任务
+     */
+    private static class ScreenshotJob {
+
+        private final String url;
+
+        private final long enqueueTime = System.nanoTime();
+
+        private final CompletableFuture<byte[]> future = new CompletableFuture<>();
+
+        private ScreenshotJob(String url) {
+            this.url = url;
+        }
+    }
+}
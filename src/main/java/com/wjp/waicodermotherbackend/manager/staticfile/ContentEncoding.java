@@ -0,0 +1,86 @@
+package com.wjp.waicodermotherbackend.manager.staticfile;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * 预压缩文件的内容编码（按优先级排列）
+ */
+@Getter
+public enum ContentEncoding {
+
+    BROTLI("br", ".br"),
+    GZIP("gzip", ".gz");
+
+    /**
+     * Content-Encoding 取值
+     */
+    private final String value;
+
+    /**
+     * 预压缩文件的后缀
+     */
+    private final String suffix;
+
+    ContentEncoding(String value, String suffix) {
+        this.value = value;
+        this.suffix = suffix;
+    }
+
+    /**
+     * 根据 Accept-Encoding 从已有的编码中选择一个
+     * @param acceptEncoding 请求头 Accept-Encoding
+     * @param available 已有的预压缩编码
+     * @return 选中的编码，客户端不接受任何已有编码时返回 null（发送原文件）
+     */
+    public static ContentEncoding negotiate(String acceptEncoding, Collection<ContentEncoding> available) {
+        if (StrUtil.isBlank(acceptEncoding) || available.isEmpty()) {
+            return null;
+        }
+        ContentEncoding selected = null;
+        double selectedQuality = 0;
+        for (ContentEncoding encoding : values()) {
+            if (!available.contains(encoding)) {
+                continue;
+            }
+            double quality = getQuality(acceptEncoding, encoding.value);
+            // 权重相同时按枚举顺序优先
+            if (quality > selectedQuality) {
+                selected = encoding;
+                selectedQuality = quality;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * 编码在 Accept-Encoding 中的权重，未列出时取 * 的权重，都没有时为 0
+     */
+    private static double getQuality(String acceptEncoding, String coding) {
+        Double wildcard = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            String name = params[0].trim();
+            double quality = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase(coding)) {
+                return quality;
+            }
+            if ("*".equals(name)) {
+                wildcard = quality;
+            }
+        }
+        return wildcard == null ? 0 : wildcard;
+    }
+}
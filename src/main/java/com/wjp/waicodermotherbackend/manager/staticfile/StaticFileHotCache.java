@@ -0,0 +1,113 @@
+package com.wjp.waicodermotherbackend.manager.staticfile;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.wjp.waicodermotherbackend.config.StaticResourceConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 部署站点热点文件内存缓存
+ * 部署版本目录下的文件不会变化，热门站点的 index.html、CSS、JS 直接从内存发送，不访问文件系统。
+ *
+ * - 按文件字节数限制总大小，超过单文件大小上限的文件不缓存（交给 sendfile）
+ * - 缓存满后由 Caffeine 的 TinyLFU 按访问频率决定是否接纳新文件，偶尔访问一次的文件不会挤掉热点文件
+ * - 以实际发送的文件路径为键（部署标识/版本/相对路径，预压缩文件单独缓存）
+ */
+@Slf4j
+@Component
+public class StaticFileHotCache {
+
+    @Resource
+    private StaticResourceConfig staticResourceConfig;
+
+    private Cache<String, HotFile> cache;
+
+    public StaticFileHotCache() {
+    }
+
+    /**
+     * 指定配置（测试用）
+     */
+    StaticFileHotCache(StaticResourceConfig staticResourceConfig) {
+        this.staticResourceConfig = staticResourceConfig;
+        init();
+    }
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(staticResourceConfig.getHotCacheMaxSize().toBytes())
+                .weigher((String path, HotFile file) -> file.getContent().length)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 文件是否可以放入缓存
+     * @param length 文件大小
+     */
+    public boolean isCacheable(long length) {
+        return staticResourceConfig.isHotCacheEnabled() && length <= staticResourceConfig.getHotCacheMaxFileSize().toBytes();
+    }
+
+    /**
+     * 获取文件，未缓存时读取文件并放入缓存（同一文件并发请求只读取一次）
+     * @param file 要发送的文件
+     * @param contentType Content-Type
+     * @param etag ETag
+     * @return 缓存的文件，读取失败时返回 null
+     */
+    public HotFile get(Path file, String contentType, String etag) {
+        return cache.get(file.toAbsolutePath().normalize().toString(), key -> {
+            try {
+                return new HotFile(Files.readAllBytes(file), contentType, etag);
+            } catch (IOException e) {
+                log.warn("读取静态文件失败: {}", file, e);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 获取指标快照
+     */
+    public Map<String, Object> getMetrics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", staticResourceConfig.isHotCacheEnabled());
+        metrics.put("entries", cache.estimatedSize());
+        metrics.put("weightedBytes", cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L));
+        metrics.put("maxBytes", staticResourceConfig.getHotCacheMaxSize().toBytes());
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("hitRate", stats.hitRate());
+        metrics.put("evictions", stats.evictionCount());
+        return metrics;
+    }
+
+    /**
+     * 缓存的文件
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class HotFile {
+
+        private final byte[] content;
+
+        private final String contentType;
+
+        private final String etag;
+    }
+}
@@ -0,0 +1,140 @@
+package com.wjp.waicodermotherbackend.manager.staticfile;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wjp.waicodermotherbackend.config.StaticResourceConfig;
+import com.wjp.waicodermotherbackend.utils.ContentDigestUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 静态文件元数据缓存
+ * 缓存文件的强 ETag（内容 SHA-256）、修改时间、大小和已有的预压缩文件，避免每次请求都读取文件内容计算 ETag。
+ *
+ * - 普通文件每次读取一次文件属性，修改时间或大小变化时重新计算 ETag
+ * - 不可变文件（部署版本目录下的文件）命中缓存后不再访问文件系统
+ */
+@Slf4j
+@Component
+public class StaticFileMetadataCache {
+
+    @Resource
+    private StaticResourceConfig staticResourceConfig;
+
+    private Cache<Path, StaticFileMetadata> cache;
+
+    public StaticFileMetadataCache() {
+    }
+
+    /**
+     * 指定配置（测试用）
+     */
+    StaticFileMetadataCache(StaticResourceConfig staticResourceConfig) {
+        this.staticResourceConfig = staticResourceConfig;
+        init();
+    }
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(staticResourceConfig.getMetadataCacheSize())
+                .build();
+    }
+
+    /**
+     * 获取文件元数据
+     * @param file 文件路径
+     * @param immutable 文件内容是否不会变化
+     * @return 元数据，文件不存在或不是普通文件时返回 null
+     */
+    public StaticFileMetadata get(Path file, boolean immutable) {
+        Path key = file.toAbsolutePath().normalize();
+        StaticFileMetadata cached = cache.getIfPresent(key);
+        if (immutable && cached != null) {
+            return cached;
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (IOException e) {
+            cache.invalidate(key);
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            cache.invalidate(key);
+            return null;
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long length = attributes.size();
+        if (cached != null && cached.getLastModified() == lastModified && cached.getLength() == length) {
+            return cached;
+        }
+        StaticFileMetadata metadata = new StaticFileMetadata("\"" + ContentDigestUtils.digestFile(key) + "\"",
+                lastModified, length, findEncodedVariants(key, lastModified));
+        cache.put(key, metadata);
+        return metadata;
+    }
+
+    /**
+     * 查找不旧于原文件的预压缩文件
+     * @return 编码 -> 预压缩文件大小
+     */
+    private Map<ContentEncoding, Long> findEncodedVariants(Path file, long lastModified) {
+        Map<ContentEncoding, Long> variants = new EnumMap<>(ContentEncoding.class);
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            Path variant = file.resolveSibling(file.getFileName() + encoding.getSuffix());
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(variant, BasicFileAttributes.class);
+                if (attributes.isRegularFile() && attributes.lastModifiedTime().toMillis() >= lastModified) {
+                    variants.put(encoding, attributes.size());
+                }
+            } catch (IOException e) {
+                // 没有该编码的预压缩文件
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * 文件元数据
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class StaticFileMetadata {
+
+        /**
+         * 强 ETag（带引号）
+         */
+        private final String etag;
+
+        private final long lastModified;
+
+        private final long length;
+
+        /**
+         * 已有的预压缩文件：编码 -> 文件大小
+         */
+        private final Map<ContentEncoding, Long> encodedLengths;
+
+        /**
+         * 指定编码的文件对应的 ETag（不同编码的内容不同，ETag 也要不同）
+         */
+        public String getEtag(ContentEncoding encoding) {
+            if (encoding == null) {
+                return etag;
+            }
+            return etag.substring(0, etag.length() - 1) + "-" + encoding.getValue() + "\"";
+        }
+    }
+}
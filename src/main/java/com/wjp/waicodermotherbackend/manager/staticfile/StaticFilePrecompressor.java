@@ -0,0 +1,129 @@
+package com.wjp.waicodermotherbackend.manager.staticfile;
+
+import cn.hutool.core.io.FileUtil;
+import com.wjp.waicodermotherbackend.config.StaticResourceConfig;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 静态文件预压缩
+ * 部署时为可压缩的文本文件生成 .gz 文件，访问时直接发送，不需要每次请求都压缩。
+ *
+ * - 只压缩不小于阈值的文件，压缩后没有明显变小的不保留
+ * - 已存在且不旧于原文件的 .gz 跳过；.br 文件（例如构建插件生成的）不处理，访问时同样会使用
+ */
+@Slf4j
+@Component
+public class StaticFilePrecompressor {
+
+    /**
+     * 可压缩的文件扩展名
+     */
+    private static final Set<String> COMPRESSIBLE_EXTENSIONS = Set.of(
+            "html", "htm", "css", "js", "mjs", "json", "map", "svg", "xml", "txt", "md", "csv", "ico", "wasm", "ttf", "otf", "eot");
+
+    /**
+     * 压缩后至少要小于原文件的这个比例才保留
+     */
+    private static final double MAX_COMPRESSION_RATIO = 0.9;
+
+    @Resource
+    private StaticResourceConfig staticResourceConfig;
+
+    public StaticFilePrecompressor() {
+    }
+
+    /**
+     * 指定配置（测试用）
+     */
+    StaticFilePrecompressor(StaticResourceConfig staticResourceConfig) {
+        this.staticResourceConfig = staticResourceConfig;
+    }
+
+    /**
+     * 为目录下可压缩的文件生成 .gz 文件
+     * @param dir 目录
+     * @return 新生成的 .gz 文件数
+     */
+    public int precompress(Path dir) {
+        if (!staticResourceConfig.isPrecompress() || !Files.isDirectory(dir)) {
+            return 0;
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(dir)) {
+            files = stream.filter(Files::isRegularFile).filter(this::isCompressible).toList();
+        } catch (IOException e) {
+            log.warn("遍历目录失败，跳过预压缩: {}", dir, e);
+            return 0;
+        }
+        int created = 0;
+        for (Path file : files) {
+            try {
+                if (gzip(file)) {
+                    created++;
+                }
+            } catch (IOException e) {
+                // 预压缩失败不影响访问，直接发送原文件
+                log.warn("预压缩文件失败: {}", file, e);
+            }
+        }
+        log.info("预压缩完成: {}, 可压缩文件 {} 个，新生成 {} 个", dir, files.size(), created);
+        return created;
+    }
+
+    private boolean isCompressible(Path file) {
+        String extension = FileUtil.extName(file.getFileName().toString()).toLowerCase();
+        if (!COMPRESSIBLE_EXTENSIONS.contains(extension)) {
+            return false;
+        }
+        try {
+            return Files.size(file) >= staticResourceConfig.getPrecompressMinSize().toBytes();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 生成 .gz 文件（先写临时文件再重命名，访问时不会读到写了一半的文件）
+     * @return 是否新生成了文件
+     */
+    private boolean gzip(Path file) throws IOException {
+        Path target = file.resolveSibling(file.getFileName() + ContentEncoding.GZIP.getSuffix());
+        if (Files.isRegularFile(target)
+                && Files.getLastModifiedTime(target).compareTo(Files.getLastModifiedTime(file)) >= 0) {
+            return false;
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".gz.tmp");
+        try {
+            try (InputStream inputStream = Files.newInputStream(file);
+                 OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(temp)) {
+                     {
+                         def.setLevel(Deflater.BEST_COMPRESSION);
+                     }
+                 }) {
+                inputStream.transferTo(outputStream);
+            }
+            if (Files.size(temp) > Files.size(file) * MAX_COMPRESSION_RATIO) {
+                Files.deleteIfExists(target);
+                return false;
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
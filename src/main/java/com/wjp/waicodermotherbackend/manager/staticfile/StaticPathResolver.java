@@ -0,0 +1,210 @@
+package com.wjp.waicodermotherbackend.manager.staticfile;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.StrUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wjp.waicodermotherbackend.config.StaticResourceConfig;
+import com.wjp.waicodermotherbackend.model.enums.AppCodeGenEnum;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 静态资源路径解析
+ * 把请求中的相对路径规范化为根目录下的文件路径，拒绝越出根目录的路径，并确定 Content-Type。
+ *
+ * - 包含 ..、反斜杠、空字符的路径直接拒绝
+ * - 以 / 结尾的路径指向目录下的 index.html
+ * - 部署版本目录（/V{n}/...）的解析结果会缓存，包括文件不存在的结果，爬虫反复请求不存在的路径不会访问磁盘；
+ *   重新部署或回滚时按部署标识清理
+ */
+@Component
+public class StaticPathResolver {
+
+    /**
+     * 部署版本目录路径，例如 /V3/index.html
+     */
+    private static final Pattern VERSIONED_PATH_PATTERN = Pattern.compile("/V\\d+/");
+
+    /**
+     * 常用的前端文件类型（文本类型带 UTF-8 编码），其余类型按 Spring 内置的扩展名表识别
+     */
+    private static final Map<String, String> CONTENT_TYPES = Map.ofEntries(
+            Map.entry("html", "text/html; charset=UTF-8"),
+            Map.entry("htm", "text/html; charset=UTF-8"),
+            Map.entry("css", "text/css; charset=UTF-8"),
+            Map.entry("js", "application/javascript; charset=UTF-8"),
+            Map.entry("mjs", "application/javascript; charset=UTF-8"),
+            Map.entry("json", "application/json; charset=UTF-8"),
+            Map.entry("map", "application/json; charset=UTF-8"),
+            Map.entry("webmanifest", "application/manifest+json; charset=UTF-8"),
+            Map.entry("svg", "image/svg+xml; charset=UTF-8"),
+            Map.entry("xml", "application/xml; charset=UTF-8"),
+            Map.entry("txt", "text/plain; charset=UTF-8"),
+            Map.entry("md", "text/markdown; charset=UTF-8"),
+            Map.entry("png", MediaType.IMAGE_PNG_VALUE),
+            Map.entry("jpg", MediaType.IMAGE_JPEG_VALUE),
+            Map.entry("jpeg", MediaType.IMAGE_JPEG_VALUE),
+            Map.entry("gif", MediaType.IMAGE_GIF_VALUE),
+            Map.entry("webp", "image/webp"),
+            Map.entry("avif", "image/avif"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"),
+            Map.entry("ttf", "font/ttf"),
+            Map.entry("otf", "font/otf"),
+            Map.entry("wasm", "application/wasm"),
+            Map.entry("mp4", "video/mp4"),
+            Map.entry("webm", "video/webm"),
+            Map.entry("mp3", "audio/mpeg"),
+            Map.entry("pdf", MediaType.APPLICATION_PDF_VALUE)
+    );
+
+    @Resource
+    private StaticResourceConfig staticResourceConfig;
+
+    /**
+     * 部署标识 + 请求路径 -> 解析结果
+     */
+    private Cache<String, ResolvedPath> cache;
+
+    public StaticPathResolver() {
+    }
+
+    /**
+     * 指定配置（测试用）
+     */
+    StaticPathResolver(StaticResourceConfig staticResourceConfig) {
+        this.staticResourceConfig = staticResourceConfig;
+        init();
+    }
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(staticResourceConfig.getPathCacheSize())
+                .build();
+    }
+
+    /**
+     * 解析请求路径
+     * @param appCodeGenEnum 资源根目录
+     * @param fileNameOrDeployKey 预览目录名或部署标识
+     * @param resourcePath 相对路径，以 / 开头
+     * @return 解析结果，路径不合法时返回 null
+     */
+    public ResolvedPath resolve(AppCodeGenEnum appCodeGenEnum, String fileNameOrDeployKey, String resourcePath) {
+        if (!isValidName(fileNameOrDeployKey) || !resourcePath.startsWith("/")) {
+            return null;
+        }
+        boolean immutable = appCodeGenEnum.equals(AppCodeGenEnum.CODE_DEPLOY_ROOT_DIR)
+                && VERSIONED_PATH_PATTERN.matcher(resourcePath).lookingAt();
+        if (!immutable) {
+            return doResolve(appCodeGenEnum, fileNameOrDeployKey, resourcePath, false);
+        }
+        return cache.get(fileNameOrDeployKey + resourcePath,
+                key -> doResolve(appCodeGenEnum, fileNameOrDeployKey, resourcePath, true));
+    }
+
+    /**
+     * 清理部署标识下缓存的解析结果（重新部署、回滚后调用）
+     * @param deployKey 部署标识
+     */
+    public void invalidate(String deployKey) {
+        String prefix = deployKey + "/";
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * 根据文件名确定 Content-Type
+     * @param fileName 文件名
+     * @return Content-Type，无法识别时为 application/octet-stream
+     */
+    public static String getContentType(String fileName) {
+        String contentType = CONTENT_TYPES.get(FileUtil.extName(fileName).toLowerCase());
+        if (contentType != null) {
+            return contentType;
+        }
+        return MediaTypeFactory.getMediaType(fileName)
+                .map(mediaType -> "text".equals(mediaType.getType()) ? mediaType + "; charset=UTF-8" : mediaType.toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    }
+
+    private ResolvedPath doResolve(AppCodeGenEnum appCodeGenEnum, String fileNameOrDeployKey, String resourcePath, boolean immutable) {
+        String relativePath = resourcePath.substring(1);
+        if (relativePath.isEmpty() || relativePath.endsWith("/")) {
+            relativePath += "index.html";
+        }
+        if (StrUtil.containsAny(relativePath, "\\", "\0")) {
+            return null;
+        }
+        for (String segment : relativePath.split("/")) {
+            if ("..".equals(segment)) {
+                return null;
+            }
+        }
+        try {
+            Path root = Path.of(appCodeGenEnum.getValue(), fileNameOrDeployKey).toAbsolutePath().normalize();
+            Path file = root.resolve(relativePath).normalize();
+            if (!file.startsWith(root) || file.equals(root)) {
+                return null;
+            }
+            return new ResolvedPath(file, immutable, getContentType(file.getFileName().toString()));
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private static boolean isValidName(String name) {
+        return StrUtil.isNotBlank(name) && !".".equals(name) && !"..".equals(name)
+                && !StrUtil.containsAny(name, "/", "\\", "\0");
+    }
+
+    /**
+     * 路径解析结果
+     */
+    @Getter
+    public static class ResolvedPath {
+
+        /**
+         * 文件的绝对路径
+         */
+        private final Path file;
+
+        /**
+         * 是否位于部署版本目录（内容不会变化）
+         */
+        private final boolean immutable;
+
+        private final String contentType;
+
+        /**
+         * 文件不存在（只对部署版本目录记录，解析结果缓存后下次直接返回 404）
+         */
+        private volatile boolean missing;
+
+        private ResolvedPath(Path file, boolean immutable, String contentType) {
+            this.file = file;
+            this.immutable = immutable;
+            this.contentType = contentType;
+        }
+
+        /**
+         * 记录文件不存在
+         */
+        public void markMissing() {
+            if (immutable) {
+                missing = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.wjp.waicodermotherbackend.model.dto.app;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 应用部署回滚请求
+ */
+@Data
+public class AppDeployRollbackRequest implements Serializable {
+
+    /**
+     * 应用 id
+     */
+    private Long appId;
+
+    /**
+     * 要回滚到的部署版本号
+     */
+    private Integer version;
+
+    private static final long serialVersionUID = 1L;
+}
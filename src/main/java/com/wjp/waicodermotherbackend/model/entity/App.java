@@ -214,6 +214,21 @@ public class App implements Serializable {
     @Column("version")
     private Integer version;
 
+    /**
+     * 部署内容摘要
+     * 
+     * 该字段记录最近一次部署目录的内容摘要（SHA-256），用于判断重新部署的内容是否发生变化。
+     * 内容未变化时直接复用已有封面，不再重新截图和上传。
+     * 
+     * 计算规则：
+     * - 按相对路径排序后依次计算 “路径 + 长度 + 内容”
+     * - 与文件修改时间无关
+     * 
+     * @see com.wjp.waicodermotherbackend.utils.ContentDigestUtils#digestDirectory
+     */
+    @Column("deployDigest")
+    private String deployDigest;
+
     /**
      * 应用最后编辑时间
      * 
@@ -114,6 +114,15 @@ public interface AppService extends IService<App> {
      */
     String deployApp(Long appId, User loginUser);
 
+    /**
+     * 回滚到指定的部署版本
+     * @param appId 应用ID
+     * @param version 目标版本号
+     * @param loginUser 当前登录用户
+     * @return 目标版本的访问URL
+     */
+    String rollbackDeploy(Long appId, Integer version, User loginUser);
+
     Long createApp(AppAddRequest appAddRequest, User loginUser);
 
     /**
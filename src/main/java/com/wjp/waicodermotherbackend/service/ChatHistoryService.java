@@ -6,7 +6,7 @@ import com.mybatisflex.core.service.IService;
 import com.wjp.waicodermotherbackend.model.dto.chathistory.ChatHistoryQueryRequest;
 import com.wjp.waicodermotherbackend.model.entity.ChatHistory;
 import com.wjp.waicodermotherbackend.model.entity.User;
-import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+import dev.langchain4j.memory.ChatMemory;
 
 import java.time.LocalDateTime;
 
@@ -34,7 +34,7 @@ public interface ChatHistoryService extends IService<ChatHistory> {
      * @param maxCount
      * @return
      */
-    int loadChatHistoryToMemory(Long appId, MessageWindowChatMemory chatMemory, int maxCount);
+    int loadChatHistoryToMemory(Long appId, ChatMemory chatMemory, int maxCount);
 
     /**
      * 根据应用 id 删除对话记录
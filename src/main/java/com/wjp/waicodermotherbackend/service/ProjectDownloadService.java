@@ -1,5 +1,6 @@
 package com.wjp.waicodermotherbackend.service;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 /**
@@ -11,9 +12,10 @@ public interface ProjectDownloadService {
      * 下载项目为压缩包
      * @param projectPath   项目路径
      * @param downloadFileName 下载文件名
+     * @param request 请求（读取 Range、If-Range 请求头）
      * @param response 响应（返回给前端的响应头）
      * @return
      */
-    void downloadProject(String projectPath, String downloadFileName, HttpServletResponse response);
+    void downloadProject(String projectPath, String downloadFileName, HttpServletRequest request, HttpServletResponse response);
 
 }
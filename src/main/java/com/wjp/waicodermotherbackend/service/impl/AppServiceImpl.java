@@ -12,10 +12,14 @@ import com.wjp.waicodermotherbackend.ai.AiCodeGenTypeRoutingServiceFactory;
 import com.wjp.waicodermotherbackend.ai.handle.StreamHandlerExecutor;
 import com.wjp.waicodermotherbackend.constant.AppConstant;
 import com.wjp.waicodermotherbackend.core.AiCodeGeneratorFacade;
-import com.wjp.waicodermotherbackend.core.builder.VueProjectBuilder;
+import com.wjp.waicodermotherbackend.core.builder.VueBuildScheduler;
 import com.wjp.waicodermotherbackend.exception.BusinessException;
 import com.wjp.waicodermotherbackend.exception.ErrorCode;
 import com.wjp.waicodermotherbackend.exception.ThrowUtils;
+import com.wjp.waicodermotherbackend.manager.deploy.DeployManifest;
+import com.wjp.waicodermotherbackend.manager.deploy.DeploymentStore;
+import com.wjp.waicodermotherbackend.manager.staticfile.StaticFilePrecompressor;
+import com.wjp.waicodermotherbackend.manager.staticfile.StaticPathResolver;
 import com.wjp.waicodermotherbackend.model.dto.app.AppAddRequest;
 import com.wjp.waicodermotherbackend.model.dto.app.AppQueryRequest;
 import com.wjp.waicodermotherbackend.model.enums.ChatHistoryMessageTypeEnum;
@@ -29,6 +33,7 @@ import com.wjp.waicodermotherbackend.service.AppService;
 import com.wjp.waicodermotherbackend.service.ChatHistoryService;
 import com.wjp.waicodermotherbackend.service.ScreenshotService;
 import com.wjp.waicodermotherbackend.service.UserService;
+import com.wjp.waicodermotherbackend.utils.ContentDigestUtils;
 import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +42,7 @@ import reactor.core.publisher.Flux;
 
 import java.io.File;
 import java.io.Serializable;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -105,11 +111,20 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
      * Vue项目构建器
      */
     @Resource
-    private VueProjectBuilder vueProjectBuilder;
+    private VueBuildScheduler vueBuildScheduler;
 
     @Resource
     private ScreenshotService screenshotService;
 
+    @Resource
+    private DeploymentStore deploymentStore;
+
+    @Resource
+    private StaticFilePrecompressor staticFilePrecompressor;
+
+    @Resource
+    private StaticPathResolver staticPathResolver;
+
 
     @Resource
     private AiCodeGenTypeRoutingServiceFactory aiCodeGenTypeRoutingServiceFactory;
@@ -244,7 +259,7 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
         CodeGenTypeEnum codeGenTypeEnum = CodeGenTypeEnum.getEnumByValue(codeGenType);
         if(CodeGenTypeEnum.VUE_PROJECT == codeGenTypeEnum) {
             // Vue项目需要构建
-            boolean buildSuccess = vueProjectBuilder.buildProject(sourceDirPath);
+            boolean buildSuccess = vueBuildScheduler.build(sourceDirPath);
             // 检查dist目录是否存在
             File distDir = new File(sourceDirPath, "dist");
             ThrowUtils.throwIf(!distDir.exists(), SYSTEM_ERROR, "Vue项目构建完成但未生成 dist 目录");
@@ -252,20 +267,41 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
             sourceDir = distDir;
         }
 
-        // 8. 复制文件到部署目录，创建新版本
-        String deployDirPath = AppConstant.CODE_DEPLOY_ROOT_DIR + File.separator + deployKey + File.separator + "V" + ++version;
-        try {
-            // 复制源代码到部署目录，支持递归复制
-            FileUtil.copyContent(sourceDir, new File(deployDirPath), true);
-        } catch(Exception e) {
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "部署失败: " + e.getMessage());
+        // 8. 复制文件到部署目录，创建新版本（回滚后当前版本不是最新的，新版本号接在已有的最大版本之后）
+        String deployDirPath;
+        String deployDigest;
+        if (deploymentStore.isEnabled()) {
+            version = Math.max(version, deploymentStore.getLatestVersion(deployKey)) + 1;
+            // 只保存变化的文件内容，其余文件硬链接到已有内容
+            deployDigest = deploymentStore.deploy(deployKey, version, sourceDir).getDigest();
+            deployDirPath = AppConstant.CODE_DEPLOY_ROOT_DIR + File.separator + deployKey + File.separator + "V" + version;
+            deploymentStore.prune(deployKey, version);
+            deploymentStore.collectGarbageAsync();
+        } else {
+            deployDirPath = AppConstant.CODE_DEPLOY_ROOT_DIR + File.separator + deployKey + File.separator + "V" + ++version;
+            try {
+                // 复制源代码到部署目录，支持递归复制
+                FileUtil.copyContent(sourceDir, new File(deployDirPath), true);
+            } catch(Exception e) {
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "部署失败: " + e.getMessage());
+            }
+            // 计算部署内容摘要
+            deployDigest = ContentDigestUtils.digestDirectory(Path.of(deployDirPath));
         }
+        // 为文本文件生成预压缩文件，访问时直接发送压缩内容（在计算摘要之后，不影响摘要）
+        staticFilePrecompressor.precompress(Path.of(deployDirPath));
+        // 新版本目录可能之前被请求过，清理缓存的“文件不存在”结果
+        staticPathResolver.invalidate(deployKey);
+
+        // 内容与上次部署相同时复用已有封面
+        boolean contentUnchanged = deployDigest.equals(app.getDeployDigest()) && StrUtil.isNotBlank(app.getCover());
 
         // 9. 更新数据库中的应用部署信息
         App updateApp = new App();
         updateApp.setId(appId);
         updateApp.setDeployKey(deployKey);
         updateApp.setVersion(version);
+        updateApp.setDeployDigest(deployDigest);
         updateApp.setDeployedTime(LocalDateTime.now());
         boolean updateResult = this.updateById(updateApp);
         ThrowUtils.throwIf(!updateResult, ErrorCode.OPERATION_ERROR, "更新应用部署信息失败");
@@ -273,8 +309,54 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
         // 10. 返回部署后的访问地址
         String appDeployUrl = String.format("%s/%s/V%s", AppConstant.CODE_DEPLOY_HOST, deployKey, version);
 
-        // 11、异步生成截图并且更新应用封面
-        generateAppScreenshotAsync(appId, appDeployUrl);
+        // 11、异步生成截图并且更新应用封面（内容未变化则跳过）
+        if (contentUnchanged) {
+            log.info("应用 {} 部署内容未变化，复用已有封面", appId);
+        } else {
+            generateAppScreenshotAsync(appId, appDeployUrl);
+        }
+        return appDeployUrl;
+    }
+
+    /**
+     * 回滚到指定的部署版本
+     * 版本目录还在时直接切换；已被清理但清单和内容还在时按清单重新链接出版本目录。
+     *
+     * @param appId 应用ID
+     * @param version 目标版本号
+     * @param loginUser 当前登录用户
+     * @return 目标版本的访问URL
+     */
+    @Override
+    public String rollbackDeploy(Long appId, Integer version, User loginUser) {
+        ThrowUtils.throwIf(appId == null || appId <= 0 || version == null || version <= 0, ErrorCode.PARAMS_ERROR);
+        ThrowUtils.throwIf(loginUser == null, ErrorCode.NOT_LOGIN_ERROR);
+        ThrowUtils.throwIf(!deploymentStore.isEnabled(), ErrorCode.OPERATION_ERROR, "未开启部署版本管理");
+        App app = this.getById(appId);
+        ThrowUtils.throwIf(app == null, ErrorCode.NOT_FOUND_ERROR);
+        if(!app.getUserId().equals(loginUser.getId())) {
+            throw new BusinessException(ErrorCode.NO_AUTH_ERROR);
+        }
+        String deployKey = app.getDeployKey();
+        ThrowUtils.throwIf(deployKey == null, ErrorCode.OPERATION_ERROR, "应用尚未部署");
+        DeployManifest manifest = deploymentStore.restore(deployKey, version);
+        ThrowUtils.throwIf(manifest == null, ErrorCode.NOT_FOUND_ERROR, "部署版本不存在");
+        // 版本目录按清单重新生成时预压缩文件也需要重新生成，已存在的会跳过
+        staticFilePrecompressor.precompress(Path.of(AppConstant.CODE_DEPLOY_ROOT_DIR, deployKey, "V" + version));
+        staticPathResolver.invalidate(deployKey);
+
+        App updateApp = new App();
+        updateApp.setId(appId);
+        updateApp.setVersion(version);
+        updateApp.setDeployDigest(manifest.getDigest());
+        updateApp.setDeployedTime(LocalDateTime.now());
+        boolean updateResult = this.updateById(updateApp);
+        ThrowUtils.throwIf(!updateResult, ErrorCode.OPERATION_ERROR, "更新应用部署信息失败");
+
+        String appDeployUrl = String.format("%s/%s/V%s", AppConstant.CODE_DEPLOY_HOST, deployKey, version);
+        if (!manifest.getDigest().equals(app.getDeployDigest())) {
+            generateAppScreenshotAsync(appId, appDeployUrl);
+        }
         return appDeployUrl;
     }
 
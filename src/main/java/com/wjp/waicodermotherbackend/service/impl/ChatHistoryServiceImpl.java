@@ -8,6 +8,7 @@ import com.mybatisflex.spring.service.impl.ServiceImpl;
 import com.wjp.waicodermotherbackend.constant.UserConstant;
 import com.wjp.waicodermotherbackend.exception.ErrorCode;
 import com.wjp.waicodermotherbackend.exception.ThrowUtils;
+import com.wjp.waicodermotherbackend.manager.ChatHistoryBatchWriter;
 import com.wjp.waicodermotherbackend.model.dto.chathistory.ChatHistoryQueryRequest;
 import com.wjp.waicodermotherbackend.model.entity.App;
 import com.wjp.waicodermotherbackend.model.entity.ChatHistory;
@@ -17,14 +18,16 @@ import com.wjp.waicodermotherbackend.model.enums.ChatHistoryMessageTypeEnum;
 import com.wjp.waicodermotherbackend.service.AppService;
 import com.wjp.waicodermotherbackend.service.ChatHistoryService;
 import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.UserMessage;
-import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+import dev.langchain4j.memory.ChatMemory;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -40,6 +43,20 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
     @Lazy
     private AppService appService;
 
+    @Resource
+    private ChatHistoryBatchWriter chatHistoryBatchWriter;
+
+    public ChatHistoryServiceImpl() {
+    }
+
+    /**
+     * 指定 Mapper 和写入器（测试用）
+     */
+    ChatHistoryServiceImpl(ChatHistoryMapper chatHistoryMapper, ChatHistoryBatchWriter chatHistoryBatchWriter) {
+        this.mapper = chatHistoryMapper;
+        this.chatHistoryBatchWriter = chatHistoryBatchWriter;
+    }
+
     /**
      * 添加对话历史
      * @param appId
@@ -60,14 +77,16 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
         ChatHistoryMessageTypeEnum messageTypeEnum = ChatHistoryMessageTypeEnum.getEnumByValue(messageType);
         ThrowUtils.throwIf(messageTypeEnum == null, ErrorCode.PARAMS_ERROR, "消息类型错误");
 
-        // 3.插入数据库
+        // 3.插入数据库（开启异步批量写入时进入写入队列，不等待数据库）
         ChatHistory chatHistory = ChatHistory.builder()
                 .appId(appId)
                 .message(message)
                 .messageType(messageType)
                 .userId(userId)
                 .build();
-
+        if (chatHistoryBatchWriter.submit(chatHistory)) {
+            return true;
+        }
         return this.save(chatHistory);
 
     }
@@ -81,8 +100,10 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
      * @return
      */
     @Override
-    public int loadChatHistoryToMemory(Long appId, MessageWindowChatMemory chatMemory, int maxCount) {
+    public int loadChatHistoryToMemory(Long appId, ChatMemory chatMemory, int maxCount) {
         try {
+            // 先写入队列中未落库的消息
+            chatHistoryBatchWriter.flush();
             // 直接构造查询条件，起始点为1 而不是0，用于排除最新的用户消息
             QueryWrapper queryWrapper = QueryWrapper.create()
                     .eq(ChatHistory::getAppId, appId)
@@ -98,18 +119,20 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
             historyList = historyList.reversed();
             // 按照时间顺序添加到记忆中
             int loadedCount = 0;
-            // 先清理历史缓存，防止重复加载
-            chatMemory.clear();
+            List<ChatMessage> messages = new ArrayList<>(historyList.size());
             for (ChatHistory history : historyList) {
                 // 用户的消息
                 if(ChatHistoryMessageTypeEnum.USER.getValue().equals(history.getMessageType())) {
-                    chatMemory.add(UserMessage.from(history.getMessage()));
+                    messages.add(UserMessage.from(history.getMessage()));
                 } else if (ChatHistoryMessageTypeEnum.AI.getValue().equals(history.getMessageType())) {
                     // AI的消息
-                    chatMemory.add(AiMessage.from(history.getMessage()));
+                    messages.add(AiMessage.from(history.getMessage()));
                 }
                 loadedCount++;
             }
+            // 先清理历史缓存，防止重复加载；再一次性写入
+            chatMemory.clear();
+            chatMemory.add(messages);
             log.info("成功为 appId: {} 加载了 {} 条历史对话", appId, loadedCount);
             return loadedCount;
 
@@ -128,6 +151,8 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
     @Override
     public boolean deleteByAppId(Long appId) {
         ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR, "appId不能为空");
+        // 先写入队列中未落库的消息，避免删除后又被写入
+        chatHistoryBatchWriter.flush();
         QueryWrapper queryWrapper = QueryWrapper.create()
                 .eq("appId", appId);
         return this.remove(queryWrapper);
@@ -160,6 +185,8 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
         chatHistoryQueryRequest.setAppId(appId);
         chatHistoryQueryRequest.setLastCreateTime(lastCreateTime);
         QueryWrapper queryWrapper = this.getQueryWrapper(chatHistoryQueryRequest);
+        // 先写入队列中未落库的消息
+        chatHistoryBatchWriter.flush();
         // 查询数据
         return this.page(Page.of(1, pageSize), queryWrapper);
     }
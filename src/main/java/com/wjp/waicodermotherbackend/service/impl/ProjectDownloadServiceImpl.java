@@ -1,19 +1,29 @@
 package com.wjp.waicodermotherbackend.service.impl;
 
-import cn.hutool.core.io.FileUtil;
-import cn.hutool.core.util.ZipUtil;
 import com.wjp.waicodermotherbackend.exception.BusinessException;
 import com.wjp.waicodermotherbackend.exception.ErrorCode;
 import com.wjp.waicodermotherbackend.exception.ThrowUtils;
+import com.wjp.waicodermotherbackend.manager.archive.ProjectArchiveManager;
+import com.wjp.waicodermotherbackend.manager.archive.ProjectArchiveManager.ProjectArchive;
 import com.wjp.waicodermotherbackend.service.ProjectDownloadService;
+import com.wjp.waicodermotherbackend.utils.ProjectFileWalker;
+import com.wjp.waicodermotherbackend.utils.ProjectFileWalker.ProjectFile;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
-import java.io.FileFilter;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -45,16 +55,27 @@ public class ProjectDownloadServiceImpl implements ProjectDownloadService {
             ".cache"
     );
 
+    /**
+     * 项目文件遍历（忽略的目录不进入）
+     */
+    private static final ProjectFileWalker PROJECT_WALKER = ProjectFileWalker.create()
+            .filterNames(ProjectDownloadServiceImpl::isNameAllowed);
+
+    @Resource
+    private ProjectArchiveManager projectArchiveManager;
+
 
     /**
      * 下载项目为压缩包
+     * 压缩包按项目内容缓存，内容不变时直接发送已有的压缩包；支持 Range 断点续传（配合 If-Range 校验压缩包未变化）
      * @param projectPath   项目路径
      * @param downloadFileName 下载文件名
+     * @param request 请求（读取 Range、If-Range 请求头）
      * @param response 响应（返回给前端的响应头）
      * @return
      */
     @Override
-    public void downloadProject(String projectPath, String downloadFileName, HttpServletResponse response) {
+    public void downloadProject(String projectPath, String downloadFileName, HttpServletRequest request, HttpServletResponse response) {
         // 基础校验
         ThrowUtils.throwIf(projectPath == null || projectPath.isEmpty(), ErrorCode.PARAMS_ERROR, "项目路径不能为空");
         ThrowUtils.throwIf(downloadFileName == null || downloadFileName.isEmpty(), ErrorCode.PARAMS_ERROR, "下载文件名不能为空");
@@ -62,42 +83,102 @@ public class ProjectDownloadServiceImpl implements ProjectDownloadService {
         ThrowUtils.throwIf(!projectDir.exists(), ErrorCode.PARAMS_ERROR, "项目路径不存在");
         ThrowUtils.throwIf(!projectDir.isDirectory(), ErrorCode.PARAMS_ERROR, "项目路径不是目录");
         log.info("开始打包下载项目: {} -> {}.zip", projectPath, downloadFileName);
+
+        // 获取压缩包（项目内容未变化时复用已有的压缩包）
+        Path projectRoot = projectDir.toPath();
+        try (ProjectArchive archive = projectArchiveManager.getArchive(projectRoot, listAllowedFiles(projectRoot))) {
+            sendArchive(archive, downloadFileName, request, response);
+            log.info("项目打包下载完成: {}", downloadFileName);
+        } catch(IOException e) {
+            log.error("项目打包异常", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "项目打包异常");
+        }
+    }
+
+    /**
+     * 发送压缩包，支持断点续传（单个 Range）
+     * @param archive 已打开的压缩包
+     * @param downloadFileName 下载文件名
+     * @param request 请求
+     * @param response 响应
+     */
+    private void sendArchive(ProjectArchive archive, String downloadFileName,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FileChannel channel = archive.getChannel();
+        long length = channel.size();
+        String etag = "\"" + archive.getDigest() + "\"";
+
+        // 解析断点续传的范围，If-Range 与当前压缩包不一致时发送完整文件
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        boolean partial = false;
+        if (rangeHeader != null && length > 0 && (ifRange == null || ifRange.equals(etag))) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // 只支持单个范围，多个范围时发送完整文件
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    partial = true;
+                }
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+        }
+
         // 设置 HTTP 响应头
-        response.setStatus(HttpServletResponse.SC_OK);
+        response.setStatus(partial ? HttpServletResponse.SC_PARTIAL_CONTENT : HttpServletResponse.SC_OK);
         response.setContentType("application/zip");
         response.addHeader("Content-Disposition",
                 String.format("attachment; filename=\"%s.zip\"", downloadFileName));
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (partial) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        response.setContentLengthLong(end - start + 1);
 
-        // 定义文件过滤器
-        FileFilter filter = file -> isPathAllowed(projectDir.toPath(), file.toPath());
+        OutputStream outputStream = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(outputStream);
+        long position = start;
+        while (position <= end) {
+            position += channel.transferTo(position, end + 1 - position, target);
+        }
+        outputStream.flush();
+    }
 
+    /**
+     * 列出需要打包的文件，跳过忽略的目录（不进入遍历）
+     * @param projectRoot 项目的根目录
+     * @return 文件列表（按路径排序）
+     */
+    private List<Path> listAllowedFiles(Path projectRoot) {
         try {
-            // 使用 HuTool 的 ZipUtil 直接将过滤后的目录压缩大搜相应输出流
-            ZipUtil.zip(response.getOutputStream(), StandardCharsets.UTF_8, false, filter, projectDir);
-            log.info("项目打包下载完成: {}", downloadFileName);
-        } catch(Exception e) {
-            log.error("项目打包异常", e);
+            return PROJECT_WALKER.walk(projectRoot).stream().map(ProjectFile::getPath).toList();
+        } catch (IOException e) {
+            log.error("遍历项目目录失败: {}", projectRoot, e);
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "项目打包异常");
         }
     }
 
     /**
-     * 校验路径是否要包含在压缩包中
-     * @param projectRoot 项目的根目录(绝对路径)
-     * @param fullPath 项目的完整路径(相对路径)
+     * 校验文件或目录名是否要包含在压缩包中
+     * @param name 文件或目录名
      * @return 是否允许
      */
-    private boolean isPathAllowed(Path projectRoot, Path fullPath) {
-        Path relativizePath = projectRoot.relativize(fullPath);
-        // 检查路晋中的每一部分代码是否符合要求
-        for (Path path : relativizePath) {
-            String partName = path.toString();
-            // 检查是否在忽略名称列表中
-            if(IGNORED_NAMES.contains(partName)) {
-                return false;
-            }
-            // 检查是否已忽略扩展名结尾
-            if(IGNORED_EXTENSIONS.stream().anyMatch(ext -> partName.toLowerCase().endsWith(ext))) {
+    private static boolean isNameAllowed(String name) {
+        // 检查是否在忽略名称列表中
+        if(IGNORED_NAMES.contains(name)) {
+            return false;
+        }
+        // 检查是否已忽略扩展名结尾
+        String lowerName = name.toLowerCase();
+        for (String extension : IGNORED_EXTENSIONS) {
+            if (lowerName.endsWith(extension)) {
                 return false;
             }
         }
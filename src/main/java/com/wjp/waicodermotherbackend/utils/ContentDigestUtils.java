@@ -0,0 +1,130 @@
+package com.wjp.waicodermotherbackend.utils;
+
+import cn.hutool.core.util.HexUtil;
+import com.wjp.waicodermotherbackend.exception.BusinessException;
+import com.wjp.waicodermotherbackend.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * 内容摘要工具类
+ * 计算目录树的 SHA-256 摘要: 按相对路径排序后依次写入 “路径 + 长度 + 内容”，
+ * 与文件的修改时间、遍历顺序无关，内容完全相同的目录得到相同的摘要。
+ */
+@Slf4j
+public class ContentDigestUtils {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 计算目录树的摘要
+     * @param root 根目录
+     * @return SHA-256 十六进制字符串
+     */
+    public static String digestDirectory(Path root) {
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(root)) {
+            files = stream.filter(Files::isRegularFile)
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            log.error("遍历目录失败: {}", root, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "计算目录摘要失败");
+        }
+        return digestFiles(root, files);
+    }
+
+    /**
+     * 计算目录树的摘要，跳过指定名称的子目录（不进入这些目录遍历）
+     * @param root 根目录
+     * @param ignoredDirNames 跳过的目录名，例如 node_modules、dist
+     * @return SHA-256 十六进制字符串
+     */
+    public static String digestDirectory(Path root, Set<String> ignoredDirNames) {
+        List<Path> files;
+        try {
+            files = ProjectFileWalker.create()
+                    .skipDirectories(ignoredDirNames)
+                    .walk(root)
+                    .stream()
+                    .map(ProjectFileWalker.ProjectFile::getPath)
+                    .toList();
+        } catch (IOException e) {
+            log.error("遍历目录失败: {}", root, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "计算目录摘要失败");
+        }
+        return digestFiles(root, files);
+    }
+
+    /**
+     * 计算指定文件的摘要（按传入顺序）
+     * @param root 根目录，摘要中使用相对该目录的路径
+     * @param files 文件列表
+     * @return SHA-256 十六进制字符串
+     */
+    public static String digestFiles(Path root, List<Path> files) {
+        MessageDigest digest = newSha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (Path file : files) {
+            String relativePath = root.relativize(file).toString().replace('\\', '/');
+            byte[] pathBytes = relativePath.getBytes(StandardCharsets.UTF_8);
+            updateLong(digest, pathBytes.length);
+            digest.update(pathBytes);
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                updateLong(digest, Files.size(file));
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                log.error("读取文件失败: {}", file, e);
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "计算目录摘要失败");
+            }
+        }
+        return HexUtil.encodeHexStr(digest.digest());
+    }
+
+    /**
+     * 计算单个文件内容的摘要
+     * @param file 文件
+     * @return SHA-256 十六进制字符串
+     */
+    public static String digestFile(Path file) {
+        MessageDigest digest = newSha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            log.error("读取文件失败: {}", file, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "计算文件摘要失败");
+        }
+        return HexUtil.encodeHexStr(digest.digest());
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void updateLong(MessageDigest digest, long value) {
+        for (int i = 7; i >= 0; i--) {
+            digest.update((byte) (value >>> (i * 8)));
+        }
+    }
+}
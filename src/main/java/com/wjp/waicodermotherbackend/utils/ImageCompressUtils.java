@@ -0,0 +1,213 @@
+package com.wjp.waicodermotherbackend.utils;
+
+import com.wjp.waicodermotherbackend.exception.BusinessException;
+import com.wjp.waicodermotherbackend.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+
+/**
+ * 图片压缩工具类
+ * 全程在内存中完成: 解码截图 -> 按最大宽度缩小 -> 编码为 JPEG，不产生临时文件。
+ *
+ * JPEG 编码器（ImageWriter）和输出缓冲区都放在有界池中复用；
+ * 池满时多出的对象直接丢弃，超过 {@link #MAX_POOLED_BUFFER_SIZE} 的缓冲区不回收，内存占用有上限。
+ */
+@Slf4j
+public class ImageCompressUtils {
+
+    /**
+     * 压缩后的最大宽度（像素），超过则等比缩小
+     */
+    private static final int MAX_WIDTH = 1280;
+
+    /**
+     * JPEG 压缩质量
+     */
+    private static final float JPEG_QUALITY = 0.3f;
+
+    private static final int POOL_SIZE = 4;
+
+    private static final int INITIAL_BUFFER_SIZE = 256 * 1024;
+
+    private static final int MAX_POOLED_BUFFER_SIZE = 2 * 1024 * 1024;
+
+    private static final BlockingQueue<ImageWriter> WRITER_POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private static final BlockingQueue<ImageBuffer> BUFFER_POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    /**
+     * 压缩图片，结果只在 consumer 执行期间有效（缓冲区随后会被复用）
+     * @param imageBytes 原始图片（PNG 等 ImageIO 可解码的格式）
+     * @param consumer 处理压缩结果，例如上传到对象存储
+     * @return consumer 的返回值
+     */
+    public static <T> T compressToJpeg(byte[] imageBytes, Function<CompressedImage, T> consumer) {
+        BufferedImage image = resize(decode(imageBytes));
+        ImageBuffer buffer = borrowBuffer();
+        try {
+            encodeJpeg(image, buffer);
+            return consumer.apply(new CompressedImage(buffer));
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    /**
+     * 压缩图片并返回独立的字节数组
+     * @param imageBytes 原始图片
+     * @return JPEG 字节
+     */
+    public static byte[] compressToJpeg(byte[] imageBytes) {
+        return compressToJpeg(imageBytes, CompressedImage::toByteArray);
+    }
+
+    private static BufferedImage decode(byte[] imageBytes) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(imageBytes));
+            if (image == null) {
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "无法识别的图片格式");
+            }
+            return image;
+        } catch (IOException e) {
+            log.error("解码图片失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "解码图片失败");
+        }
+    }
+
+    /**
+     * 缩小到最大宽度，同时转换为不带透明通道的 RGB 图片（JPEG 不支持透明通道）
+     */
+    private static BufferedImage resize(BufferedImage source) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (width > MAX_WIDTH) {
+            height = Math.max(1, Math.round(height * (MAX_WIDTH / (float) width)));
+            width = MAX_WIDTH;
+        }
+        if (width == source.getWidth() && source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static void encodeJpeg(BufferedImage image, ImageBuffer buffer) {
+        ImageWriter writer = borrowWriter();
+        // 使用内存缓存的输出流，避免 ImageIO 默认的磁盘缓存
+        try (MemoryCacheImageOutputStream outputStream = new MemoryCacheImageOutputStream(buffer)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(outputStream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            log.error("编码 JPEG 失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "压缩图片失败");
+        } finally {
+            releaseWriter(writer);
+        }
+    }
+
+    private static ImageWriter borrowWriter() {
+        ImageWriter writer = WRITER_POOL.poll();
+        if (writer != null) {
+            return writer;
+        }
+        return ImageIO.getImageWritersByFormatName("jpeg").next();
+    }
+
+    private static void releaseWriter(ImageWriter writer) {
+        writer.reset();
+        if (!WRITER_POOL.offer(writer)) {
+            writer.dispose();
+        }
+    }
+
+    private static ImageBuffer borrowBuffer() {
+        ImageBuffer buffer = BUFFER_POOL.poll();
+        return buffer != null ? buffer : new ImageBuffer(INITIAL_BUFFER_SIZE);
+    }
+
+    private static void releaseBuffer(ImageBuffer buffer) {
+        if (buffer.capacity() > MAX_POOLED_BUFFER_SIZE) {
+            return;
+        }
+        buffer.reset();
+        BUFFER_POOL.offer(buffer);
+    }
+
+    /**
+     * 可复用的输出缓冲区，读取时不复制底层数组
+     */
+    private static class ImageBuffer extends ByteArrayOutputStream {
+
+        private ImageBuffer(int size) {
+            super(size);
+        }
+
+        private int capacity() {
+            return buf.length;
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+    }
+
+    /**
+     * 压缩结果（引用池中的缓冲区，不要在 consumer 之外持有）
+     */
+    public static class CompressedImage {
+
+        private final ImageBuffer buffer;
+
+        private CompressedImage(ImageBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * 字节数
+         */
+        public int length() {
+            return buffer.size();
+        }
+
+        /**
+         * 读取压缩结果（不复制）
+         */
+        public InputStream newInputStream() {
+            return new ByteArrayInputStream(buffer.array(), 0, buffer.size());
+        }
+
+        /**
+         * 复制出独立的字节数组
+         */
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buffer.array(), buffer.size());
+        }
+    }
+}
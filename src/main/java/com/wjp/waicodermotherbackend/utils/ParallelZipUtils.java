@@ -0,0 +1,248 @@
+package com.wjp.waicodermotherbackend.utils;
+
+import cn.hutool.core.io.FileUtil;
+import com.wjp.waicodermotherbackend.exception.BusinessException;
+import com.wjp.waicodermotherbackend.exception.ErrorCode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 并行压缩 zip 工具类
+ * 各文件的读取和 deflate 压缩在线程池中并行执行，压缩结果按文件顺序依次写入同一个 zip 输出流。
+ *
+ * - 同时在压缩的文件数有上限（CPU 核数的两倍），内存占用与文件总数无关
+ * - 图片、字体、压缩包等已压缩的格式以及压缩后没有变小的文件直接存储（STORED）
+ * - 不支持 zip64：文件数超过 65535 或大小超过 4GB 时抛出异常
+ */
+public class ParallelZipUtils {
+
+    /**
+     * 已压缩过的格式，再次压缩没有收益
+     */
+    private static final Set<String> STORED_EXTENSIONS = Set.of(
+            "png", "jpg", "jpeg", "gif", "webp", "avif", "ico", "woff", "woff2",
+            "zip", "gz", "br", "7z", "rar", "mp3", "mp4", "webm", "pdf");
+
+    private static final int METHOD_STORED = 0;
+
+    private static final int METHOD_DEFLATED = 8;
+
+    /**
+     * 通用标志位 11：文件名使用 UTF-8 编码
+     */
+    private static final int FLAG_UTF8 = 0x0800;
+
+    private static final int VERSION = 20;
+
+    private static final long ZIP32_LIMIT = 0xFFFFFFFFL;
+
+    private static final int MAX_ENTRIES = 0xFFFF;
+
+    private ParallelZipUtils() {
+    }
+
+    /**
+     * 把文件压缩为 zip 写入输出流
+     * @param root 根目录，压缩包中使用相对该目录的路径
+     * @param files 要压缩的文件（按压缩包中的顺序）
+     * @param outputStream 输出流（不会关闭）
+     * @param executor 执行压缩的线程池
+     * @param level 压缩级别（{@link Deflater#DEFAULT_COMPRESSION} 或 0-9）
+     */
+    public static void zip(Path root, List<Path> files, OutputStream outputStream, ExecutorService executor, int level) throws IOException {
+        if (files.size() > MAX_ENTRIES) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "文件数过多，无法打包");
+        }
+        int window = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+        Deque<Future<CompressedEntry>> pending = new ArrayDeque<>();
+        List<CentralRecord> records = new ArrayList<>(files.size());
+        ZipOutput output = new ZipOutput(outputStream);
+        try {
+            for (Path file : files) {
+                String name = root.relativize(file).toString().replace('\\', '/');
+                pending.addLast(executor.submit(() -> compress(file, name, level)));
+                if (pending.size() >= window) {
+                    records.add(output.writeEntry(pending.removeFirst().get()));
+                }
+            }
+            while (!pending.isEmpty()) {
+                records.add(output.writeEntry(pending.removeFirst().get()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.forEach(future -> future.cancel(true));
+            throw new IOException("打包被中断", e);
+        } catch (ExecutionException e) {
+            pending.forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ioException ? ioException : new IOException(cause);
+        }
+        output.writeCentralDirectory(records);
+        outputStream.flush();
+    }
+
+    /**
+     * 读取并压缩单个文件（在线程池中执行）
+     */
+    private static CompressedEntry compress(Path file, String name, int level) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        if (!STORED_EXTENSIONS.contains(FileUtil.extName(name).toLowerCase()) && content.length > 0) {
+            Deflater deflater = new Deflater(level, true);
+            try {
+                deflater.setInput(content);
+                deflater.finish();
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, content.length / 2));
+                byte[] buffer = new byte[8192];
+                while (!deflater.finished()) {
+                    int length = deflater.deflate(buffer);
+                    compressed.write(buffer, 0, length);
+                }
+                if (compressed.size() < content.length) {
+                    return new CompressedEntry(name, METHOD_DEFLATED, crc.getValue(), content.length, compressed.toByteArray(), lastModified);
+                }
+            } finally {
+                deflater.end();
+            }
+        }
+        return new CompressedEntry(name, METHOD_STORED, crc.getValue(), content.length, content, lastModified);
+    }
+
+    /**
+     * 压缩后的文件
+     */
+    private record CompressedEntry(String name, int method, long crc, long size, byte[] data, long lastModified) {
+    }
+
+    /**
+     * 中央目录记录
+     */
+    private record CentralRecord(byte[] name, int method, long crc, long compressedSize, long size,
+                                 int dosTime, int dosDate, long offset) {
+    }
+
+    /**
+     * 按 zip 格式写出本地文件头、文件数据和中央目录
+     */
+    private static class ZipOutput {
+
+        private final OutputStream outputStream;
+
+        private long written = 0;
+
+        private ZipOutput(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        private CentralRecord writeEntry(CompressedEntry entry) throws IOException {
+            if (entry.size() > ZIP32_LIMIT || written > ZIP32_LIMIT) {
+                throw new BusinessException(ErrorCode.OPERATION_ERROR, "文件过大，无法打包");
+            }
+            byte[] name = entry.name().getBytes(StandardCharsets.UTF_8);
+            int[] dos = toDosDateTime(entry.lastModified());
+            CentralRecord record = new CentralRecord(name, entry.method(), entry.crc(), entry.data().length,
+                    entry.size(), dos[0], dos[1], written);
+            writeInt(0x04034b50);
+            writeShort(VERSION);
+            writeShort(FLAG_UTF8);
+            writeShort(record.method());
+            writeShort(record.dosTime());
+            writeShort(record.dosDate());
+            writeInt(record.crc());
+            writeInt(record.compressedSize());
+            writeInt(record.size());
+            writeShort(name.length);
+            writeShort(0);
+            write(name);
+            write(entry.data());
+            return record;
+        }
+
+        private void writeCentralDirectory(List<CentralRecord> records) throws IOException {
+            long offset = written;
+            if (offset > ZIP32_LIMIT) {
+                throw new BusinessException(ErrorCode.OPERATION_ERROR, "文件过大，无法打包");
+            }
+            for (CentralRecord record : records) {
+                writeInt(0x02014b50);
+                writeShort(VERSION);
+                writeShort(VERSION);
+                writeShort(FLAG_UTF8);
+                writeShort(record.method());
+                writeShort(record.dosTime());
+                writeShort(record.dosDate());
+                writeInt(record.crc());
+                writeInt(record.compressedSize());
+                writeInt(record.size());
+                writeShort(record.name().length);
+                // 扩展字段、注释长度、起始磁盘号、内部属性
+                writeShort(0);
+                writeShort(0);
+                writeShort(0);
+                writeShort(0);
+                // 外部属性
+                writeInt(0);
+                writeInt(record.offset());
+                write(record.name());
+            }
+            long size = written - offset;
+            writeInt(0x06054b50);
+            writeShort(0);
+            writeShort(0);
+            writeShort(records.size());
+            writeShort(records.size());
+            writeInt(size);
+            writeInt(offset);
+            writeShort(0);
+        }
+
+        private void writeShort(int value) throws IOException {
+            outputStream.write(value & 0xFF);
+            outputStream.write((value >>> 8) & 0xFF);
+            written += 2;
+        }
+
+        private void writeInt(long value) throws IOException {
+            writeShort((int) (value & 0xFFFF));
+            writeShort((int) ((value >>> 16) & 0xFFFF));
+        }
+
+        private void write(byte[] bytes) throws IOException {
+            outputStream.write(bytes);
+            written += bytes.length;
+        }
+
+        /**
+         * 转换为 MS-DOS 时间和日期（早于 1980 年的按 1980-01-01 处理）
+         */
+        private static int[] toDosDateTime(long millis) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+            if (time.getYear() < 1980) {
+                return new int[]{0, (1 << 5) | 1};
+            }
+            int dosTime = (time.getHour() << 11) | (time.getMinute() << 5) | (time.getSecond() >> 1);
+            int dosDate = ((time.getYear() - 1980) << 9) | (time.getMonthValue() << 5) | time.getDayOfMonth();
+            return new int[]{dosTime, dosDate};
+        }
+    }
+}
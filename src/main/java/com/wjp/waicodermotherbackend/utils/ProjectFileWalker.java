@@ -0,0 +1,159 @@
+package com.wjp.waicodermotherbackend.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * 项目目录遍历工具
+ * 基于 Files.walkFileTree，被忽略的目录在进入前就跳过（SKIP_SUBTREE），
+ * 遍历 Vue 项目时不会进入 node_modules 等目录，耗时只与源码文件数有关。
+ *
+ * 过滤条件可以组合，实例不可变，可以作为常量复用：
+ * <pre>
+ * ProjectFileWalker.create()
+ *         .skipDirectories(Set.of("node_modules", "dist"))
+ *         .filterFiles(name -> name.endsWith(".vue"))
+ *         .walk(root);
+ * </pre>
+ */
+public class ProjectFileWalker {
+
+    /**
+     * 按深度、再按路径排序
+     */
+    public static final Comparator<ProjectFile> DEPTH_FIRST_ORDER = Comparator.comparingInt(ProjectFile::getDepth)
+            .thenComparing(ProjectFile::getPath);
+
+    /**
+     * 不进入的目录名
+     */
+    private final Set<String> skippedDirectories;
+
+    /**
+     * 文件和目录名过滤（不满足的目录整个跳过）
+     */
+    private final Predicate<String> nameFilter;
+
+    /**
+     * 文件名过滤（只作用于文件）
+     */
+    private final Predicate<String> fileFilter;
+
+    private ProjectFileWalker(Set<String> skippedDirectories, Predicate<String> nameFilter, Predicate<String> fileFilter) {
+        this.skippedDirectories = skippedDirectories;
+        this.nameFilter = nameFilter;
+        this.fileFilter = fileFilter;
+    }
+
+    /**
+     * 不带任何过滤条件的遍历器
+     */
+    public static ProjectFileWalker create() {
+        return new ProjectFileWalker(Set.of(), name -> true, name -> true);
+    }
+
+    /**
+     * 跳过指定名称的目录（不进入遍历）
+     * @param directoryNames 目录名，例如 node_modules、dist
+     */
+    public ProjectFileWalker skipDirectories(Set<String> directoryNames) {
+        return new ProjectFileWalker(Set.copyOf(directoryNames), nameFilter, fileFilter);
+    }
+
+    /**
+     * 按名称过滤文件和目录，不满足条件的目录整个跳过
+     * @param allowed 返回 true 表示保留
+     */
+    public ProjectFileWalker filterNames(Predicate<String> allowed) {
+        return new ProjectFileWalker(skippedDirectories, nameFilter.and(allowed), fileFilter);
+    }
+
+    /**
+     * 按名称过滤文件（不影响目录遍历）
+     * @param allowed 返回 true 表示保留
+     */
+    public ProjectFileWalker filterFiles(Predicate<String> allowed) {
+        return new ProjectFileWalker(skippedDirectories, nameFilter, fileFilter.and(allowed));
+    }
+
+    /**
+     * 遍历目录，返回满足条件的普通文件（按路径排序）
+     * @param root 根目录
+     * @return 文件列表
+     */
+    public List<ProjectFile> walk(Path root) throws IOException {
+        List<ProjectFile> files = new ArrayList<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (dir.equals(root)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                String name = dir.getFileName().toString();
+                if (skippedDirectories.contains(name) || !nameFilter.test(name)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String name = file.getFileName().toString();
+                if (attrs.isRegularFile() && nameFilter.test(name) && fileFilter.test(name)) {
+                    Path relative = root.relativize(file);
+                    files.add(new ProjectFile(file, relative.toString().replace('\\', '/'), relative.getNameCount() - 1));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        files.sort(Comparator.comparing(ProjectFile::getPath));
+        return files;
+    }
+
+    /**
+     * 判断相对根目录的文件路径是否满足过滤条件，即遍历时是否会返回该文件（用于增量维护遍历结果）
+     * @param relativePath 相对根目录的路径（使用 / 分隔）
+     */
+    public boolean accepts(String relativePath) {
+        String[] names = relativePath.split("/");
+        for (int i = 0; i < names.length - 1; i++) {
+            if (skippedDirectories.contains(names[i]) || !nameFilter.test(names[i])) {
+                return false;
+            }
+        }
+        String name = names[names.length - 1];
+        return nameFilter.test(name) && fileFilter.test(name);
+    }
+
+    /**
+     * 遍历到的文件
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ProjectFile {
+
+        private final Path path;
+
+        /**
+         * 相对根目录的路径（使用 / 分隔）
+         */
+        private final String relativePath;
+
+        /**
+         * 相对根目录的深度，根目录下的文件为 0
+         */
+        private final int depth;
+    }
+}
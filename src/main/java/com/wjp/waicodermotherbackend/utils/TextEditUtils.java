@@ -0,0 +1,232 @@
+package com.wjp.waicodermotherbackend.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * 文本批量替换工具类
+ * 多处替换一次完成：用 Aho-Corasick 自动机单次扫描原文找出所有旧内容的位置，
+ * 校验每处旧内容只出现一次且互不重叠后，按位置顺序拼接到同一个输出缓冲区。
+ */
+public class TextEditUtils {
+
+    /**
+     * 单处替换的结果
+     */
+    public enum EditStatus {
+        APPLIED,
+        /**
+         * 旧内容为空
+         */
+        EMPTY,
+        NOT_FOUND,
+        /**
+         * 旧内容出现多次，无法确定替换哪一处
+         */
+        AMBIGUOUS,
+        /**
+         * 与前面的替换位置重叠
+         */
+        OVERLAPPED
+    }
+
+    /**
+     * 批量替换结果
+     * @param content 替换后的内容
+     * @param statuses 各处替换的结果（与传入顺序一致）
+     */
+    public record EditResult(String content, List<EditStatus> statuses) {
+
+        /**
+         * 成功替换的处数
+         */
+        public long appliedCount() {
+            return statuses.stream().filter(status -> status == EditStatus.APPLIED).count();
+        }
+    }
+
+    private TextEditUtils() {
+    }
+
+    /**
+     * 批量替换，无法执行的替换跳过，其余替换照常执行
+     * @param content 原内容
+     * @param oldTexts 各处要替换的旧内容
+     * @param newTexts 各处替换后的新内容（与 oldTexts 一一对应）
+     * @return 替换结果
+     */
+    public static EditResult applyEdits(String content, List<String> oldTexts, List<String> newTexts) {
+        if (oldTexts.size() != newTexts.size()) {
+            throw new IllegalArgumentException("旧内容和新内容的数量不一致");
+        }
+        // 相同的旧内容只查找一次
+        Map<String, Integer> patternIndexes = new LinkedHashMap<>();
+        for (String oldText : oldTexts) {
+            if (oldText != null && !oldText.isEmpty()) {
+                patternIndexes.putIfAbsent(oldText, patternIndexes.size());
+            }
+        }
+        int[][] occurrences = new Matcher(new ArrayList<>(patternIndexes.keySet())).search(content, 2);
+
+        EditStatus[] statuses = new EditStatus[oldTexts.size()];
+        // 已接受的替换: 起始位置 -> 替换序号
+        TreeMap<Integer, Integer> accepted = new TreeMap<>();
+        for (int i = 0; i < oldTexts.size(); i++) {
+            String oldText = oldTexts.get(i);
+            if (oldText == null || oldText.isEmpty()) {
+                statuses[i] = EditStatus.EMPTY;
+                continue;
+            }
+            int[] positions = occurrences[patternIndexes.get(oldText)];
+            if (positions.length == 0) {
+                statuses[i] = EditStatus.NOT_FOUND;
+            } else if (positions.length > 1) {
+                statuses[i] = EditStatus.AMBIGUOUS;
+            } else if (overlaps(accepted, oldTexts, positions[0], positions[0] + oldText.length())) {
+                statuses[i] = EditStatus.OVERLAPPED;
+            } else {
+                accepted.put(positions[0], i);
+                statuses[i] = EditStatus.APPLIED;
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return new EditResult(content, Arrays.asList(statuses));
+        }
+        int capacity = content.length();
+        for (int index : accepted.values()) {
+            capacity += newTexts.get(index).length() - oldTexts.get(index).length();
+        }
+        StringBuilder output = new StringBuilder(Math.max(capacity, 0));
+        int cursor = 0;
+        for (Map.Entry<Integer, Integer> entry : accepted.entrySet()) {
+            int start = entry.getKey();
+            int index = entry.getValue();
+            output.append(content, cursor, start).append(newTexts.get(index));
+            cursor = start + oldTexts.get(index).length();
+        }
+        output.append(content, cursor, content.length());
+        return new EditResult(output.toString(), Arrays.asList(statuses));
+    }
+
+    /**
+     * [start, end) 是否与已接受的替换重叠
+     */
+    private static boolean overlaps(TreeMap<Integer, Integer> accepted, List<String> oldTexts, int start, int end) {
+        Map.Entry<Integer, Integer> before = accepted.floorEntry(start);
+        if (before != null && before.getKey() + oldTexts.get(before.getValue()).length() > start) {
+            return true;
+        }
+        Integer after = accepted.ceilingKey(start);
+        return after != null && after < end;
+    }
+
+    /**
+     * Aho-Corasick 多模式匹配自动机
+     */
+    private static class Matcher {
+
+        private final List<String> patterns;
+
+        /**
+         * 各节点的转移（字符 -> 节点）
+         */
+        private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+
+        /**
+         * 各节点的失配指针
+         */
+        private final List<Integer> failures = new ArrayList<>();
+
+        /**
+         * 各节点结束的模式（包括沿失配指针可达的后缀模式）
+         */
+        private final List<List<Integer>> outputs = new ArrayList<>();
+
+        private Matcher(List<String> patterns) {
+            this.patterns = patterns;
+            addNode();
+            for (int i = 0; i < patterns.size(); i++) {
+                int node = 0;
+                for (char c : patterns.get(i).toCharArray()) {
+                    Integer next = transitions.get(node).get(c);
+                    if (next == null) {
+                        next = addNode();
+                        transitions.get(node).put(c, next);
+                    }
+                    node = next;
+                }
+                outputs.get(node).add(i);
+            }
+            // 按层遍历计算失配指针
+            Queue<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (Map.Entry<Character, Integer> entry : transitions.get(node).entrySet()) {
+                    int child = entry.getValue();
+                    int failure = node == 0 ? 0 : next(failures.get(node), entry.getKey());
+                    failures.set(child, failure);
+                    outputs.get(child).addAll(outputs.get(failure));
+                    queue.add(child);
+                }
+            }
+        }
+
+        /**
+         * 单次扫描文本，找出各模式的出现位置
+         * @param text 文本
+         * @param limit 每个模式最多记录的位置数
+         * @return 各模式的起始位置（与模式顺序一致）
+         */
+        private int[][] search(String text, int limit) {
+            int[][] positions = new int[patterns.size()][];
+            int[] counts = new int[patterns.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = new int[limit];
+            }
+            int node = 0;
+            for (int i = 0; i < text.length(); i++) {
+                node = next(node, text.charAt(i));
+                for (int pattern : outputs.get(node)) {
+                    if (counts[pattern] < limit) {
+                        positions[pattern][counts[pattern]++] = i - patterns.get(pattern).length() + 1;
+                    }
+                }
+            }
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = Arrays.copyOf(positions[i], counts[i]);
+            }
+            return positions;
+        }
+
+        /**
+         * 从节点读入一个字符后到达的节点
+         */
+        private int next(int node, char c) {
+            while (true) {
+                Integer next = transitions.get(node).get(c);
+                if (next != null) {
+                    return next;
+                }
+                if (node == 0) {
+                    return 0;
+                }
+                node = failures.get(node);
+            }
+        }
+
+        private int addNode() {
+            transitions.add(new HashMap<>());
+            failures.add(0);
+            outputs.add(new ArrayList<>());
+            return transitions.size() - 1;
+        }
+    }
+}
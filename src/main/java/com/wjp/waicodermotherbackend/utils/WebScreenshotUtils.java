@@ -1,13 +1,11 @@
 package com.wjp.waicodermotherbackend.utils;
 
-import cn.hutool.core.img.ImgUtil;
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.RandomUtil;
 import cn.hutool.core.util.StrUtil;
 import com.wjp.waicodermotherbackend.exception.BusinessException;
 import com.wjp.waicodermotherbackend.exception.ErrorCode;
 import io.github.bonigarcia.wdm.WebDriverManager;
-import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.OutputType;
@@ -15,7 +13,6 @@ import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.io.File;
 import java.time.Duration;
@@ -27,19 +24,82 @@ import java.util.UUID;
 @Slf4j
 public class WebScreenshotUtils {
 
-    private static final WebDriver webDriver;
+    /**
+     * 页面就绪的最长等待时间（毫秒）
+     */
+    private static final int PAGE_READY_TIMEOUT_MS = 5000;
 
-    // 全局初始化一次,避免重复初始化驱动程序
-    static {
-        final int DEFAULT_WIDTH = 1600;
-        final int DEFAULT_HEIGHT = 900;
-        webDriver = initChromeDriver(DEFAULT_WIDTH, DEFAULT_HEIGHT);
+    /**
+     * DOM、网络资源保持不变多长时间视为页面稳定（毫秒）
+     */
+    private static final int PAGE_QUIET_WINDOW_MS = 200;
+
+    /**
+     * 页面就绪检测脚本（异步脚本，arguments[0] 为静默窗口，arguments[1] 为最长等待时间）
+     */
+    private static final String PAGE_READY_SCRIPT = """
+            const done = arguments[arguments.length - 1];
+            const quietMs = arguments[0];
+            const timeoutMs = arguments[1];
+            const start = performance.now();
+            let lastChange = start;
+            let resourceCount = performance.getEntriesByType('resource').length;
+            const observer = new MutationObserver(() => { lastChange = performance.now(); });
+            observer.observe(document.documentElement || document,
+                { subtree: true, childList: true, attributes: true, characterData: true });
+            let fontsReady = !document.fonts;
+            if (document.fonts) {
+                document.fonts.ready.then(() => { fontsReady = true; });
+            }
+            const finish = (result) => { observer.disconnect(); done(result); };
+            const imagesLoaded = () => Array.from(document.images).every((img) => img.complete);
+            const decodeImages = () => Promise.all(Array.from(document.images)
+                .map((img) => img.decode ? img.decode().catch(() => null) : null));
+            const check = () => {
+                const now = performance.now();
+                const currentResourceCount = performance.getEntriesByType('resource').length;
+                if (currentResourceCount !== resourceCount) {
+                    resourceCount = currentResourceCount;
+                    lastChange = now;
+                }
+                if (now - start >= timeoutMs) {
+                    finish('timeout');
+                    return;
+                }
+                if (document.readyState === 'complete' && fontsReady && imagesLoaded() && now - lastChange >= quietMs) {
+                    const remaining = Math.max(0, timeoutMs - (now - start));
+                    Promise.race([
+                        decodeImages().then(() => 'ready'),
+                        new Promise((resolve) => setTimeout(() => resolve('timeout'), remaining))
+                    ]).then(finish);
+                    return;
+                }
+                setTimeout(check, 50);
+            };
+            check();
+            """;
+
+    /**
+     * 默认浏览器实例，仅供 {@link #saveWebPageScreenshot(String)} 使用，首次使用时才创建
+     * 服务内的截图统一走 ScreenshotWorkerPool
+     */
+    private static class DefaultDriverHolder {
+
+        private static final WebDriver webDriver;
+
+        static {
+            final int DEFAULT_WIDTH = 1600;
+            final int DEFAULT_HEIGHT = 900;
+            webDriver = initChromeDriver(DEFAULT_WIDTH, DEFAULT_HEIGHT);
+            // JVM 关闭时销毁浏览器驱动程序
+            Runtime.getRuntime().addShutdownHook(new Thread(webDriver::quit));
+        }
     }
 
     /**
-     * 生成网页截图
+     * 生成网页截图（使用默认浏览器实例，串行执行）
      * @param webUrl
-     * @return
+     * @return 压缩后的截图路径，失败返回 null
      */
     public static String saveWebPageScreenshot(String webUrl) {
         // 1、非空校验
@@ -48,33 +108,11 @@ public class WebScreenshotUtils {
             return null;
         }
         try {
-            // 2、创建临时目录
-            String rootPath = System.getProperty("user.dir") + "/tmp/screenshots/" + UUID.randomUUID().toString().substring(0, 8);
-            FileUtil.mkdir(rootPath);
-
-            // 图片后缀
-            final String IMAGE_SUFFIX = ".png";
-            // 原始图片保存路径
-            String imageSavePath = rootPath + File.separator + RandomUtil.randomNumbers(5) + IMAGE_SUFFIX;
-            // 访问网页
-            webDriver.get(webUrl);
-            // 等待网页加载完毕
-            waitForPageLoad(webDriver);
-            // 截图
-            byte[] screenshotBytes = ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BYTES);
-            // 保存原始图片
-            saveImage(screenshotBytes, imageSavePath);
-            log.info("原始图片保存成功: {}", imageSavePath);
-            // 压缩图片
-            final String COMPRESSED_IMAGE_SUFFIX = "_compressed.jpg";
-            // 压缩图片保存路径
-            String compressedImageSavePath = rootPath + File.separator + RandomUtil.randomNumbers(5) + COMPRESSED_IMAGE_SUFFIX;
-            // 压缩操作
-            compressImage(imageSavePath, compressedImageSavePath);
-            log.info("压缩图片保存成功: {}", compressedImageSavePath);
-            // 删除原始图片
-            FileUtil.del(imageSavePath);
-            return compressedImageSavePath;
+            byte[] screenshotBytes;
+            synchronized (DefaultDriverHolder.class) {
+                screenshotBytes = captureScreenshot(DefaultDriverHolder.webDriver, webUrl);
+            }
+            return saveCompressedScreenshot(screenshotBytes);
         } catch(Exception e) {
             log.error("网页截图失败: {}", webUrl, e);
             return null;
@@ -82,18 +120,43 @@ public class WebScreenshotUtils {
     }
 
     /**
-     * 当JVM关闭的时候，会执行的操作
+     * 使用指定的浏览器实例截图
+     * @param webDriver 浏览器驱动（调用方保证同一时刻只有一个线程使用）
+     * @param webUrl 网页地址
+     * @return PNG 图片字节
      */
-    @PreDestroy
-    public void destroy() {
-        // 销毁浏览器驱动程序
-        webDriver.quit();
+    public static byte[] captureScreenshot(WebDriver webDriver, String webUrl) {
+        // 访问网页
+        webDriver.get(webUrl);
+        // 等待网页加载完毕
+        waitForPageLoad(webDriver);
+        // 截图
+        return ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BYTES);
+    }
+
+    /**
+     * 把截图压缩后保存到临时目录（压缩在内存中完成，只写入压缩后的图片）
+     * @param screenshotBytes PNG 图片字节
+     * @return 压缩后的截图路径
+     */
+    public static String saveCompressedScreenshot(byte[] screenshotBytes) {
+        // 2、创建临时目录
+        String rootPath = System.getProperty("user.dir") + "/tmp/screenshots/" + UUID.randomUUID().toString().substring(0, 8);
+        FileUtil.mkdir(rootPath);
+        // 压缩图片
+        final String COMPRESSED_IMAGE_SUFFIX = "_compressed.jpg";
+        // 压缩图片保存路径
+        String compressedImageSavePath = rootPath + File.separator + RandomUtil.randomNumbers(5) + COMPRESSED_IMAGE_SUFFIX;
+        // 压缩并保存
+        saveImage(ImageCompressUtils.compressToJpeg(screenshotBytes), compressedImageSavePath);
+        log.info("压缩图片保存成功: {}", compressedImageSavePath);
+        return compressedImageSavePath;
     }
 
     /**
      * 初始化 Chrome 浏览器驱动
      */
-    private static WebDriver initChromeDriver(int width, int height) {
+    public static WebDriver initChromeDriver(int width, int height) {
         try {
             // 自动管理 ChromeDriver
             WebDriverManager.chromedriver().setup();
@@ -117,8 +180,8 @@ public class WebScreenshotUtils {
             WebDriver driver = new ChromeDriver(options);
             // 设置页面加载超时
             driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-            // 设置隐式等待
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+            // 页面就绪检测脚本的超时时间（脚本自身在 PAGE_READY_TIMEOUT_MS 后返回）
+            driver.manage().timeouts().scriptTimeout(Duration.ofMillis(PAGE_READY_TIMEOUT_MS + 2000));
             return driver;
         } catch (Exception e) {
             log.error("初始化 Chrome 浏览器失败", e);
@@ -127,9 +190,9 @@ public class WebScreenshotUtils {
     }
 
     /**
-     * 保存原始图片到本地
-     * @param imageBytes 原始文件字节流
-     * @param imagePath 原始文件路径
+     * 保存图片到本地
+     * @param imageBytes 图片字节
+     * @param imagePath 图片路径
      */
     private static void saveImage(byte[] imageBytes, String imagePath) {
         try {
@@ -141,42 +204,17 @@ public class WebScreenshotUtils {
     }
 
     /**
-     * 压缩图片
-     * @param originImagePath 原始文件路径
-     * @param compressedImagePath 希望压缩后的文件路径
-     */
-    private static void compressImage(String originImagePath, String compressedImagePath) {
-        // 压缩图片质量(0.1 = 10%)
-        final float COMPRESSION_QUALITY = 0.3f;
-        try {
-            // FileUtil.file: 什么意思
-            ImgUtil.compress(
-                    FileUtil.file(originImagePath),
-                    FileUtil.file(compressedImagePath),
-                    COMPRESSION_QUALITY
-            );
-        } catch(Exception e) {
-            log.error("压缩图片失败,原始路径: {},希望压缩后的文件路径: {}", originImagePath, compressedImagePath, e);
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "保存图片失败");
-        }
-    }
-
-    /**
-     * 等待页面加载完成
+     * 等待页面就绪
+     * 注入脚本判断: 文档加载完成、字体就绪、图片加载完成，并且 DOM 和网络资源在 {@link #PAGE_QUIET_WINDOW_MS} 内没有变化，
+     * 满足后等待图片解码再返回；最长等待 {@link #PAGE_READY_TIMEOUT_MS}，超时后照常截图。
      * @param webDriver 驱动程序
      */
     private static void waitForPageLoad(WebDriver webDriver) {
+        long startTime = System.currentTimeMillis();
         try {
-            // 创建等待页面加载对象
-            WebDriverWait wait = new WebDriverWait(webDriver, Duration.ofSeconds(10));
-            // 等待 document.readyState === 'complete'
-            wait.until(driver -> ((JavascriptExecutor) driver)
-                    .executeScript("return document.readyState")
-                    .equals("complete")
-            );
-            // 额外等待一段时间，确保动态内容加载完成
-            Thread.sleep(2000);
-            log.info("页面加载完毕");
+            Object result = ((JavascriptExecutor) webDriver)
+                    .executeAsyncScript(PAGE_READY_SCRIPT, PAGE_QUIET_WINDOW_MS, PAGE_READY_TIMEOUT_MS);
+            log.info("页面加载完毕: {}, 耗时 {} ms", result, System.currentTimeMillis() - startTime);
         } catch(Exception e) {
             log.error("等待页面加载时出现异常，继续执行截图", e);
         }
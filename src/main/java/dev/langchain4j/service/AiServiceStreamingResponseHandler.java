@@ -1,5 +1,7 @@
 package dev.langchain4j.service;
 
+import com.wjp.waicodermotherbackend.config.ToolExecutionConfig;
+import com.wjp.waicodermotherbackend.core.vfs.ProjectFileSystem;
 import dev.langchain4j.Internal;
 import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import dev.langchain4j.agent.tool.ToolSpecification;
@@ -9,6 +11,7 @@ import dev.langchain4j.data.message.ToolExecutionResultMessage;
 import dev.langchain4j.guardrail.ChatExecutor;
 import dev.langchain4j.guardrail.GuardrailRequestParams;
 import dev.langchain4j.guardrail.OutputGuardrailRequest;
+import dev.langchain4j.internal.Json;
 import dev.langchain4j.memory.ChatMemory;
 import dev.langchain4j.model.chat.request.ChatRequest;
 import dev.langchain4j.model.chat.response.ChatResponse;
@@ -19,9 +22,16 @@ import dev.langchain4j.service.tool.ToolExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -114,26 +124,40 @@ class AiServiceStreamingResponseHandler implements StreamingChatResponseHandler
     @Override
     public void onCompleteResponse(ChatResponse completeResponse) {
         AiMessage aiMessage = completeResponse.aiMessage();
-        addToMemory(aiMessage);
+        // batched mode: the AI message and all tool results of this turn are committed to memory in one write
+        boolean batchCommit = aiMessage.hasToolExecutionRequests()
+                && ToolExecutionConfig.getInstance().isBatchMemoryCommit();
+        List<ChatMessage> pendingMessages = new ArrayList<>();
+        if (batchCommit) {
+            pendingMessages.add(aiMessage);
+        } else {
+            addToMemory(aiMessage);
+        }
 
         if (aiMessage.hasToolExecutionRequests()) {
-            for (ToolExecutionRequest toolExecutionRequest : aiMessage.toolExecutionRequests()) {
-                String toolName = toolExecutionRequest.name();
-                ToolExecutor toolExecutor = toolExecutors.get(toolName);
-                String toolExecutionResult = toolExecutor.execute(toolExecutionRequest, memoryId);
+            List<ToolExecutionRequest> toolExecutionRequests = aiMessage.toolExecutionRequests();
+            List<String> toolExecutionResults;
+            try {
+                toolExecutionResults = executeTools(toolExecutionRequests);
+            } finally {
+                syncToolWrites();
+            }
+            for (int i = 0; i < toolExecutionRequests.size(); i++) {
+                ToolExecutionRequest toolExecutionRequest = toolExecutionRequests.get(i);
+                String toolExecutionResult = toolExecutionResults.get(i);
                 ToolExecutionResultMessage toolExecutionResultMessage =
                         ToolExecutionResultMessage.from(toolExecutionRequest, toolExecutionResult);
-                addToMemory(toolExecutionResultMessage);
-
-                if (toolExecutionHandler != null) {
-                    ToolExecution toolExecution = ToolExecution.builder()
-                            .request(toolExecutionRequest)
-                            .result(toolExecutionResult)
-                            .build();
-                    toolExecutionHandler.accept(toolExecution);
+                if (batchCommit) {
+                    pendingMessages.add(toolExecutionResultMessage);
+                } else {
+                    addToMemory(toolExecutionResultMessage);
                 }
             }
 
+            if (batchCommit) {
+                getMemory().add(pendingMessages);
+            }
+
             ChatRequest chatRequest = ChatRequest.builder()
                     .messages(messagesToSend(memoryId))
                     .toolSpecifications(toolSpecifications)
@@ -199,6 +223,126 @@ class AiServiceStreamingResponseHandler implements StreamingChatResponseHandler
         }
     }
 
+    /**
+     * Executes the tool requests of one model turn and returns the results in the original request order.
+     * The tool execution handler is notified as soon as each tool returns, not at the end of the turn.
+     * In parallel mode, requests are fanned out on virtual threads, grouped by the file path argument so that
+     * requests touching the same file still run in order; requests without a path argument act as barriers.
+     */
+    private List<String> executeTools(List<ToolExecutionRequest> toolExecutionRequests) {
+        ToolExecutionConfig config = ToolExecutionConfig.getInstance();
+        if (!config.isParallel() || toolExecutionRequests.size() < 2) {
+            List<String> results = new ArrayList<>(toolExecutionRequests.size());
+            for (ToolExecutionRequest toolExecutionRequest : toolExecutionRequests) {
+                results.add(executeAndNotify(toolExecutionRequest));
+            }
+            return results;
+        }
+
+        String[] results = new String[toolExecutionRequests.size()];
+        Map<String, List<Integer>> segment = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < toolExecutionRequests.size(); i++) {
+                String pathKey = pathKey(toolExecutionRequests.get(i), config.getPathArguments());
+                if (pathKey == null) {
+                    executeSegment(executor, toolExecutionRequests, segment, results);
+                    segment.clear();
+                    results[i] = executeAndNotify(toolExecutionRequests.get(i));
+                } else {
+                    segment.computeIfAbsent(pathKey, key -> new ArrayList<>()).add(i);
+                }
+            }
+            executeSegment(executor, toolExecutionRequests, segment, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void executeSegment(ExecutorService executor,
+                                List<ToolExecutionRequest> toolExecutionRequests,
+                                Map<String, List<Integer>> segment,
+                                String[] results) {
+        if (segment.isEmpty()) {
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(segment.size());
+        for (List<Integer> indexes : segment.values()) {
+            futures.add(executor.submit(() -> {
+                for (int index : indexes) {
+                    results[index] = executeAndNotify(toolExecutionRequests.get(index));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new RuntimeException(cause);
+            }
+        }
+    }
+
+    /**
+     * Group commit: flushes the files written by the tools of this turn to disk in one go
+     * (no-op unless project-file-write.sync-mode is TURN).
+     */
+    private void syncToolWrites() {
+        ProjectFileSystem fileSystem = ProjectFileSystem.getInstance();
+        if (fileSystem != null && memoryId instanceof Long appId) {
+            fileSystem.sync(appId);
+        }
+    }
+
+    /**
+     * Executes one tool and immediately reports it to the tool execution handler.
+     * Notifications are serialized because parallel tools finish on different threads.
+     */
+    private String executeAndNotify(ToolExecutionRequest toolExecutionRequest) {
+        String toolExecutionResult = executeTool(toolExecutionRequest);
+        if (toolExecutionHandler != null) {
+            ToolExecution toolExecution = ToolExecution.builder()
+                    .request(toolExecutionRequest)
+                    .result(toolExecutionResult)
+                    .build();
+            synchronized (toolExecutionHandler) {
+                toolExecutionHandler.accept(toolExecution);
+            }
+        }
+        return toolExecutionResult;
+    }
+
+    private String executeTool(ToolExecutionRequest toolExecutionRequest) {
+        ToolExecutor toolExecutor = toolExecutors.get(toolExecutionRequest.name());
+        return toolExecutor.execute(toolExecutionRequest, memoryId);
+    }
+
+    /**
+     * Returns the normalized file path targeted by the tool request, or null if it has no path argument.
+     */
+    private static String pathKey(ToolExecutionRequest toolExecutionRequest, List<String> pathArguments) {
+        String arguments = toolExecutionRequest.arguments();
+        if (arguments == null || arguments.isBlank()) {
+            return null;
+        }
+        try {
+            Map<?, ?> argumentMap = Json.fromJson(arguments, Map.class);
+            for (String pathArgument : pathArguments) {
+                if (argumentMap.get(pathArgument) instanceof String path && !path.isBlank()) {
+                    return Paths.get(path).normalize().toString();
+                }
+            }
+        } catch (Exception e) {
+            LOG.debug("Cannot parse tool arguments, executing '{}' as a barrier", toolExecutionRequest.name(), e);
+        }
+        return null;
+    }
+
     private ChatMemory getMemory() {
         return getMemory(memoryId);
     }
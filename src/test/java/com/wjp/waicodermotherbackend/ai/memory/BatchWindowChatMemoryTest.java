@@ -0,0 +1,94 @@
+package com.wjp.waicodermotherbackend.ai.memory;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+import dev.langchain4j.store.memory.chat.InMemoryChatMemoryStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 批量提交窗口记忆测试
+ */
+class BatchWindowChatMemoryTest {
+
+    @Test
+    void evictionMatchesMessageWindowChatMemory() {
+        MessageWindowChatMemory expected = MessageWindowChatMemory.builder()
+                .id(1L)
+                .maxMessages(5)
+                .chatMemoryStore(new InMemoryChatMemoryStore())
+                .build();
+        BatchWindowChatMemory actual = new BatchWindowChatMemory(1L, 5, new InMemoryChatMemoryStore());
+        for (ChatMessage message : conversation()) {
+            expected.add(message);
+            actual.add(message);
+            assertEquals(expected.messages(), actual.messages());
+        }
+    }
+
+    @Test
+    void batchAddWritesStoreOnce() {
+        AtomicInteger writes = new AtomicInteger();
+        AtomicInteger reads = new AtomicInteger();
+        InMemoryChatMemoryStore store = new InMemoryChatMemoryStore() {
+            @Override
+            public List<ChatMessage> getMessages(Object memoryId) {
+                reads.incrementAndGet();
+                return super.getMessages(memoryId);
+            }
+
+            @Override
+            public void updateMessages(Object memoryId, List<ChatMessage> messages) {
+                writes.incrementAndGet();
+                super.updateMessages(memoryId, messages);
+            }
+        };
+        BatchWindowChatMemory memory = new BatchWindowChatMemory(1L, 100, store);
+        memory.add(conversation());
+        memory.messages();
+        memory.messages();
+
+        assertEquals(1, writes.get());
+        assertEquals(1, reads.get());
+        assertEquals(memory.messages(), store.getMessages(1L));
+    }
+
+    @Test
+    void loadExistingWindowFromStore() {
+        InMemoryChatMemoryStore store = new InMemoryChatMemoryStore();
+        BatchWindowChatMemory memory = new BatchWindowChatMemory(1L, 100, store);
+        memory.add(conversation());
+        BatchWindowChatMemory reloaded = new BatchWindowChatMemory(1L, 100, store);
+        assertEquals(memory.messages(), reloaded.messages());
+        reloaded.clear();
+        assertTrue(reloaded.messages().isEmpty());
+        assertTrue(store.getMessages(1L).isEmpty());
+    }
+
+    private List<ChatMessage> conversation() {
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(SystemMessage.from("你是一个前端工程师"));
+        messages.add(UserMessage.from("生成一个页面"));
+        ToolExecutionRequest first = ToolExecutionRequest.builder().id("1").name("writeFile").arguments("{}").build();
+        ToolExecutionRequest second = ToolExecutionRequest.builder().id("2").name("writeFile").arguments("{}").build();
+        messages.add(AiMessage.from(first, second));
+        messages.add(ToolExecutionResultMessage.from(first, "ok"));
+        messages.add(ToolExecutionResultMessage.from(second, "ok"));
+        messages.add(AiMessage.from("完成"));
+        messages.add(SystemMessage.from("你是一个前端工程师"));
+        messages.add(UserMessage.from("改一下颜色"));
+        messages.add(SystemMessage.from("你是一个资深前端工程师"));
+        messages.add(AiMessage.from("已修改"));
+        return messages;
+    }
+}
@@ -0,0 +1,117 @@
+package com.wjp.waicodermotherbackend.core;
+
+import com.wjp.waicodermotherbackend.ai.model.HtmlCodeResult;
+import com.wjp.waicodermotherbackend.ai.model.MultiFileCodeResult;
+import com.wjp.waicodermotherbackend.core.parser.HtmlCodeParser;
+import com.wjp.waicodermotherbackend.core.parser.MultiFileCodeParser;
+import com.wjp.waicodermotherbackend.core.parser.StreamingCodeParser;
+import com.wjp.waicodermotherbackend.model.enums.CodeGenTypeEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 流式代码解析器测试
+ */
+class StreamingCodeParserTest {
+
+    private static final String MULTI_FILE_CONTENT = """
+            创建一个完整的网页：
+            ```html
+            <!DOCTYPE html>
+            <html>
+            <head>
+                <link rel="stylesheet" href="style.css">
+            </head>
+            <body>
+                <h1>欢迎使用 `code`</h1>
+                <script src="script.js"></script>
+            </body>
+            </html>
+            ```
+            ```css
+            h1 {
+                color: blue;
+            }
+            ```
+            ```javascript
+            console.log(`页面加载完成`);
+            ```
+            ```css
+            h2 { color: red; }
+            ```
+            文件创建完成！
+            """;
+
+    @Test
+    void parseMultiFileCodeWithAnyChunkBoundary() {
+        MultiFileCodeResult expected = new MultiFileCodeParser().parseCode(MULTI_FILE_CONTENT);
+        // 在每一个位置切分，结果都应该与整体解析一致
+        for (int split = 0; split <= MULTI_FILE_CONTENT.length(); split++) {
+            Map<String, String> files = parse(CodeGenTypeEnum.MULTI_FILE,
+                    MULTI_FILE_CONTENT.substring(0, split), MULTI_FILE_CONTENT.substring(split));
+            assertEquals(expected.getHtmlCode(), files.get("index.html"), "split at " + split);
+            assertEquals(expected.getCssCode(), files.get("style.css"), "split at " + split);
+            assertEquals(expected.getJsCode(), files.get("script.js"), "split at " + split);
+        }
+    }
+
+    @Test
+    void parseMultiFileCodeCharByChar() {
+        MultiFileCodeResult expected = new MultiFileCodeParser().parseCode(MULTI_FILE_CONTENT);
+        Map<String, String> files = parse(CodeGenTypeEnum.MULTI_FILE, MULTI_FILE_CONTENT.split(""));
+        assertEquals(expected.getHtmlCode(), files.get("index.html"));
+        assertEquals(expected.getCssCode(), files.get("style.css"));
+        assertEquals(expected.getJsCode(), files.get("script.js"));
+    }
+
+    @Test
+    void parseHtmlCodeIgnoresOtherLanguages() {
+        Map<String, String> files = parse(CodeGenTypeEnum.HTML, MULTI_FILE_CONTENT);
+        HtmlCodeResult expected = new HtmlCodeParser().parseCode(MULTI_FILE_CONTENT);
+        assertEquals(expected.getHtmlCode(), files.get("index.html"));
+        assertEquals(1, files.size());
+    }
+
+    @Test
+    void parseHtmlCodeWithoutFence() {
+        String content = "  <html><body>没有代码块</body></html>\n";
+        Map<String, String> files = parse(CodeGenTypeEnum.HTML, content.substring(0, 7), content.substring(7));
+        assertEquals(new HtmlCodeParser().parseCode(content).getHtmlCode(), files.get("index.html"));
+    }
+
+    @Test
+    void parseUnclosedBlock() {
+        Map<String, String> files = parse(CodeGenTypeEnum.MULTI_FILE, "```html\n<h1>未闭合</h1>\n``");
+        assertEquals("<h1>未闭合</h1>\n``", files.get("index.html"));
+    }
+
+    private Map<String, String> parse(CodeGenTypeEnum codeGenType, String... chunks) {
+        Map<String, StringBuilder> files = new HashMap<>();
+        StreamingCodeParser parser = new StreamingCodeParser(codeGenType, new StreamingCodeParser.CodeBlockSink() {
+            @Override
+            public void open(String fileName) {
+                files.put(fileName, new StringBuilder());
+            }
+
+            @Override
+            public void append(String fileName, CharSequence content) {
+                files.get(fileName).append(content);
+            }
+
+            @Override
+            public void close(String fileName) {
+            }
+        });
+        for (String chunk : chunks) {
+            parser.feed(chunk);
+        }
+        parser.finish();
+        Map<String, String> result = new HashMap<>();
+        files.forEach((name, builder) -> result.put(name, builder.toString()));
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+package com.wjp.waicodermotherbackend.core.builder;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 构建日志通知器测试
+ */
+class BuildLogNotifierTest {
+
+    private final BuildLogNotifier notifier = new BuildLogNotifier();
+
+    @Test
+    void lateSubscriberReplaysFinishedBuild() {
+        notifier.start("/tmp/code_output/vue_project_1");
+        notifier.log("/tmp/code_output/vue_project_1", "vite v5.0.0 building for production...");
+        notifier.finish("/tmp/code_output/vue_project_1", false, "npm run build 执行失败");
+        List<BuildLogMessage> messages = notifier.subscribe("/tmp/code_output/../code_output/vue_project_1")
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        assertNotNull(messages);
+        assertEquals(List.of(BuildLogMessage.TYPE_START, BuildLogMessage.TYPE_LOG, BuildLogMessage.TYPE_END),
+                messages.stream().map(BuildLogMessage::getType).toList());
+        assertFalse(messages.get(2).getSuccess());
+    }
+
+    @Test
+    void earlySubscriberWaitsForNextBuild() {
+        var result = notifier.subscribe("/tmp/code_output/vue_project_2").collectList().toFuture();
+        assertFalse(result.isDone());
+        notifier.start("/tmp/code_output/vue_project_2");
+        notifier.log("/tmp/code_output/vue_project_2", "added 30 packages");
+        notifier.finish("/tmp/code_output/vue_project_2", true, "构建成功");
+        List<BuildLogMessage> messages = result.join();
+        assertEquals(3, messages.size());
+        assertEquals("added 30 packages", messages.get(1).getLine());
+        assertTrue(messages.get(2).getSuccess());
+    }
+
+    @Test
+    void newBuildReplacesFinishedLog() {
+        notifier.start("/tmp/code_output/vue_project_3");
+        notifier.log("/tmp/code_output/vue_project_3", "old output");
+        notifier.finish("/tmp/code_output/vue_project_3", false, "失败");
+        notifier.start("/tmp/code_output/vue_project_3");
+        notifier.finish("/tmp/code_output/vue_project_3", true, "构建成功");
+        List<BuildLogMessage> messages = notifier.subscribe("/tmp/code_output/vue_project_3")
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        assertNotNull(messages);
+        assertEquals(2, messages.size());
+        assertTrue(messages.stream().noneMatch(message -> "old output".equals(message.getLine())));
+    }
+}
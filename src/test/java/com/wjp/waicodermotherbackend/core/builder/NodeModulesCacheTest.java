@@ -0,0 +1,97 @@
+package com.wjp.waicodermotherbackend.core.builder;
+
+import com.wjp.waicodermotherbackend.config.VueBuildCacheConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * node_modules 共享缓存测试（使用假的安装命令）
+ */
+class NodeModulesCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger installs = new AtomicInteger();
+
+    /**
+     * 假的 npm install: 在 node_modules 中写入 package.json 的内容
+     */
+    private final Predicate<File> installer = dir -> {
+        installs.incrementAndGet();
+        try {
+            Path modules = Files.createDirectories(dir.toPath().resolve("node_modules"));
+            Files.copy(dir.toPath().resolve("package.json"), modules.resolve("installed.json"));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    };
+
+    @Test
+    void sameDependenciesInstallOnce() throws IOException {
+        NodeModulesCache cache = newCache(10);
+        Path first = createProject("vue_project_1", "{\"dependencies\":{\"vue\":\"^3.3.4\"}}");
+        Path second = createProject("vue_project_2", "{\"dependencies\":{\"vue\":\"^3.3.4\"}}");
+        assertTrue(cache.prepare(first.toFile(), installer));
+        assertTrue(cache.prepare(second.toFile(), installer));
+        // 重复构建同一个项目
+        assertTrue(cache.prepare(second.toFile(), installer));
+        assertEquals(1, installs.get());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(Files.readString(first.resolve("package.json")),
+                Files.readString(second.resolve("node_modules/installed.json")));
+    }
+
+    @Test
+    void differentDependenciesInstallSeparately() throws IOException {
+        NodeModulesCache cache = newCache(10);
+        Path first = createProject("vue_project_1", "{\"dependencies\":{\"vue\":\"^3.3.4\"}}");
+        Path second = createProject("vue_project_2", "{\"dependencies\":{\"vue\":\"^3.4.0\"}}");
+        assertTrue(cache.prepare(first.toFile(), installer));
+        assertTrue(cache.prepare(second.toFile(), installer));
+        assertEquals(2, installs.get());
+        assertTrue(Files.readString(second.resolve("node_modules/installed.json")).contains("3.4.0"));
+        // 项目中已有的独立 node_modules 被替换为共享缓存
+        Path third = createProject("vue_project_3", "{\"dependencies\":{\"vue\":\"^3.3.4\"}}");
+        Files.createDirectories(third.resolve("node_modules/stale"));
+        assertTrue(cache.prepare(third.toFile(), installer));
+        assertEquals(2, installs.get());
+        assertFalse(Files.exists(third.resolve("node_modules/stale")));
+    }
+
+    @Test
+    void failedInstallIsNotCached() throws IOException {
+        NodeModulesCache cache = newCache(10);
+        Path project = createProject("vue_project_1", "{}");
+        assertFalse(cache.prepare(project.toFile(), dir -> false));
+        try (var children = Files.list(tempDir.resolve("cache"))) {
+            assertEquals(0, children.count());
+        }
+        assertTrue(cache.prepare(project.toFile(), installer));
+        assertEquals(1, installs.get());
+    }
+
+    private NodeModulesCache newCache(int maxEntries) {
+        VueBuildCacheConfig config = new VueBuildCacheConfig();
+        config.setEnabled(true);
+        config.setCacheDir(tempDir.resolve("cache").toString());
+        config.setMaxEntries(maxEntries);
+        return new NodeModulesCache(config);
+    }
+
+    private Path createProject(String name, String packageJson) throws IOException {
+        Path project = Files.createDirectories(tempDir.resolve(name));
+        Files.writeString(project.resolve("package.json"), packageJson);
+        return project;
+    }
+}
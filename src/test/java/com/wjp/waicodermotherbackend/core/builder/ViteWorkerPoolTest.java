@@ -0,0 +1,123 @@
+package com.wjp.waicodermotherbackend.core.builder;
+
+import com.wjp.waicodermotherbackend.config.ViteWorkerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 常驻 Vite 构建进程池测试（使用假的构建脚本，需要本机安装 Node）
+ */
+class ViteWorkerPoolTest {
+
+    private ViteWorkerPool pool;
+
+    private final List<String> logs = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void requireNode() {
+        boolean nodeAvailable;
+        try {
+            nodeAvailable = new ProcessBuilder("node", "--version").start().waitFor() == 0;
+        } catch (Exception e) {
+            nodeAvailable = false;
+        }
+        assumeTrue(nodeAvailable, "本机没有 Node，跳过");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.stop();
+        }
+    }
+
+    @Test
+    void reuseWarmWorkerAcrossBuilds() {
+        pool = newPool(1, 100);
+        assertEquals(ViteWorkerPool.BuildOutcome.SUCCESS, pool.build(new File("/tmp/vue_project_1"), logs::add));
+        assertEquals(ViteWorkerPool.BuildOutcome.SUCCESS, pool.build(new File("/tmp/vue_project_2"), logs::add));
+        List<String> progress = logs.stream().filter(line -> line.startsWith("pid=")).toList();
+        assertEquals(2, progress.size());
+        // 同一个进程处理了两次构建
+        assertEquals(pid(progress.get(0)), pid(progress.get(1)));
+        assertTrue(progress.get(1).endsWith("builds=2"));
+    }
+
+    @Test
+    void reportFailureAndUnsupportedProjects() {
+        pool = newPool(1, 100);
+        assertEquals(ViteWorkerPool.BuildOutcome.FAILED, pool.build(new File("/tmp/vue_project_fail"), logs::add));
+        assertTrue(logs.contains("build failed"));
+        assertEquals(ViteWorkerPool.BuildOutcome.UNAVAILABLE, pool.build(new File("/tmp/vue_project_unsupported"), logs::add));
+    }
+
+    @Test
+    void restartWorkerAfterCrashOrTimeout() {
+        pool = newPool(1, 100);
+        assertEquals(ViteWorkerPool.BuildOutcome.UNAVAILABLE, pool.build(new File("/tmp/vue_project_crash"), logs::add));
+        assertEquals(ViteWorkerPool.BuildOutcome.FAILED, pool.build(new File("/tmp/vue_project_hang"), logs::add));
+        assertEquals(ViteWorkerPool.BuildOutcome.SUCCESS, pool.build(new File("/tmp/vue_project_1"), logs::add));
+        // 新进程从第一次构建开始计数
+        assertTrue(logs.stream().anyMatch(line -> line.endsWith("builds=1")));
+    }
+
+    @Test
+    void recycleWorkerAfterMaxBuilds() {
+        pool = newPool(1, 2);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(ViteWorkerPool.BuildOutcome.SUCCESS, pool.build(new File("/tmp/vue_project_" + i), logs::add));
+        }
+        List<String> progress = logs.stream().filter(line -> line.startsWith("pid=")).toList();
+        assertEquals(pid(progress.get(0)), pid(progress.get(1)));
+        assertNotEquals(pid(progress.get(1)), pid(progress.get(2)));
+    }
+
+    @Test
+    void builtinWorkerFallsBackWithoutVite(@TempDir Path tempDir) throws IOException {
+        ViteWorkerConfig config = new ViteWorkerConfig();
+        config.setEnabled(true);
+        config.setSize(1);
+        pool = new ViteWorkerPool(config);
+        // 没有安装 vite
+        Path project = Files.createDirectories(tempDir.resolve("vue_project_1"));
+        Files.writeString(project.resolve("package.json"), "{\"scripts\":{\"build\":\"vite build\"}}");
+        assertEquals(ViteWorkerPool.BuildOutcome.UNAVAILABLE, pool.build(project.toFile(), logs::add));
+        // 构建脚本不是纯 vite build
+        Files.writeString(project.resolve("package.json"), "{\"scripts\":{\"build\":\"vue-tsc && vite build\"}}");
+        assertEquals(ViteWorkerPool.BuildOutcome.UNAVAILABLE, pool.build(project.toFile(), logs::add));
+    }
+
+    @Test
+    void disabledPoolIsUnavailable() {
+        ViteWorkerConfig config = new ViteWorkerConfig();
+        pool = new ViteWorkerPool(config);
+        assertEquals(ViteWorkerPool.BuildOutcome.UNAVAILABLE, pool.build(new File("/tmp/vue_project_1"), logs::add));
+    }
+
+    private ViteWorkerPool newPool(int size, int maxBuildsPerWorker) {
+        ViteWorkerConfig config = new ViteWorkerConfig();
+        config.setEnabled(true);
+        config.setSize(size);
+        config.setMaxBuildsPerWorker(maxBuildsPerWorker);
+        config.setBuildTimeout(Duration.ofSeconds(2));
+        config.setScript(Path.of("src/test/resources/vite-worker/stub-build-worker.mjs").toAbsolutePath().toString());
+        return new ViteWorkerPool(config);
+    }
+
+    private static String pid(String progressLine) {
+        return progressLine.substring(0, progressLine.indexOf(' '));
+    }
+}
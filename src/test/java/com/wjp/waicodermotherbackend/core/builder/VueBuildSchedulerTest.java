@@ -0,0 +1,161 @@
+package com.wjp.waicodermotherbackend.core.builder;
+
+import com.wjp.waicodermotherbackend.config.VueBuildSchedulerConfig;
+import com.wjp.waicodermotherbackend.exception.BusinessException;
+import com.wjp.waicodermotherbackend.exception.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vue 构建调度器测试（使用假的构建过程）
+ */
+class VueBuildSchedulerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger builds = new AtomicInteger();
+
+    private VueBuildScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    void queuedDuplicatesCoalesceAndReportPosition() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Path blocker = createProject("vue_project_1");
+        Path project = createProject("vue_project_2");
+        scheduler = startScheduler(1, 10, path -> {
+            started.countDown();
+            await(release);
+            return fakeBuild(path);
+        });
+        CompletableFuture<Boolean> first = scheduler.submit(blocker.toString());
+        await(started);
+        CompletableFuture<Boolean> second = scheduler.submit(project.toString());
+        CompletableFuture<Boolean> third = scheduler.submit(project.toString());
+        assertSame(second, third);
+        assertEquals(0, scheduler.getQueuePosition(blocker.toString()));
+        assertEquals(1, scheduler.getQueuePosition(project.toString()));
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, builds.get());
+        assertEquals(-1, scheduler.getQueuePosition(project.toString()));
+    }
+
+    @Test
+    void rejectWhenQueueIsFull() {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler = startScheduler(1, 1, path -> {
+            started.countDown();
+            await(release);
+            return true;
+        });
+        scheduler.submit(tempDir.resolve("vue_project_1").toString());
+        await(started);
+        scheduler.submit(tempDir.resolve("vue_project_2").toString());
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> scheduler.submit(tempDir.resolve("vue_project_3").toString()));
+        assertEquals(ErrorCode.TOO_MANY_REQUEST.getCode(), exception.getCode());
+        release.countDown();
+    }
+
+    @Test
+    void reuseDistWhenSourcesUnchanged() throws Exception {
+        Path project = createProject("vue_project_1");
+        scheduler = startScheduler(2, 10, this::fakeBuild);
+        assertTrue(scheduler.build(project.toString()));
+        // 构建产物和依赖目录不影响源码摘要
+        Files.writeString(project.resolve("dist/extra.js"), "console.log(1)");
+        assertTrue(scheduler.build(project.toString()));
+        assertEquals(1, builds.get());
+        assertEquals(1L, scheduler.getMetrics().get("reused"));
+        // 修改源码后重新构建
+        Files.writeString(project.resolve("src/App.vue"), "<template>changed</template>");
+        assertTrue(scheduler.build(project.toString()));
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void sameProjectNeverBuildsConcurrently() throws Exception {
+        Path project = createProject("vue_project_1");
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler = startScheduler(4, 10, path -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            started.countDown();
+            await(release);
+            active.decrementAndGet();
+            builds.incrementAndGet();
+            return false;
+        });
+        CompletableFuture<Boolean> first = scheduler.submit(project.toString());
+        await(started);
+        // 构建进行中的新请求排在其后，而不是并发执行
+        CompletableFuture<Boolean> second = scheduler.submit(project.toString());
+        assertNotSame(first, second);
+        release.countDown();
+        assertFalse(first.get(5, TimeUnit.SECONDS));
+        assertFalse(second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, builds.get());
+        assertEquals(1, maxActive.get());
+    }
+
+    private boolean fakeBuild(String projectPath) {
+        builds.incrementAndGet();
+        try {
+            Files.createDirectories(Path.of(projectPath, "dist"));
+            Files.createDirectories(Path.of(projectPath, "node_modules"));
+            Files.writeString(Path.of(projectPath, "dist/index.html"), "<html></html>");
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private VueBuildScheduler startScheduler(int concurrency, int queueCapacity, Predicate<String> builder) {
+        VueBuildSchedulerConfig config = new VueBuildSchedulerConfig();
+        config.setConcurrency(concurrency);
+        config.setQueueCapacity(queueCapacity);
+        VueBuildScheduler buildScheduler = new VueBuildScheduler(config, builder);
+        buildScheduler.start();
+        return buildScheduler;
+    }
+
+    private Path createProject(String name) throws IOException {
+        Path project = Files.createDirectories(tempDir.resolve(name).resolve("src"));
+        Files.writeString(project.resolve("App.vue"), "<template>hello</template>");
+        Files.writeString(project.getParent().resolve("package.json"), "{}");
+        return project.getParent();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
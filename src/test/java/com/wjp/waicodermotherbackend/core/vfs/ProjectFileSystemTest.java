@@ -0,0 +1,157 @@
+package com.wjp.waicodermotherbackend.core.vfs;
+
+import com.wjp.waicodermotherbackend.config.ProjectFileCacheConfig;
+import com.wjp.waicodermotherbackend.config.ProjectFileWriteConfig;
+import com.wjp.waicodermotherbackend.config.ProjectFileWriteConfig.SyncMode;
+import com.wjp.waicodermotherbackend.utils.ProjectFileWalker;
+import com.wjp.waicodermotherbackend.utils.ProjectFileWalker.ProjectFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 项目虚拟文件系统测试
+ */
+class ProjectFileSystemTest {
+
+    private static final ProjectFileWalker WALKER = ProjectFileWalker.create()
+            .skipDirectories(Set.of("node_modules"));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readServesCachedContentUntilFileChanges() throws IOException {
+        ProjectFileSystem fileSystem = newFileSystem(new ProjectFileCacheConfig());
+        Path file = tempDir.resolve("src/App.vue");
+        assertTrue(fileSystem.writeString(1L, tempDir, file, "<template>a</template>"));
+        FileTime written = Files.getLastModifiedTime(file);
+
+        // 大小和修改时间不变时直接返回缓存内容
+        Files.writeString(file, "<template>b</template>");
+        Files.setLastModifiedTime(file, written);
+        assertEquals("<template>a</template>", fileSystem.readString(1L, tempDir, file));
+
+        // 修改时间变化后重新读取
+        Files.setLastModifiedTime(file, FileTime.fromMillis(written.toMillis() + 5000));
+        assertEquals("<template>b</template>", fileSystem.readString(1L, tempDir, file));
+        assertNull(fileSystem.readString(1L, tempDir, tempDir.resolve("src/missing.vue")));
+        assertNull(fileSystem.readString(1L, tempDir, tempDir.resolve("src")));
+    }
+
+    @Test
+    void writeSkipsUnchangedContent() throws IOException {
+        ProjectFileSystem fileSystem = newFileSystem(new ProjectFileCacheConfig());
+        Path file = tempDir.resolve("index.html");
+        assertTrue(fileSystem.writeString(1L, tempDir, file, "<html></html>"));
+        assertFalse(fileSystem.writeString(1L, tempDir, file, "<html></html>"));
+        assertTrue(fileSystem.writeString(1L, tempDir, file, "<html>new</html>"));
+        assertEquals("<html>new</html>", Files.readString(file));
+    }
+
+    @Test
+    void listingIsMaintainedIncrementally() throws IOException {
+        ProjectFileSystem fileSystem = newFileSystem(new ProjectFileCacheConfig());
+        Files.createDirectories(tempDir.resolve("node_modules/vue"));
+        Files.writeString(tempDir.resolve("node_modules/vue/index.js"), "");
+        fileSystem.writeString(1L, tempDir, tempDir.resolve("package.json"), "{}");
+        assertEquals(List.of("package.json"), relativePaths(fileSystem.listFiles(1L, tempDir, tempDir, WALKER)));
+
+        fileSystem.writeString(1L, tempDir, tempDir.resolve("src/components/Header.vue"), "<template/>");
+        fileSystem.writeString(1L, tempDir, tempDir.resolve("node_modules/vue/extra.js"), "");
+        assertEquals(List.of("package.json", "src/components/Header.vue"),
+                relativePaths(fileSystem.listFiles(1L, tempDir, tempDir, WALKER)));
+        List<ProjectFile> sub = fileSystem.listFiles(1L, tempDir, tempDir.resolve("src"), WALKER);
+        assertEquals(List.of("components/Header.vue"), relativePaths(sub));
+        assertEquals(1, sub.get(0).getDepth());
+
+        fileSystem.delete(1L, tempDir, tempDir.resolve("src/components/Header.vue"));
+        assertEquals(List.of("package.json"), relativePaths(fileSystem.listFiles(1L, tempDir, tempDir, WALKER)));
+    }
+
+    @Test
+    void listingDetectsExternalChanges() throws IOException {
+        ProjectFileSystem fileSystem = newFileSystem(new ProjectFileCacheConfig());
+        fileSystem.writeString(1L, tempDir, tempDir.resolve("src/main.js"), "");
+        assertEquals(List.of("src/main.js"), relativePaths(fileSystem.listFiles(1L, tempDir, tempDir, WALKER)));
+
+        Path src = tempDir.resolve("src");
+        FileTime before = Files.getLastModifiedTime(src);
+        Files.writeString(src.resolve("App.vue"), "");
+        Files.setLastModifiedTime(src, FileTime.fromMillis(before.toMillis() + 5000));
+        assertEquals(List.of("src/App.vue", "src/main.js"),
+                relativePaths(fileSystem.listFiles(1L, tempDir, tempDir, WALKER)));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedProject() throws IOException {
+        ProjectFileCacheConfig config = new ProjectFileCacheConfig();
+        config.setMaxSize(DataSize.ofBytes(25));
+        ProjectFileSystem fileSystem = newFileSystem(config);
+        Path first = tempDir.resolve("vue_project_1");
+        Path second = tempDir.resolve("vue_project_2");
+        Path third = tempDir.resolve("vue_project_3");
+        fileSystem.writeString(1L, first, first.resolve("a.js"), "0123456789");
+        fileSystem.writeString(2L, second, second.resolve("a.js"), "0123456789");
+        // 访问项目 1，项目 2 成为最久未使用
+        fileSystem.readString(1L, first, first.resolve("a.js"));
+        fileSystem.writeString(3L, third, third.resolve("a.js"), "0123456789");
+
+        assertTrue(fileSystem.isCached(1L));
+        assertFalse(fileSystem.isCached(2L));
+        assertTrue(fileSystem.isCached(3L));
+        assertEquals(20, fileSystem.getTotalBytes());
+    }
+
+    @Test
+    void writeReplacesFileAtomically() throws IOException {
+        ProjectFileSystem fileSystem = newFileSystem(new ProjectFileCacheConfig());
+        Path file = tempDir.resolve("src/App.vue");
+        fileSystem.writeString(1L, tempDir, file, "old content");
+        try (InputStream reader = Files.newInputStream(file)) {
+            fileSystem.writeString(1L, tempDir, file, "new content, longer than before");
+            // 已打开的读取方仍然读到完整的旧文件
+            assertEquals("old content", new String(reader.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals("new content, longer than before", Files.readString(file));
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void turnModeSyncsPendingWritesOnce() throws IOException {
+        ProjectFileWriteConfig writeConfig = new ProjectFileWriteConfig();
+        writeConfig.setSyncMode(SyncMode.TURN);
+        ProjectFileSystem fileSystem = new ProjectFileSystem(new ProjectFileCacheConfig(), writeConfig);
+        fileSystem.writeString(1L, tempDir, tempDir.resolve("src/a.js"), "a");
+        fileSystem.writeString(1L, tempDir, tempDir.resolve("src/b.js"), "b");
+        fileSystem.writeString(1L, tempDir, tempDir.resolve("index.html"), "<html/>");
+        fileSystem.delete(1L, tempDir, tempDir.resolve("src/b.js"));
+
+        // a.js、index.html 和两个目录，已删除的 b.js 跳过
+        assertEquals(4, fileSystem.sync(1L));
+        assertEquals(0, fileSystem.sync(1L));
+        assertEquals(0, fileSystem.sync(2L));
+    }
+
+    private static ProjectFileSystem newFileSystem(ProjectFileCacheConfig cacheConfig) {
+        return new ProjectFileSystem(cacheConfig, new ProjectFileWriteConfig());
+    }
+
+    private static List<String> relativePaths(List<ProjectFile> files) {
+        return files.stream().map(ProjectFile::getRelativePath).toList();
+    }
+}
@@ -0,0 +1,232 @@
+package com.wjp.waicodermotherbackend.manager;
+
+import com.wjp.waicodermotherbackend.config.ChatHistoryWriteConfig;
+import com.wjp.waicodermotherbackend.mapper.ChatHistoryMapper;
+import com.wjp.waicodermotherbackend.model.entity.ChatHistory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * 对话历史异步批量写入器测试（使用 Mock 的 Mapper）
+ */
+class ChatHistoryBatchWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ChatHistoryWriteConfig config;
+
+    private ChatHistoryMapper mapper;
+
+    /**
+     * 每次 insertBatch 收到的行（调用时复制，避免后续修改影响断言）
+     */
+    private final List<List<ChatHistory>> batches = new ArrayList<>();
+
+    private final List<ChatHistoryBatchWriter> writers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        config = new ChatHistoryWriteConfig();
+        config.setEnabled(true);
+        config.setBatchSize(100);
+        config.setFlushInterval(Duration.ofMinutes(1));
+        config.setSpillFile(tempDir.resolve("spill/chat_history_spill.jsonl").toString());
+        mapper = newMapper();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writers.forEach(ChatHistoryBatchWriter::stop);
+    }
+
+    @Test
+    void disabledWriterRejectsSubmit() {
+        config.setEnabled(false);
+        ChatHistoryBatchWriter writer = startWriter(mapper);
+        assertFalse(writer.submit(newMessage("hello")));
+        writer.flush();
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    void flushesWhenBatchSizeReached() {
+        config.setBatchSize(3);
+        ChatHistoryBatchWriter writer = startWriter(mapper);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(writer.submit(newMessage("message " + i)));
+        }
+        // 定时间隔为 1 分钟，数量达到 batchSize 时立即写入
+        verify(mapper, timeout(5000)).insertBatch(anyCollection());
+        assertEquals(List.of("message 0", "message 1", "message 2"), messages(batches.get(0)));
+    }
+
+    @Test
+    void flushesOnInterval() {
+        config.setFlushInterval(Duration.ofMillis(50));
+        ChatHistoryBatchWriter writer = startWriter(mapper);
+        ChatHistory chatHistory = newMessage("hello");
+        assertTrue(writer.submit(chatHistory));
+        // 入队时已确定 id 和时间
+        assertNotNull(chatHistory.getId());
+        assertNotNull(chatHistory.getCreateTime());
+        assertEquals(0, chatHistory.getIsDelete());
+
+        verify(mapper, timeout(5000)).insertBatch(anyCollection());
+        assertEquals(List.of("hello"), messages(batches.get(0)));
+    }
+
+    @Test
+    void flushSplitsByBatchSizeAndBytes() {
+        config.setBatchSize(Integer.MAX_VALUE);
+        ChatHistoryBatchWriter writer = startWriter(mapper);
+        for (String message : List.of("12345678", "abcdefgh", "a", "b")) {
+            assertTrue(writer.submit(newMessage(message)));
+        }
+        // 每条最多 2 行、30 字节（按 3 字节/字符估算，8 个字符为 24 字节）
+        config.setBatchSize(2);
+        config.setMaxBatchBytes(30);
+        writer.flush();
+        assertEquals(List.of(List.of("12345678"), List.of("abcdefgh", "a"), List.of("b")),
+                batches.stream().map(ChatHistoryBatchWriterTest::messages).toList());
+    }
+
+    @Test
+    void queueFullFallsBackToSynchronousWrite() {
+        config.setQueueCapacity(2);
+        ChatHistoryBatchWriter writer = startWriter(mapper);
+        assertTrue(writer.submit(newMessage("a")));
+        assertTrue(writer.submit(newMessage("b")));
+        // 队列已满，由调用方同步写入
+        assertFalse(writer.submit(newMessage("c")));
+        writer.flush();
+        assertEquals(List.of(List.of("a", "b")), batches.stream().map(ChatHistoryBatchWriterTest::messages).toList());
+    }
+
+    @Test
+    void stopWritesRemainingMessages() {
+        ChatHistoryBatchWriter writer = startWriter(mapper);
+        writer.submit(newMessage("a"));
+        writer.submit(newMessage("b"));
+        writer.stop();
+        assertEquals(List.of(List.of("a", "b")), batches.stream().map(ChatHistoryBatchWriterTest::messages).toList());
+        assertFalse(writer.submit(newMessage("c")));
+    }
+
+    @Test
+    void failedBatchIsSpilledAndReplayedOnStart() throws IOException {
+        ChatHistoryMapper failingMapper = mock(ChatHistoryMapper.class);
+        when(failingMapper.insertBatch(anyCollection())).thenThrow(new RuntimeException("database down"));
+        ChatHistoryBatchWriter writer = startWriter(failingMapper);
+        ChatHistory first = newMessage("第一条消息\n带换行");
+        ChatHistory second = newMessage("second");
+        writer.submit(first);
+        writer.submit(second);
+        writer.stop();
+
+        Path spillFile = Path.of(config.getSpillFile());
+        assertEquals(2, Files.readAllLines(spillFile).size());
+
+        // 重启后重放落盘文件
+        ChatHistoryBatchWriter restarted = startWriter(mapper);
+        restarted.stop();
+        assertEquals(1, batches.size());
+        List<ChatHistory> replayed = batches.get(0);
+        assertEquals(List.of(first.getId(), second.getId()), replayed.stream().map(ChatHistory::getId).toList());
+        assertEquals(List.of("第一条消息\n带换行", "second"), messages(replayed));
+        assertEquals(first.getAppId(), replayed.get(0).getAppId());
+        assertEquals(first.getUserId(), replayed.get(0).getUserId());
+        assertEquals(first.getMessageType(), replayed.get(0).getMessageType());
+        assertEquals(first.getCreateTime(), replayed.get(0).getCreateTime());
+        assertFalse(Files.exists(spillFile));
+        assertFalse(Files.exists(Path.of(config.getSpillFile() + ".replay")));
+    }
+
+    @Test
+    void interruptedReplaySkipsDuplicateKeys() throws IOException {
+        ChatHistoryMapper failingMapper = mock(ChatHistoryMapper.class);
+        when(failingMapper.insertBatch(anyCollection())).thenThrow(new RuntimeException("database down"));
+        ChatHistoryBatchWriter writer = startWriter(failingMapper);
+        ChatHistory written = newMessage("already written");
+        ChatHistory missing = newMessage("missing");
+        writer.submit(written);
+        writer.submit(missing);
+        writer.stop();
+        // 模拟上次重放中断：replay 文件还在，其中一条已经写入数据库
+        Path replayFile = Path.of(config.getSpillFile() + ".replay");
+        Files.move(Path.of(config.getSpillFile()), replayFile);
+
+        ChatHistoryMapper replayMapper = mock(ChatHistoryMapper.class);
+        when(replayMapper.insertBatch(anyCollection())).thenThrow(new DuplicateKeyException("duplicate"));
+        List<Long> inserted = new ArrayList<>();
+        when(replayMapper.insert(any(ChatHistory.class))).thenAnswer(invocation -> {
+            ChatHistory row = invocation.getArgument(0);
+            if (row.getId().equals(written.getId())) {
+                throw new DuplicateKeyException("duplicate");
+            }
+            inserted.add(row.getId());
+            return 1;
+        });
+        ChatHistoryBatchWriter restarted = startWriter(replayMapper);
+        restarted.stop();
+
+        verify(replayMapper, times(2)).insert(any(ChatHistory.class));
+        assertEquals(List.of(missing.getId()), inserted);
+        // 重复的跳过，不会再次落盘
+        assertFalse(Files.exists(replayFile));
+        assertFalse(Files.exists(Path.of(config.getSpillFile())));
+    }
+
+    private ChatHistoryMapper newMapper() {
+        ChatHistoryMapper chatHistoryMapper = mock(ChatHistoryMapper.class);
+        when(chatHistoryMapper.insertBatch(anyCollection())).thenAnswer(invocation -> {
+            Collection<ChatHistory> rows = invocation.getArgument(0);
+            synchronized (batches) {
+                batches.add(new ArrayList<>(rows));
+            }
+            return rows.size();
+        });
+        return chatHistoryMapper;
+    }
+
+    private ChatHistoryBatchWriter newWriter(ChatHistoryMapper chatHistoryMapper) {
+        ChatHistoryBatchWriter writer = new ChatHistoryBatchWriter(config, chatHistoryMapper);
+        writers.add(writer);
+        return writer;
+    }
+
+    private ChatHistoryBatchWriter startWriter(ChatHistoryMapper chatHistoryMapper) {
+        ChatHistoryBatchWriter writer = newWriter(chatHistoryMapper);
+        writer.start();
+        return writer;
+    }
+
+    private static ChatHistory newMessage(String message) {
+        return ChatHistory.builder()
+                .appId(1L)
+                .userId(2L)
+                .messageType("user")
+                .message(message)
+                .build();
+    }
+
+    private static List<String> messages(List<ChatHistory> rows) {
+        return rows.stream().map(ChatHistory::getMessage).toList();
+    }
+}
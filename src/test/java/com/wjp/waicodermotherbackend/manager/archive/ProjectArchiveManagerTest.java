@@ -0,0 +1,115 @@
+package com.wjp.waicodermotherbackend.manager.archive;
+
+import com.wjp.waicodermotherbackend.config.ProjectArchiveConfig;
+import com.wjp.waicodermotherbackend.manager.archive.ProjectArchiveManager.ProjectArchive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 项目压缩包缓存测试
+ */
+class ProjectArchiveManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ProjectArchiveManager manager;
+
+    private Path projectDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ProjectArchiveConfig config = new ProjectArchiveConfig();
+        config.setCacheDir(tempDir.resolve("archives").toString());
+        config.setParallelism(4);
+        manager = new ProjectArchiveManager(config);
+        projectDir = Files.createDirectories(tempDir.resolve("vue_project_1"));
+        Files.createDirectories(projectDir.resolve("src/components"));
+        for (int i = 0; i < 30; i++) {
+            Files.writeString(projectDir.resolve("src/components/Item" + i + ".vue"), "<template><div>组件 " + i + "</div></template>\n".repeat(50));
+        }
+        byte[] image = new byte[10000];
+        new Random(1).nextBytes(image);
+        Files.write(projectDir.resolve("src/logo.png"), image);
+        Files.createFile(projectDir.resolve("empty.txt"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.stop();
+    }
+
+    @Test
+    void archiveContainsAllFiles() throws IOException {
+        List<Path> files = listFiles();
+        ProjectArchive archive = manager.getArchive(projectDir, files);
+        archive.close();
+        try (ZipFile zipFile = new ZipFile(archive.getFile(), StandardCharsets.UTF_8)) {
+            assertEquals(files.size(), zipFile.size());
+            ZipEntry item = zipFile.getEntry("src/components/Item7.vue");
+            assertEquals(ZipEntry.DEFLATED, item.getMethod());
+            assertEquals(Files.readString(projectDir.resolve("src/components/Item7.vue")),
+                    new String(zipFile.getInputStream(item).readAllBytes(), StandardCharsets.UTF_8));
+            ZipEntry logo = zipFile.getEntry("src/logo.png");
+            assertEquals(ZipEntry.STORED, logo.getMethod());
+            assertArrayEquals(Files.readAllBytes(projectDir.resolve("src/logo.png")), zipFile.getInputStream(logo).readAllBytes());
+            assertEquals(0, zipFile.getInputStream(zipFile.getEntry("empty.txt")).readAllBytes().length);
+        }
+        // 按本地文件头顺序读取（会校验 CRC）
+        int entries = 0;
+        try (ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(archive.getFile().toPath()), StandardCharsets.UTF_8)) {
+            while (zipInputStream.getNextEntry() != null) {
+                zipInputStream.readAllBytes();
+                entries++;
+            }
+        }
+        assertEquals(files.size(), entries);
+    }
+
+    @Test
+    void reuseUntilContentChanges() throws IOException {
+        try (ProjectArchive first = manager.getArchive(projectDir, listFiles());
+             ProjectArchive second = manager.getArchive(projectDir, listFiles())) {
+            assertEquals(first.getFile(), second.getFile());
+            assertEquals(first.getFile().lastModified(), second.getFile().lastModified());
+            long size = first.getChannel().size();
+
+            Files.writeString(projectDir.resolve("src/components/Item1.vue"), "changed");
+            try (ProjectArchive third = manager.getArchive(projectDir, listFiles())) {
+                assertNotEquals(first.getDigest(), third.getDigest());
+                // 旧内容的压缩包已删除
+                assertFalse(first.getFile().exists());
+                try (Stream<Path> stream = Files.list(third.getFile().toPath().getParent())) {
+                    assertEquals(1, stream.count());
+                }
+            }
+            // 删除前已打开的通道仍能读取完整的旧压缩包
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && first.getChannel().read(buffer, buffer.position()) > 0) {
+            }
+            assertEquals(size, buffer.position());
+        }
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> stream = Files.walk(projectDir)) {
+            return stream.filter(Files::isRegularFile).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.wjp.waicodermotherbackend.manager.cache;
+
+import com.wjp.waicodermotherbackend.model.dto.app.AppQueryRequest;
+import com.wjp.waicodermotherbackend.utils.CacheKeyUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存 key 生成基准测试: CacheKeyUtils（JSON + MD5） vs AppQueryCacheKeyGenerator
+ *
+ * 运行方式（先 mvn test-compile）: 直接运行 main 方法，会附带 GC 分析（每次调用分配的字节数）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AppQueryCacheKeyBenchmark {
+
+    /**
+     * 请求形态:
+     * - homepage: 首页精选列表（只有分页参数）
+     * - search: 按名称搜索
+     * - full: 所有字段都有值（包含较长的初始提示词）
+     */
+    @Param({"homepage", "search", "full"})
+    private String shape;
+
+    private AppQueryRequest request;
+
+    @Setup
+    public void setUp() {
+        request = new AppQueryRequest();
+        request.setPageNum(1);
+        request.setPageSize(20);
+        switch (shape) {
+            case "search" -> request.setAppName("个人博客");
+            case "full" -> {
+                request.setId(1949382947623456789L);
+                request.setAppName("个人博客");
+                request.setCover("https://example.com/screenshots/2025/08/01/cover_compressed.jpg");
+                request.setInitPrompt("创建一个现代化的个人博客网站，包含文章列表、详情页、分类标签、搜索功能、评论系统和个人简介页面。".repeat(4));
+                request.setCodeGenType("vue_project");
+                request.setDeployKey("a1B2c3");
+                request.setPriority(99);
+                request.setUserId(1949382947623456000L);
+                request.setSortField("createTime");
+            }
+            default -> {
+            }
+        }
+    }
+
+    @Benchmark
+    public String jsonMd5() {
+        return CacheKeyUtils.generateKey(request);
+    }
+
+    @Benchmark
+    public String fieldHash() {
+        return AppQueryCacheKeyGenerator.generateKey(request);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AppQueryCacheKeyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,61 @@
+package com.wjp.waicodermotherbackend.manager.cache;
+
+import com.wjp.waicodermotherbackend.model.dto.app.AppQueryRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 应用查询缓存 key 生成器测试
+ */
+class AppQueryCacheKeyGeneratorTest {
+
+    @Test
+    void sameFieldsProduceSameKey() {
+        AppQueryRequest first = request("博客", 1);
+        AppQueryRequest second = request("博客", 1);
+        assertEquals(AppQueryCacheKeyGenerator.generateKey(first), AppQueryCacheKeyGenerator.generateKey(second));
+        assertEquals(32, AppQueryCacheKeyGenerator.generateKey(first).length());
+    }
+
+    @Test
+    void differentFieldsProduceDifferentKeys() {
+        Set<String> keys = new HashSet<>();
+        keys.add(AppQueryCacheKeyGenerator.generateKey(request(null, 1)));
+        keys.add(AppQueryCacheKeyGenerator.generateKey(request("", 1)));
+        keys.add(AppQueryCacheKeyGenerator.generateKey(request("博客", 1)));
+        keys.add(AppQueryCacheKeyGenerator.generateKey(request("博客", 2)));
+        // 字段边界不同
+        AppQueryRequest shifted = request("博", 1);
+        shifted.setCover("客");
+        keys.add(AppQueryCacheKeyGenerator.generateKey(shifted));
+        AppQueryRequest featured = request("博客", 1);
+        featured.setPriority(99);
+        keys.add(AppQueryCacheKeyGenerator.generateKey(featured));
+        assertEquals(6, keys.size());
+    }
+
+    @Test
+    void pageNumbersDoNotCollide() {
+        Set<String> keys = new HashSet<>();
+        for (int pageNum = 1; pageNum <= 10; pageNum++) {
+            for (int pageSize = 1; pageSize <= 20; pageSize++) {
+                AppQueryRequest request = request(null, pageNum);
+                request.setPageSize(pageSize);
+                keys.add(AppQueryCacheKeyGenerator.generateKey(request));
+            }
+        }
+        assertEquals(200, keys.size());
+    }
+
+    private AppQueryRequest request(String appName, int pageNum) {
+        AppQueryRequest request = new AppQueryRequest();
+        request.setAppName(appName);
+        request.setPageNum(pageNum);
+        request.setPageSize(20);
+        return request;
+    }
+}
@@ -0,0 +1,65 @@
+package com.wjp.waicodermotherbackend.manager.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 二级缓存测试
+ */
+class NearCacheTest {
+
+    @Test
+    void readThroughFillsLocalCache() {
+        ConcurrentMapCache remote = new ConcurrentMapCache("good_app_page");
+        NearCache nearCache = new NearCache(remote, 100, Duration.ofMinutes(1), name -> {
+        });
+        remote.put("k", "v");
+        assertEquals("v", nearCache.get("k").get());
+        // Redis 中的值被其他节点删除，本地仍然命中
+        remote.evict("k");
+        assertEquals("v", nearCache.get("k", String.class));
+        // 收到失效通知后回源
+        nearCache.invalidateLocal();
+        assertNull(nearCache.get("k"));
+    }
+
+    @Test
+    void clearPublishesInvalidation() {
+        List<String> published = new ArrayList<>();
+        ConcurrentMapCache remote = new ConcurrentMapCache("good_app_page");
+        NearCache nearCache = new NearCache(remote, 100, Duration.ofMinutes(1), published::add);
+        nearCache.put("k", "v");
+        assertEquals("v", remote.get("k").get());
+        nearCache.clear();
+        assertNull(nearCache.get("k"));
+        assertNull(remote.get("k"));
+        assertEquals(List.of("good_app_page"), published);
+    }
+
+    @Test
+    void valueLoaderResultIsCached() {
+        ConcurrentMapCache remote = new ConcurrentMapCache("good_app_page");
+        NearCache nearCache = new NearCache(remote, 100, Duration.ofMinutes(1), name -> {
+        });
+        assertEquals("v1", nearCache.get("k", () -> "v1"));
+        assertEquals("v1", nearCache.get("k", () -> "v2"));
+    }
+
+    @Test
+    void managerRoutesOnlyConfiguredCaches() {
+        NearCacheManager manager = new NearCacheManager(new ConcurrentMapCacheManager(),
+                Set.of("good_app_page"), 100, Duration.ofMinutes(1), name -> {
+        });
+        assertInstanceOf(NearCache.class, manager.getCache("good_app_page"));
+        assertSame(manager.getCache("good_app_page"), manager.getCache("good_app_page"));
+        assertInstanceOf(ConcurrentMapCache.class, manager.getCache("other"));
+    }
+}
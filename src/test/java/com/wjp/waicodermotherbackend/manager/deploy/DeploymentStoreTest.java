@@ -0,0 +1,114 @@
+package com.wjp.waicodermotherbackend.manager.deploy;
+
+import cn.hutool.core.io.FileUtil;
+import com.wjp.waicodermotherbackend.config.DeployStoreConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 内容寻址部署存储测试
+ */
+class DeploymentStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DeploymentStore store;
+
+    private Path deployRoot;
+
+    private Path source;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DeployStoreConfig config = new DeployStoreConfig();
+        config.setEnabled(true);
+        config.setStoreDir(tempDir.resolve("store").toString());
+        config.setKeepVersions(2);
+        config.setKeepManifests(3);
+        deployRoot = Files.createDirectories(tempDir.resolve("deploy"));
+        store = new DeploymentStore(config, deployRoot.toString());
+        source = Files.createDirectories(tempDir.resolve("source"));
+        Files.writeString(source.resolve("index.html"), "<html>v1</html>");
+        Files.createDirectories(source.resolve("assets"));
+        Files.writeString(source.resolve("assets/app.js"), "console.log('app')");
+    }
+
+    @Test
+    void unchangedFilesShareContent() throws IOException {
+        DeployManifest first = store.deploy("abc123", 1, source.toFile());
+        assertEquals(2, countBlobs());
+        Files.writeString(source.resolve("index.html"), "<html>v2</html>");
+        DeployManifest second = store.deploy("abc123", 2, source.toFile());
+        // 只新增了变化的文件
+        assertEquals(3, countBlobs());
+        assertNotEquals(first.getDigest(), second.getDigest());
+        assertEquals("<html>v1</html>", Files.readString(deployRoot.resolve("abc123/V1/index.html")));
+        assertEquals("<html>v2</html>", Files.readString(deployRoot.resolve("abc123/V2/index.html")));
+        assertTrue(Files.isSameFile(deployRoot.resolve("abc123/V1/assets/app.js"), deployRoot.resolve("abc123/V2/assets/app.js")));
+        assertEquals(2, store.getLatestVersion("abc123"));
+    }
+
+    @Test
+    void restoreRebuildsVersionFromManifest() throws IOException {
+        DeployManifest deployed = store.deploy("abc123", 1, source.toFile());
+        FileUtil.del(deployRoot.resolve("abc123/V1"));
+        DeployManifest restored = store.restore("abc123", 1);
+        assertNotNull(restored);
+        assertEquals(deployed.getDigest(), restored.getDigest());
+        assertEquals(2, restored.getFiles().size());
+        assertEquals("console.log('app')", Files.readString(deployRoot.resolve("abc123/V1/assets/app.js")));
+        assertNull(store.restore("abc123", 9));
+    }
+
+    @Test
+    void pruneAndCollectGarbage() throws IOException {
+        for (int version = 1; version <= 5; version++) {
+            Files.writeString(source.resolve("index.html"), "<html>v" + version + "</html>");
+            store.deploy("abc123", version, source.toFile());
+        }
+        assertEquals(6, countBlobs());
+        // 保留最近两个版本目录、三个版本清单和当前使用的 V1
+        store.prune("abc123", 1);
+        assertTrue(Files.isDirectory(deployRoot.resolve("abc123/V1")));
+        assertFalse(Files.exists(deployRoot.resolve("abc123/V2")));
+        assertFalse(Files.exists(deployRoot.resolve("abc123/V3")));
+        assertTrue(Files.isDirectory(deployRoot.resolve("abc123/V5")));
+        // 只有 V2 的清单被删除，其独有的内容被清理
+        assertEquals(1, store.collectGarbage());
+        assertEquals(5, countBlobs());
+        assertNull(store.restore("abc123", 2));
+        assertNotNull(store.restore("abc123", 1));
+        assertEquals(5, store.getLatestVersion("abc123"));
+    }
+
+    @Test
+    void rollbackToPrunedVersionRebuildsFromManifest() throws IOException {
+        for (int version = 1; version <= 4; version++) {
+            Files.writeString(source.resolve("index.html"), "<html>v" + version + "</html>");
+            store.deploy("abc123", version, source.toFile());
+        }
+        store.prune("abc123", 4);
+        store.collectGarbage();
+        // V2 早于 keepVersions，版本目录已删除，但清单和内容仍在
+        assertFalse(Files.exists(deployRoot.resolve("abc123/V2")));
+        DeployManifest restored = store.restore("abc123", 2);
+        assertNotNull(restored);
+        assertEquals("<html>v2</html>", Files.readString(deployRoot.resolve("abc123/V2/index.html")));
+        assertEquals("console.log('app')", Files.readString(deployRoot.resolve("abc123/V2/assets/app.js")));
+    }
+
+    private long countBlobs() throws IOException {
+        try (Stream<Path> stream = Files.walk(tempDir.resolve("store/blobs"))) {
+            return stream.filter(Files::isRegularFile).count();
+        }
+    }
+}
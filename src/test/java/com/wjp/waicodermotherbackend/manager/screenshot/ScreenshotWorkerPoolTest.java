@@ -0,0 +1,129 @@
+package com.wjp.waicodermotherbackend.manager.screenshot;
+
+import com.wjp.waicodermotherbackend.config.ScreenshotPoolConfig;
+import com.wjp.waicodermotherbackend.exception.BusinessException;
+import com.wjp.waicodermotherbackend.exception.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 截图浏览器池测试（使用假的浏览器驱动）
+ */
+class ScreenshotWorkerPoolTest {
+
+    private final AtomicInteger createdDrivers = new AtomicInteger();
+
+    private ScreenshotWorkerPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.stop();
+        }
+    }
+
+    @Test
+    void duplicateUrlsShareOneCapture() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger captures = new AtomicInteger();
+        pool = startPool(1, 10, 100, (driver, url) -> {
+            captures.incrementAndGet();
+            await(release);
+            return url.getBytes(StandardCharsets.UTF_8);
+        });
+        // 第一个任务占住唯一的浏览器，后面两个相同 URL 的任务在排队中合并
+        CompletableFuture<byte[]> blocker = pool.submit("http://localhost/blocker");
+        CompletableFuture<byte[]> first = pool.submit("http://localhost/a");
+        CompletableFuture<byte[]> second = pool.submit("http://localhost/a");
+        assertSame(first, second);
+        release.countDown();
+        assertArrayEquals("http://localhost/a".getBytes(StandardCharsets.UTF_8), first.get(5, TimeUnit.SECONDS));
+        blocker.get(5, TimeUnit.SECONDS);
+        assertEquals(2, captures.get());
+        assertEquals(1L, pool.getMetrics().get("deduplicated"));
+    }
+
+    @Test
+    void rejectWhenQueueIsFull() {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        pool = startPool(1, 1, 100, (driver, url) -> {
+            started.countDown();
+            await(release);
+            return new byte[0];
+        });
+        pool.submit("http://localhost/1");
+        await(started);
+        pool.submit("http://localhost/2");
+        BusinessException exception = assertThrows(BusinessException.class, () -> pool.submit("http://localhost/3"));
+        assertEquals(ErrorCode.TOO_MANY_REQUEST.getCode(), exception.getCode());
+        release.countDown();
+    }
+
+    @Test
+    void recycleDriverAfterMaxPages() throws Exception {
+        pool = startPool(1, 10, 2, (driver, url) -> new byte[0]);
+        for (int i = 0; i < 5; i++) {
+            pool.submit("http://localhost/" + i).get(5, TimeUnit.SECONDS);
+        }
+        // 5 个页面，每 2 个页面重建一次
+        assertEquals(3, createdDrivers.get());
+        assertEquals(2L, pool.getMetrics().get("driverRecycled"));
+    }
+
+    @Test
+    void recreateDriverAfterFailure() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        pool = startPool(1, 10, 100, (driver, url) -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("页面崩溃");
+            }
+            return new byte[]{1};
+        });
+        CompletableFuture<byte[]> failed = pool.submit("http://localhost/1");
+        assertThrows(Exception.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertArrayEquals(new byte[]{1}, pool.submit("http://localhost/2").get(5, TimeUnit.SECONDS));
+        assertEquals(2, createdDrivers.get());
+    }
+
+    private ScreenshotWorkerPool startPool(int size, int queueCapacity, int maxPagesPerDriver,
+                                           BiFunction<WebDriver, String, byte[]> capturer) {
+        ScreenshotPoolConfig config = new ScreenshotPoolConfig();
+        config.setSize(size);
+        config.setQueueCapacity(queueCapacity);
+        config.setMaxPagesPerDriver(maxPagesPerDriver);
+        ScreenshotWorkerPool workerPool = new ScreenshotWorkerPool(config, this::fakeDriver, capturer);
+        workerPool.start();
+        return workerPool;
+    }
+
+    private WebDriver fakeDriver() {
+        createdDrivers.incrementAndGet();
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{WebDriver.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getWindowHandle" -> "window";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
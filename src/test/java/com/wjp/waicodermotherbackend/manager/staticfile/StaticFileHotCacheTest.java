@@ -0,0 +1,52 @@
+package com.wjp.waicodermotherbackend.manager.staticfile;
+
+import com.wjp.waicodermotherbackend.config.StaticResourceConfig;
+import com.wjp.waicodermotherbackend.manager.staticfile.StaticFileHotCache.HotFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 部署站点热点文件缓存测试
+ */
+class StaticFileHotCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void servesFromMemoryAfterFirstRead() throws IOException {
+        StaticFileHotCache cache = new StaticFileHotCache(new StaticResourceConfig());
+        Path file = Files.writeString(tempDir.resolve("index.html"), "<html>hot</html>");
+        HotFile first = cache.get(file, "text/html; charset=UTF-8", "\"etag\"");
+        Files.delete(file);
+        HotFile second = cache.get(file, "text/html; charset=UTF-8", "\"etag\"");
+        assertSame(first, second);
+        assertEquals("<html>hot</html>", new String(second.getContent()));
+        assertEquals("\"etag\"", second.getEtag());
+
+        Map<String, Object> metrics = cache.getMetrics();
+        assertEquals(1L, metrics.get("hits"));
+        assertEquals(1L, metrics.get("misses"));
+        assertEquals(16L, metrics.get("weightedBytes"));
+        assertNull(cache.get(tempDir.resolve("missing.js"), "application/javascript", "\"x\""));
+    }
+
+    @Test
+    void onlySmallFilesAreCacheable() {
+        StaticResourceConfig config = new StaticResourceConfig();
+        config.setHotCacheMaxFileSize(DataSize.ofKilobytes(1));
+        StaticFileHotCache cache = new StaticFileHotCache(config);
+        assertTrue(cache.isCacheable(1024));
+        assertFalse(cache.isCacheable(1025));
+        config.setHotCacheEnabled(false);
+        assertFalse(cache.isCacheable(10));
+    }
+}
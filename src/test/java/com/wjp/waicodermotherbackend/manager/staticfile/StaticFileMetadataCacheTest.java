@@ -0,0 +1,58 @@
+package com.wjp.waicodermotherbackend.manager.staticfile;
+
+import com.wjp.waicodermotherbackend.config.StaticResourceConfig;
+import com.wjp.waicodermotherbackend.manager.staticfile.StaticFileMetadataCache.StaticFileMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 静态文件元数据缓存测试
+ */
+class StaticFileMetadataCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final StaticFileMetadataCache cache = new StaticFileMetadataCache(new StaticResourceConfig());
+
+    @Test
+    void etagFollowsContent() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("index.html"), "<html>v1</html>");
+        StaticFileMetadata first = cache.get(file, false);
+        assertNotNull(first);
+        assertTrue(first.getEtag().startsWith("\"") && first.getEtag().endsWith("\""));
+        assertEquals(15, first.getLength());
+        assertSame(first, cache.get(file, false));
+
+        Files.writeString(file, "<html>v2!</html>");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(first.getLastModified() + 1000));
+        StaticFileMetadata second = cache.get(file, false);
+        assertNotEquals(first.getEtag(), second.getEtag());
+
+        // 相同内容得到相同的 ETag
+        Path copy = Files.writeString(tempDir.resolve("copy.html"), "<html>v2!</html>");
+        assertEquals(second.getEtag(), cache.get(copy, false).getEtag());
+    }
+
+    @Test
+    void immutableFilesSkipFileSystem() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("app.js"), "console.log(1)");
+        StaticFileMetadata metadata = cache.get(file, true);
+        Files.delete(file);
+        assertSame(metadata, cache.get(file, true));
+        assertNull(cache.get(file, false));
+    }
+
+    @Test
+    void missingFilesAndDirectories() {
+        assertNull(cache.get(tempDir.resolve("missing.html"), false));
+        assertNull(cache.get(tempDir, false));
+    }
+}
@@ -0,0 +1,74 @@
+package com.wjp.waicodermotherbackend.manager.staticfile;
+
+import com.wjp.waicodermotherbackend.config.StaticResourceConfig;
+import com.wjp.waicodermotherbackend.manager.staticfile.StaticFileMetadataCache.StaticFileMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 静态文件预压缩测试
+ */
+class StaticFilePrecompressorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final StaticResourceConfig config = new StaticResourceConfig();
+
+    private final StaticFilePrecompressor precompressor = new StaticFilePrecompressor(config);
+
+    @Test
+    void precompressTextFilesOnce() throws IOException {
+        String html = "<div class=\"item\">hello</div>\n".repeat(200);
+        Path index = Files.writeString(tempDir.resolve("index.html"), html);
+        Files.createDirectories(tempDir.resolve("assets"));
+        Files.writeString(tempDir.resolve("assets/small.css"), "body{margin:0}");
+        byte[] random = new byte[4096];
+        new Random(1).nextBytes(random);
+        Files.write(tempDir.resolve("assets/data.js"), random);
+        Files.write(tempDir.resolve("assets/logo.png"), random);
+
+        assertEquals(1, precompressor.precompress(tempDir));
+        Path gz = tempDir.resolve("index.html.gz");
+        assertTrue(Files.size(gz) < Files.size(index));
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(gz))) {
+            assertEquals(html, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        // 太小、压缩效果差、不可压缩类型的文件不生成
+        assertFalse(Files.exists(tempDir.resolve("assets/small.css.gz")));
+        assertFalse(Files.exists(tempDir.resolve("assets/data.js.gz")));
+        assertFalse(Files.exists(tempDir.resolve("assets/logo.png.gz")));
+        // 再次执行时跳过已有的文件
+        assertEquals(0, precompressor.precompress(tempDir));
+
+        StaticFileMetadata metadata = new StaticFileMetadataCache(config).get(index, true);
+        assertEquals(Files.size(gz), metadata.getEncodedLengths().get(ContentEncoding.GZIP));
+        assertNotEquals(metadata.getEtag(), metadata.getEtag(ContentEncoding.GZIP));
+    }
+
+    @Test
+    void negotiateEncoding() {
+        Set<ContentEncoding> both = EnumSet.allOf(ContentEncoding.class);
+        Set<ContentEncoding> gzipOnly = EnumSet.of(ContentEncoding.GZIP);
+        assertEquals(ContentEncoding.BROTLI, ContentEncoding.negotiate("gzip, deflate, br", both));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("gzip, deflate, br", gzipOnly));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("br;q=0.5, gzip", both));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("*", gzipOnly));
+        assertNull(ContentEncoding.negotiate("gzip;q=0", gzipOnly));
+        assertNull(ContentEncoding.negotiate("identity", both));
+        assertNull(ContentEncoding.negotiate(null, both));
+        assertNull(ContentEncoding.negotiate("gzip", EnumSet.noneOf(ContentEncoding.class)));
+    }
+}
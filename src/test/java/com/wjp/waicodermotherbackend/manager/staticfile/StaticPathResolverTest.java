@@ -0,0 +1,67 @@
+package com.wjp.waicodermotherbackend.manager.staticfile;
+
+import com.wjp.waicodermotherbackend.config.StaticResourceConfig;
+import com.wjp.waicodermotherbackend.manager.staticfile.StaticPathResolver.ResolvedPath;
+import com.wjp.waicodermotherbackend.model.enums.AppCodeGenEnum;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 静态资源路径解析测试
+ */
+class StaticPathResolverTest {
+
+    private final StaticPathResolver resolver = new StaticPathResolver(new StaticResourceConfig());
+
+    private final Path deployRoot = Path.of(AppCodeGenEnum.CODE_DEPLOY_ROOT_DIR.getValue()).toAbsolutePath().normalize();
+
+    @Test
+    void resolveWithinAppDirectory() {
+        ResolvedPath index = resolver.resolve(AppCodeGenEnum.CODE_DEPLOY_ROOT_DIR, "abc123", "/V2/");
+        assertEquals(deployRoot.resolve("abc123/V2/index.html"), index.getFile());
+        assertTrue(index.isImmutable());
+        assertEquals("text/html; charset=UTF-8", index.getContentType());
+
+        ResolvedPath asset = resolver.resolve(AppCodeGenEnum.CODE_DEPLOY_ROOT_DIR, "abc123", "/V2/./assets//app.js");
+        assertEquals(deployRoot.resolve("abc123/V2/assets/app.js"), asset.getFile());
+
+        ResolvedPath preview = resolver.resolve(AppCodeGenEnum.CODE_OUTPUT_ROOT_DIR, "vue_project_1", "/dist/index.html");
+        assertFalse(preview.isImmutable());
+    }
+
+    @Test
+    void rejectTraversal() {
+        assertNull(resolver.resolve(AppCodeGenEnum.CODE_DEPLOY_ROOT_DIR, "abc123", "/V1/../../other/V1/index.html"));
+        assertNull(resolver.resolve(AppCodeGenEnum.CODE_DEPLOY_ROOT_DIR, "abc123", "/..\\secret.txt"));
+        assertNull(resolver.resolve(AppCodeGenEnum.CODE_DEPLOY_ROOT_DIR, "..", "/index.html"));
+        assertNull(resolver.resolve(AppCodeGenEnum.CODE_OUTPUT_ROOT_DIR, "vue_project_1", "/a\0.html"));
+        assertNull(resolver.resolve(AppCodeGenEnum.CODE_OUTPUT_ROOT_DIR, "vue_project_1", "index.html"));
+    }
+
+    @Test
+    void cacheMissingDeployPathsUntilInvalidated() {
+        ResolvedPath missing = resolver.resolve(AppCodeGenEnum.CODE_DEPLOY_ROOT_DIR, "abc123", "/V1/robots.txt");
+        missing.markMissing();
+        assertTrue(resolver.resolve(AppCodeGenEnum.CODE_DEPLOY_ROOT_DIR, "abc123", "/V1/robots.txt").isMissing());
+
+        resolver.invalidate("abc123");
+        assertFalse(resolver.resolve(AppCodeGenEnum.CODE_DEPLOY_ROOT_DIR, "abc123", "/V1/robots.txt").isMissing());
+
+        // 预览目录的内容会变化，不记录不存在的结果
+        ResolvedPath preview = resolver.resolve(AppCodeGenEnum.CODE_OUTPUT_ROOT_DIR, "vue_project_1", "/robots.txt");
+        preview.markMissing();
+        assertFalse(preview.isMissing());
+    }
+
+    @Test
+    void contentTypes() {
+        assertEquals("application/javascript; charset=UTF-8", StaticPathResolver.getContentType("app.JS"));
+        assertEquals("font/woff2", StaticPathResolver.getContentType("font.woff2"));
+        assertEquals("image/svg+xml; charset=UTF-8", StaticPathResolver.getContentType("logo.svg"));
+        assertEquals("text/csv; charset=UTF-8", StaticPathResolver.getContentType("data.csv"));
+        assertEquals("application/octet-stream", StaticPathResolver.getContentType("file.unknownext"));
+    }
+}
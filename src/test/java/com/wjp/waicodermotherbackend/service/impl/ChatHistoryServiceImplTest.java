@@ -0,0 +1,79 @@
+package com.wjp.waicodermotherbackend.service.impl;
+
+import com.mybatisflex.core.query.QueryWrapper;
+import com.wjp.waicodermotherbackend.manager.ChatHistoryBatchWriter;
+import com.wjp.waicodermotherbackend.mapper.ChatHistoryMapper;
+import com.wjp.waicodermotherbackend.model.entity.ChatHistory;
+import com.wjp.waicodermotherbackend.model.enums.ChatHistoryMessageTypeEnum;
+import dev.langchain4j.memory.ChatMemory;
+import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+/**
+ * 对话历史服务测试（验证与异步批量写入器的配合）
+ */
+class ChatHistoryServiceImplTest {
+
+    private ChatHistoryMapper mapper;
+
+    private ChatHistoryBatchWriter writer;
+
+    private ChatHistoryServiceImpl chatHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        mapper = mock(ChatHistoryMapper.class);
+        writer = mock(ChatHistoryBatchWriter.class);
+        chatHistoryService = new ChatHistoryServiceImpl(mapper, writer);
+    }
+
+    @Test
+    void addChatMessageGoesThroughWriter() {
+        when(writer.submit(any(ChatHistory.class))).thenReturn(true);
+        assertTrue(chatHistoryService.addChatMessage(1L, "hello", ChatHistoryMessageTypeEnum.USER.getValue(), 2L));
+        verify(writer).submit(any(ChatHistory.class));
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    void addChatMessageFallsBackToSynchronousInsert() {
+        // 未开启或队列已满
+        when(writer.submit(any(ChatHistory.class))).thenReturn(false);
+        when(mapper.insert(any(ChatHistory.class), anyBoolean())).thenReturn(1);
+        assertTrue(chatHistoryService.addChatMessage(1L, "hello", ChatHistoryMessageTypeEnum.AI.getValue(), 2L));
+        verify(mapper).insert(argThat(row -> "hello".equals(row.getMessage()) && row.getAppId() == 1L), anyBoolean());
+    }
+
+    @Test
+    void loadChatHistoryFlushesBeforeQuery() {
+        when(mapper.selectListByQuery(any(QueryWrapper.class))).thenReturn(List.of(
+                ChatHistory.builder().message("reply").messageType(ChatHistoryMessageTypeEnum.AI.getValue()).build(),
+                ChatHistory.builder().message("question").messageType(ChatHistoryMessageTypeEnum.USER.getValue()).build()));
+        ChatMemory chatMemory = MessageWindowChatMemory.withMaxMessages(10);
+
+        assertEquals(2, chatHistoryService.loadChatHistoryToMemory(1L, chatMemory, 20));
+        assertEquals(2, chatMemory.messages().size());
+        InOrder inOrder = inOrder(writer, mapper);
+        inOrder.verify(writer).flush();
+        inOrder.verify(mapper).selectListByQuery(any(QueryWrapper.class));
+    }
+
+    @Test
+    void deleteByAppIdFlushesBeforeDelete() {
+        when(mapper.deleteByQuery(any(QueryWrapper.class))).thenReturn(3);
+
+        assertTrue(chatHistoryService.deleteByAppId(1L));
+        InOrder inOrder = inOrder(writer, mapper);
+        inOrder.verify(writer).flush();
+        inOrder.verify(mapper).deleteByQuery(any(QueryWrapper.class));
+    }
+}
@@ -0,0 +1,47 @@
+package com.wjp.waicodermotherbackend.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 内容摘要工具类测试
+ */
+class ContentDigestUtilsTest {
+
+    @Test
+    void identicalTreesHaveSameDigest(@TempDir Path tempDir) throws IOException {
+        Path first = createSite(tempDir.resolve("V1"));
+        Path second = createSite(tempDir.resolve("V2"));
+        // 修改时间不影响摘要
+        Files.setLastModifiedTime(second.resolve("index.html"), FileTime.fromMillis(0));
+        assertEquals(ContentDigestUtils.digestDirectory(first), ContentDigestUtils.digestDirectory(second));
+    }
+
+    @Test
+    void changedContentOrPathChangesDigest(@TempDir Path tempDir) throws IOException {
+        Path site = createSite(tempDir.resolve("V1"));
+        String original = ContentDigestUtils.digestDirectory(site);
+
+        Files.writeString(site.resolve("style.css"), "h1 { color: blue; }");
+        String changedContent = ContentDigestUtils.digestDirectory(site);
+        assertNotEquals(original, changedContent);
+
+        Files.move(site.resolve("style.css"), site.resolve("assets/style.css"));
+        assertNotEquals(changedContent, ContentDigestUtils.digestDirectory(site));
+    }
+
+    private Path createSite(Path root) throws IOException {
+        Files.createDirectories(root.resolve("assets"));
+        Files.writeString(root.resolve("index.html"), "<h1>你好</h1>");
+        Files.writeString(root.resolve("style.css"), "h1 { color: red; }");
+        Files.writeString(root.resolve("assets/script.js"), "console.log(1)");
+        return root;
+    }
+}
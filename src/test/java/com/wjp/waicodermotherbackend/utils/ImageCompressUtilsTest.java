@@ -0,0 +1,62 @@
+package com.wjp.waicodermotherbackend.utils;
+
+import com.wjp.waicodermotherbackend.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 内存图片压缩测试
+ */
+class ImageCompressUtilsTest {
+
+    @Test
+    void compressLargePngToSmallerJpeg() throws IOException {
+        byte[] png = createPng(1600, 900);
+        byte[] jpeg = ImageCompressUtils.compressToJpeg(png);
+        // JPEG 文件头
+        assertEquals((byte) 0xFF, jpeg[0]);
+        assertEquals((byte) 0xD8, jpeg[1]);
+        BufferedImage result = ImageIO.read(new ByteArrayInputStream(jpeg));
+        assertEquals(1280, result.getWidth());
+        assertEquals(720, result.getHeight());
+    }
+
+    @Test
+    void reusedBuffersDoNotLeakPreviousContent() throws IOException {
+        byte[] large = ImageCompressUtils.compressToJpeg(createPng(1600, 900));
+        byte[] small = ImageCompressUtils.compressToJpeg(createPng(200, 100));
+        assertTrue(small.length < large.length);
+        BufferedImage result = ImageIO.read(new ByteArrayInputStream(small));
+        assertEquals(200, result.getWidth());
+        // consumer 中拿到的长度与复制出的字节一致
+        int length = ImageCompressUtils.compressToJpeg(createPng(200, 100), ImageCompressUtils.CompressedImage::length);
+        assertEquals(small.length, length);
+    }
+
+    @Test
+    void rejectUnknownFormat() {
+        assertThrows(BusinessException.class, () -> ImageCompressUtils.compressToJpeg(new byte[]{1, 2, 3}));
+    }
+
+    private static byte[] createPng(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.BLUE);
+        graphics.fillOval(width / 4, height / 4, width / 2, height / 2);
+        graphics.dispose();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", outputStream);
+        return outputStream.toByteArray();
+    }
+}
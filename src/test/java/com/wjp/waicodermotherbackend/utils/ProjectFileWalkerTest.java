@@ -0,0 +1,89 @@
+package com.wjp.waicodermotherbackend.utils;
+
+import com.wjp.waicodermotherbackend.utils.ProjectFileWalker.ProjectFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 项目目录遍历测试
+ */
+class ProjectFileWalkerTest {
+
+    @TempDir
+    Path root;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        write("package.json");
+        write("index.html");
+        write("src/main.js");
+        write("src/components/App.vue");
+        write("src/.eslintrc.js");
+        write("node_modules/vue/index.js");
+        write("dist/index.html");
+        write("logs/build.log");
+    }
+
+    @Test
+    void walkAllFilesInPathOrder() throws IOException {
+        List<ProjectFile> files = ProjectFileWalker.create().walk(root);
+        assertEquals(List.of("dist/index.html", "index.html", "logs/build.log", "node_modules/vue/index.js",
+                "package.json", "src/.eslintrc.js", "src/components/App.vue", "src/main.js"), relativePaths(files));
+        assertEquals(2, files.get(6).getDepth());
+        assertEquals(0, files.get(1).getDepth());
+    }
+
+    @Test
+    void skipDirectoriesAndFilterFiles() throws IOException {
+        ProjectFileWalker walker = ProjectFileWalker.create()
+                .skipDirectories(Set.of("node_modules", "dist"))
+                .filterNames(name -> !name.endsWith(".log") && !"logs".equals(name))
+                .filterFiles(name -> !name.startsWith("."));
+        assertEquals(List.of("index.html", "package.json", "src/components/App.vue", "src/main.js"),
+                relativePaths(walker.walk(root)));
+        // 过滤条件不影响原来的实例
+        assertEquals(8, ProjectFileWalker.create().walk(root).size());
+    }
+
+    @Test
+    void depthFirstOrder() throws IOException {
+        List<ProjectFile> files = ProjectFileWalker.create()
+                .skipDirectories(Set.of("node_modules", "dist", "logs"))
+                .walk(root).stream()
+                .sorted(ProjectFileWalker.DEPTH_FIRST_ORDER)
+                .toList();
+        assertEquals(List.of("index.html", "package.json", "src/.eslintrc.js", "src/main.js", "src/components/App.vue"),
+                relativePaths(files));
+    }
+
+    @Test
+    void acceptsMatchesWalkFilters() {
+        ProjectFileWalker walker = ProjectFileWalker.create()
+                .skipDirectories(Set.of("node_modules"))
+                .filterNames(name -> !name.startsWith("."))
+                .filterFiles(name -> name.endsWith(".vue"));
+        assertTrue(walker.accepts("src/components/App.vue"));
+        assertFalse(walker.accepts("node_modules/vue/App.vue"));
+        assertFalse(walker.accepts(".git/App.vue"));
+        assertFalse(walker.accepts("src/main.js"));
+    }
+
+    private void write(String relativePath) throws IOException {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, relativePath);
+    }
+
+    private static List<String> relativePaths(List<ProjectFile> files) {
+        return files.stream().map(ProjectFile::getRelativePath).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package com.wjp.waicodermotherbackend.utils;
+
+import com.wjp.waicodermotherbackend.utils.TextEditUtils.EditResult;
+import com.wjp.waicodermotherbackend.utils.TextEditUtils.EditStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 文本批量替换测试
+ */
+class TextEditUtilsTest {
+
+    private static final String CONTENT = """
+            <template>
+              <h1 class="title">Hello</h1>
+              <p class="desc">World</p>
+            </template>
+            """;
+
+    @Test
+    void appliesAllEditsInOnePass() {
+        EditResult result = TextEditUtils.applyEdits(CONTENT,
+                List.of("<p class=\"desc\">World</p>", "Hello"),
+                List.of("<p class=\"desc\">Vue</p>", "Hi"));
+        assertEquals(List.of(EditStatus.APPLIED, EditStatus.APPLIED), result.statuses());
+        assertEquals(2, result.appliedCount());
+        assertEquals("""
+                <template>
+                  <h1 class="title">Hi</h1>
+                  <p class="desc">Vue</p>
+                </template>
+                """, result.content());
+    }
+
+    @Test
+    void reportsEditsThatCannotBeApplied() {
+        EditResult result = TextEditUtils.applyEdits(CONTENT,
+                Arrays.asList("class=", "missing", "", "<h1 class=\"title\">", "title\">Hello", "</p>"),
+                List.of("x", "x", "x", "<h2 class=\"title\">", "x", "</p>\n  <p>new</p>"));
+        assertEquals(List.of(EditStatus.AMBIGUOUS, EditStatus.NOT_FOUND, EditStatus.EMPTY,
+                EditStatus.APPLIED, EditStatus.OVERLAPPED, EditStatus.APPLIED), result.statuses());
+        assertEquals("""
+                <template>
+                  <h2 class="title">Hello</h1>
+                  <p class="desc">World</p>
+                  <p>new</p>
+                </template>
+                """, result.content());
+    }
+
+    @Test
+    void findsPatternsSharingPrefixesAndSuffixes() {
+        EditResult result = TextEditUtils.applyEdits("she sells his shells",
+                List.of("shells", "his", "he s"),
+                List.of("pearls", "her", "he S"));
+        assertEquals(List.of(EditStatus.APPLIED, EditStatus.APPLIED, EditStatus.APPLIED), result.statuses());
+        assertEquals("she Sells her pearls", result.content());
+
+        EditResult unchanged = TextEditUtils.applyEdits("abc", List.of("x"), List.of("y"));
+        assertEquals("abc", unchanged.content());
+        assertEquals(0, unchanged.appliedCount());
+    }
+}
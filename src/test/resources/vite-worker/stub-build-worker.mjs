@@ -0,0 +1,31 @@
+// 测试用的假构建进程，协议与 vite-build-worker.mjs 相同。
+// 按项目目录名决定结果: *fail* 构建失败，*unsupported* 不支持，*crash* 进程退出，*hang* 不响应，其他成功。
+// 成功时输出当前进程 pid 和已处理的构建次数，用于验证进程被复用。
+import { createInterface } from 'node:readline';
+import { basename } from 'node:path';
+
+let builds = 0;
+const send = (message) => process.stdout.write(JSON.stringify(message) + '\n');
+
+createInterface({ input: process.stdin }).on('line', (line) => {
+  const request = JSON.parse(line);
+  const name = basename(request.root);
+  builds++;
+  if (name.includes('crash')) {
+    process.exit(1);
+  }
+  if (name.includes('hang')) {
+    return;
+  }
+  console.error(`building ${name}`);
+  send({ type: 'log', id: request.id, line: `pid=${process.pid} builds=${builds}` });
+  if (name.includes('unsupported')) {
+    send({ type: 'done', id: request.id, success: false, unsupported: true, error: 'unsupported build script' });
+  } else if (name.includes('fail')) {
+    send({ type: 'done', id: request.id, success: false, error: 'build failed' });
+  } else {
+    send({ type: 'done', id: request.id, success: true });
+  }
+});
+
+send({ type: 'ready' });
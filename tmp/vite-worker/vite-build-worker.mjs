@@ -0,0 +1,113 @@
+// 常驻的 Vite 构建进程，由 ViteWorkerPool 启动和管理。
+// 协议: 每行一个 JSON
+//   输入  {"id":1,"root":"/abs/project"}
+//   输出  {"type":"ready"}
+//         {"type":"log","id":1,"line":"..."}
+//         {"type":"done","id":1,"success":true}
+//         {"type":"done","id":1,"success":false,"unsupported":true,"error":"..."}
+// 同一时刻只处理一个请求。Vite、Rollup、插件的模块加载后常驻内存，之后的构建不再冷启动。
+import { createInterface } from 'node:readline';
+import { readFileSync, existsSync } from 'node:fs';
+import { join } from 'node:path';
+import { createRequire } from 'node:module';
+import { pathToFileURL } from 'node:url';
+
+const protocolWrite = process.stdout.write.bind(process.stdout);
+let currentId = null;
+
+function send(message) {
+  protocolWrite(JSON.stringify(message) + '\n');
+}
+
+function emitLog(text) {
+  for (const line of String(text).split(/\r?\n/)) {
+    if (line.length > 0) {
+      send({ type: 'log', id: currentId, line });
+    }
+  }
+}
+
+// Vite 和插件的输出全部转成 log 消息，避免破坏协议
+process.stdout.write = (chunk, encoding, callback) => {
+  emitLog(chunk);
+  if (typeof encoding === 'function') encoding();
+  else if (typeof callback === 'function') callback();
+  return true;
+};
+for (const method of ['log', 'info', 'warn', 'error', 'debug']) {
+  console[method] = (...args) => emitLog(args.map(String).join(' '));
+}
+
+// 每个依赖缓存目录下的 vite 只加载一次
+const viteModules = new Map();
+
+async function loadVite(root) {
+  const require = createRequire(join(root, 'package.json'));
+  const entry = require.resolve('vite');
+  if (!viteModules.has(entry)) {
+    viteModules.set(entry, await import(pathToFileURL(entry).href));
+  }
+  return viteModules.get(entry);
+}
+
+function unsupportedReason(root) {
+  const packageJsonPath = join(root, 'package.json');
+  if (!existsSync(packageJsonPath)) {
+    return 'package.json not found';
+  }
+  const scripts = JSON.parse(readFileSync(packageJsonPath, 'utf8')).scripts || {};
+  // 只接管纯 vite build，其余（例如先做类型检查）交给 npm run build
+  if ((scripts.build || '').trim() !== 'vite build') {
+    return `unsupported build script: ${scripts.build}`;
+  }
+  return null;
+}
+
+async function handle(request) {
+  currentId = request.id;
+  const reason = unsupportedReason(request.root);
+  if (reason) {
+    send({ type: 'done', id: request.id, success: false, unsupported: true, error: reason });
+    return;
+  }
+  let vite;
+  try {
+    vite = await loadVite(request.root);
+  } catch (e) {
+    send({ type: 'done', id: request.id, success: false, unsupported: true, error: String(e && e.message || e) });
+    return;
+  }
+  try {
+    await vite.build({ root: request.root, mode: 'production', logLevel: 'info' });
+    send({ type: 'done', id: request.id, success: true });
+  } catch (e) {
+    emitLog(e && e.stack || e);
+    send({ type: 'done', id: request.id, success: false, error: String(e && e.message || e) });
+  }
+}
+
+const queue = [];
+let busy = false;
+
+async function drain() {
+  if (busy) return;
+  busy = true;
+  while (queue.length > 0) {
+    await handle(queue.shift());
+  }
+  currentId = null;
+  busy = false;
+}
+
+createInterface({ input: process.stdin }).on('line', (line) => {
+  if (!line.trim()) return;
+  try {
+    queue.push(JSON.parse(line));
+  } catch (e) {
+    emitLog(`invalid request: ${line}`);
+    return;
+  }
+  drain();
+}).on('close', () => process.exit(0));
+
+send({ type: 'ready' });